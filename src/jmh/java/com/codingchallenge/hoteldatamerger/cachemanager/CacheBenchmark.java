@@ -0,0 +1,129 @@
+package com.codingchallenge.hoteldatamerger.cachemanager;
+
+import com.codingchallenge.hoteldatamerger.model.HotelResult;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/*
+ * CacheBenchmark measures the throughput and latency of reading filtered results through the cache while other
+ * threads do the same. Every operation asks for one key and puts it on a miss, like a request does, so once the cache
+ * is full every miss evicts an entry. The key space is cacheSize / hitRatio keys, so uniformly distributed keys hit
+ * about hitRatio of the time. Zipfian keys hit more often. The hit ratio actually observed is reported as the hits and
+ * misses counters. Run with -t to set the number of threads, e.g. -t 1, 4, 16 and 64.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(1)
+@Fork(1)
+public class CacheBenchmark {
+    private static final int SAMPLED_OPERATIONS = 1 << 16;
+    private static final List<HotelResult> RESULT = List.of();
+    // keeps the level of the silenced logger, which only holds a weak reference to it otherwise
+    private static final Logger CACHE_MANAGER_LOGGER = Logger.getLogger(CacheManager.class.getName());
+
+    // SimpleCache is read through the Cache interface, CacheManager through getFilteredResults / addFilteredResult
+    @Param({"SimpleCache", "CacheManager"})
+    public String target;
+
+    @Param({"100"})
+    public int cacheSize;
+
+    @Param({"1.0", "0.9", "0.5"})
+    public double hitRatio;
+
+    @Param({"UNIFORM", "ZIPFIAN"})
+    public KeyDistribution keyDistribution;
+
+    private Cache<String, List<HotelResult>> cache;
+    private CacheManager cacheManager;
+    private int keySpace;
+    private String[] cacheKeys;
+    private List<List<String>> destinationIDs;
+
+    @Setup
+    public void setUp() {
+        // the log lines are still built on every call, but not written to the benchmark output
+        CACHE_MANAGER_LOGGER.setLevel(java.util.logging.Level.WARNING);
+
+        this.cache = new SimpleCache<>(this.cacheSize);
+        this.cacheManager = new CacheManager(this.cache);
+        this.keySpace = (int) Math.ceil(this.cacheSize / this.hitRatio);
+        this.cacheKeys = new String[this.keySpace];
+        this.destinationIDs = new ArrayList<>(this.keySpace);
+        for (int i = 0; i < this.keySpace; i++) {
+            List<String> destinationID = List.of(String.valueOf(i));
+            this.destinationIDs.add(destinationID);
+            this.cacheKeys[i] = this.cacheManager.buildCacheKey(destinationID, null);
+        }
+        for (int i = 0; i < this.cacheSize; i++) {
+            this.cache.put(this.cacheKeys[i], RESULT);
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Operations {
+        public long hits;
+        public long misses;
+
+        private int[] keys;
+        private int next;
+
+        @Setup
+        public void setUp(CacheBenchmark benchmark, ThreadParams threadParams) {
+            this.keys = benchmark.keyDistribution.sample(benchmark.keySpace, SAMPLED_OPERATIONS, threadParams.getThreadIndex());
+        }
+
+        @Setup(Level.Iteration)
+        public void resetCounters() {
+            this.hits = 0;
+            this.misses = 0;
+        }
+
+        int nextKey() {
+            int key = this.keys[this.next];
+            this.next = (this.next + 1) & (SAMPLED_OPERATIONS - 1);
+            return key;
+        }
+    }
+
+    @Benchmark
+    public List<HotelResult> readThrough(Operations operations) {
+        int key = operations.nextKey();
+        List<HotelResult> result = switch (this.target) {
+            case "CacheManager" -> this.cacheManager.getFilteredResults(this.destinationIDs.get(key), null);
+            default -> this.cache.get(this.cacheKeys[key]);
+        };
+        if (result != null) {
+            operations.hits++;
+            return result;
+        }
+        operations.misses++;
+        switch (this.target) {
+            case "CacheManager" -> this.cacheManager.addFilteredResult(this.destinationIDs.get(key), null, RESULT);
+            default -> this.cache.put(this.cacheKeys[key], RESULT);
+        }
+        return RESULT;
+    }
+}
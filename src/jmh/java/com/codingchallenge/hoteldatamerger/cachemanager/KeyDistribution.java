@@ -0,0 +1,52 @@
+package com.codingchallenge.hoteldatamerger.cachemanager;
+
+import java.util.SplittableRandom;
+
+/*
+ * KeyDistribution picks which of the keySpace keys a cache benchmark operation asks for. Uniform asks for every key
+ * equally often. Zipfian asks for a few hot keys most of the time, like the popular destinations of real traffic.
+ */
+public enum KeyDistribution {
+    UNIFORM,
+    ZIPFIAN;
+
+    // skew of the zipfian distribution, the YCSB default
+    private static final double ZIPFIAN_THETA = 0.99;
+
+    // precomputes the key indices of count operations so that picking a key costs nothing while measuring
+    int[] sample(int keySpace, int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] keys = new int[count];
+        if (this == UNIFORM) {
+            for (int i = 0; i < count; i++) {
+                keys[i] = random.nextInt(keySpace);
+            }
+            return keys;
+        }
+
+        // Gray et al., "Quickly Generating Billion-Record Synthetic Databases"
+        double zetaN = zeta(keySpace);
+        double alpha = 1 / (1 - ZIPFIAN_THETA);
+        double eta = (1 - Math.pow(2.0 / keySpace, 1 - ZIPFIAN_THETA)) / (1 - zeta(2) / zetaN);
+        for (int i = 0; i < count; i++) {
+            double u = random.nextDouble();
+            double uz = u * zetaN;
+            if (uz < 1) {
+                keys[i] = 0;
+            } else if (uz < 1 + Math.pow(0.5, ZIPFIAN_THETA)) {
+                keys[i] = Math.min(1, keySpace - 1);
+            } else {
+                keys[i] = Math.min(keySpace - 1, (int) (keySpace * Math.pow(eta * u - eta + 1, alpha)));
+            }
+        }
+        return keys;
+    }
+
+    private static double zeta(int n) {
+        double sum = 0;
+        for (int i = 1; i <= n; i++) {
+            sum += 1 / Math.pow(i, ZIPFIAN_THETA);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,82 @@
+package com.codingchallenge.hoteldatamerger.merger;
+
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.SupplierHotel;
+import com.codingchallenge.hoteldatamerger.model.HotelResult;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * CatalogFootprintBenchmark measures the heap a merged catalog takes, reported as bytesPerHotel. The heap is measured
+ * after a full gc before and after the catalog is merged while the supplier records stay alive, so it counts what the
+ * merged hotels add on top of the supplier records they share strings with. The images and values that are already
+ * pooled by earlier iterations are shared, as they are from one rebuild to the next.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx3g", "-XX:+UseParallelGC"})
+public class CatalogFootprintBenchmark {
+
+    @Param({"100000"})
+    public int catalogSize;
+
+    @Param({"0.7"})
+    public double supplierOverlap;
+
+    private List<List<SupplierHotel>> catalog;
+
+    @Setup
+    public void setUp() {
+        this.catalog = SupplierCatalog.generate(this.catalogSize, this.supplierOverlap, 42);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long bytesPerHotel;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            this.bytesPerHotel = 0;
+        }
+    }
+
+    @Benchmark
+    public List<HotelResult> mergeCatalog(Footprint footprint) {
+        long before = usedHeap();
+        List<HotelResult> merged = new ArrayList<>(this.catalog.size());
+        for (List<SupplierHotel> hotel : this.catalog) {
+            merged.add(new HotelResultMergeProcessor(new SinglePassHotelAttributeResolver(hotel)).mergeDetails());
+        }
+        footprint.bytesPerHotel = (usedHeap() - before) / merged.size();
+        return merged;
+    }
+
+    // the heap that is still reachable, i.e. the heap used after a full gc
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,71 @@
+package com.codingchallenge.hoteldatamerger.merger;
+
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.SupplierHotel;
+import com.codingchallenge.hoteldatamerger.model.HotelResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * CatalogMergeBenchmark measures the wall time of merging a whole catalog, i.e. a rebuild in which every hotel changed,
+ * at different merge parallelism. On a machine with enough cores the time drops about in proportion to parallelism.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class CatalogMergeBenchmark {
+
+    @Param({"100000"})
+    public int catalogSize;
+
+    @Param({"0.7"})
+    public double supplierOverlap;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    private Map<String, List<SupplierHotel>> catalog;
+    private HotelMergeMemo memo;
+
+    @Setup
+    public void setUp() {
+        this.catalog = new LinkedHashMap<>();
+        for (List<SupplierHotel> hotel : SupplierCatalog.generate(this.catalogSize, this.supplierOverlap, 42)) {
+            this.catalog.put(hotel.getFirst().getID(), hotel);
+        }
+    }
+
+    // a fresh memo remembers nothing, so every hotel is merged
+    @Setup(Level.Invocation)
+    public void newMemo() {
+        this.memo = new HotelMergeMemo(this.parallelism);
+    }
+
+    @TearDown(Level.Invocation)
+    public void shutdownMemo() {
+        this.memo.shutdown();
+    }
+
+    @Benchmark
+    public List<HotelResult> mergeAll() {
+        return this.memo.mergeAll(this.catalog, hotel -> new HotelResultMergeProcessor(new SinglePassHotelAttributeResolver(hotel)).mergeDetails());
+    }
+}
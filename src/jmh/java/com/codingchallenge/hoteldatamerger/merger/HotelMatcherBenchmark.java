@@ -0,0 +1,96 @@
+package com.codingchallenge.hoteldatamerger.merger;
+
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.SupplierHotel;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.acme.AcmeHotelResult;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.patagonia.PatagoniaHotelResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * HotelMatcherBenchmark measures finding the duplicates of a catalog in which Patagonia lists a share of the Acme hotels
+ * again under its own ids, with slightly different names and coordinates. The hotels are spread over the cities of
+ * the world. With blocking the time grows about linearly with the catalog size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class HotelMatcherBenchmark {
+    private static final int CITIES = 2000;
+    private static final List<String> WORDS = List.of("Grand", "Royal", "Park", "Plaza", "Garden", "Harbour", "City",
+            "Palace", "Beach", "Marina", "Central", "Riverside", "Boutique", "Villas", "Suites", "Inn");
+
+    @Param({"10000", "100000", "1000000"})
+    public int catalogSize;
+
+    @Param({"0.2"})
+    public double duplicateShare;
+
+    private Map<String, List<SupplierHotel>> catalog;
+    // acme is in the first slot and patagonia in the third
+    private Map<String, Integer> suppliersByID;
+    private HotelMatcher matcher;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        this.catalog = new HashMap<>();
+        this.suppliersByID = new HashMap<>();
+        for (int i = 0; i < this.catalogSize; i++) {
+            int city = random.nextInt(CITIES);
+            // the city centers are spread over the globe, the hotels over about 20 km around them
+            float lat = (float) ((city % 100) * 1.4 - 70 + random.nextGaussian() * 0.05);
+            float lng = (float) ((city / 100) * 17.0 - 170 + random.nextGaussian() * 0.05);
+            String name = WORDS.get(random.nextInt(WORDS.size())) + " " + WORDS.get(random.nextInt(WORDS.size())) + " " + i;
+            this.catalog.put("a" + i, List.of(acme("a" + i, city, name, lat, lng)));
+            this.suppliersByID.put("a" + i, 1);
+            if (random.nextDouble() < this.duplicateShare) {
+                this.catalog.put("p" + i, List.of(patagonia("p" + i, city, "The " + name + " Hotel", lat + 0.0002f, lng - 0.0001f)));
+                this.suppliersByID.put("p" + i, 1 << 2);
+            }
+        }
+        this.matcher = new HotelMatcher(0.85, 150);
+    }
+
+    @Benchmark
+    public Map<String, String> findDuplicates() {
+        return this.matcher.findDuplicates(this.catalog, this.suppliersByID::get);
+    }
+
+    private static AcmeHotelResult acme(String hotelID, int city, String name, float lat, float lng) {
+        AcmeHotelResult result = new AcmeHotelResult();
+        result.setID(hotelID);
+        result.setDestinationID(String.valueOf(city));
+        result.setName(name);
+        result.setLatitude(lat);
+        result.setLongitude(lng);
+        return result;
+    }
+
+    private static PatagoniaHotelResult patagonia(String hotelID, int city, String name, float lat, float lng) {
+        PatagoniaHotelResult result = new PatagoniaHotelResult();
+        result.setID(hotelID);
+        result.setDestination(city);
+        result.setName(name);
+        result.setLatitude(lat);
+        result.setLongitude(lng);
+        return result;
+    }
+}
@@ -0,0 +1,108 @@
+package com.codingchallenge.hoteldatamerger.merger;
+
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.SupplierHotel;
+import com.codingchallenge.hoteldatamerger.model.HotelAmenities;
+import com.codingchallenge.hoteldatamerger.model.HotelImages;
+import com.codingchallenge.hoteldatamerger.model.HotelLocation;
+import com.codingchallenge.hoteldatamerger.model.HotelResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * HotelMergeBenchmark measures the merge of a single hotel, by attribute and as a whole. Every operation merges the
+ * next hotel of the catalog, so the score is the time per merged hotel and larger catalogs no longer fit the CPU caches
+ * like a rebuild does. Both resolvers are measured, so the speedup of the single pass resolver is the ratio of their
+ * scores. Run with -prof gc to get the allocation per merged hotel (gc.alloc.rate.norm).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class HotelMergeBenchmark {
+
+    @Param({"1", "1000", "100000", "1000000"})
+    public int catalogSize;
+
+    // the probability that a supplier sends a hotel another supplier sends as well
+    @Param({"0.7"})
+    public double supplierOverlap;
+
+    @Param({"SimpleHotelAttributeResolver", "SinglePassHotelAttributeResolver"})
+    public String resolver;
+
+    private List<List<SupplierHotel>> catalog;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        this.catalog = SupplierCatalog.generate(this.catalogSize, this.supplierOverlap, 42);
+    }
+
+    private HotelAttributeResolver nextResolver() {
+        List<SupplierHotel> hotel = this.catalog.get(this.next);
+        this.next = this.next + 1 == this.catalog.size() ? 0 : this.next + 1;
+        return switch (this.resolver) {
+            case "SinglePassHotelAttributeResolver" -> new SinglePassHotelAttributeResolver(hotel);
+            default -> new SimpleHotelAttributeResolver(hotel);
+        };
+    }
+
+    @Benchmark
+    public HotelResult mergeDetails() {
+        return new HotelResultMergeProcessor(nextResolver()).mergeDetails();
+    }
+
+    @Benchmark
+    public String resolveId() {
+        return nextResolver().resolveId();
+    }
+
+    @Benchmark
+    public int resolveDestinationId() {
+        return nextResolver().resolveDestinationId();
+    }
+
+    @Benchmark
+    public String resolveName() {
+        return nextResolver().resolveName();
+    }
+
+    @Benchmark
+    public HotelLocation resolveLocation() {
+        return nextResolver().resolveLocation();
+    }
+
+    @Benchmark
+    public String resolveDescription() {
+        return nextResolver().resolveDescription();
+    }
+
+    @Benchmark
+    public HotelAmenities resolveAmenities() {
+        return nextResolver().resolveAmenities();
+    }
+
+    @Benchmark
+    public HotelImages resolveImages() {
+        return nextResolver().resolveImages();
+    }
+
+    @Benchmark
+    public List<String> resolveBookingConditions() {
+        return nextResolver().resolveBookingConditions();
+    }
+}
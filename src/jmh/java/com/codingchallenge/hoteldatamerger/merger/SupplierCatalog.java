@@ -0,0 +1,127 @@
+package com.codingchallenge.hoteldatamerger.merger;
+
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.SupplierHotel;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.acme.AcmeHotelResult;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.paperflies.PaperfliesHotelAmenities;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.paperflies.PaperfliesHotelImage;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.paperflies.PaperfliesHotelImages;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.paperflies.PaperfliesHotelLocation;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.paperflies.PaperfliesHotelResult;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.patagonia.PatagoniaHotelImage;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.patagonia.PatagoniaHotelImages;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.patagonia.PatagoniaHotelResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/*
+ * SupplierCatalog generates the supplier records of a catalog the way the merge gets them: grouped by hotel id and
+ * ordered by supplier. Every hotel is sent by one supplier and each other supplier sends it as well with the overlap
+ * probability. The records carry the dirty data the resolver cleans up, i.e. padding, lower case values, amenities
+ * spelled differently by each supplier and joined booking conditions.
+ */
+public final class SupplierCatalog {
+    private static final List<String> ACME_FACILITIES = List.of("Pool", "BusinessCenter", "WiFi ", "DryCleaning", " Breakfast", "Bar");
+    private static final List<String> GENERAL_AMENITIES = List.of("outdoor pool", "indoor pool", "business center", "childcare", "wifi", "dry cleaning");
+    private static final List<String> ROOM_AMENITIES = List.of("tv", "coffee machine", "kettle", "hair dryer", "iron");
+    private static final List<String> PATAGONIA_AMENITIES = List.of("Aircon", "Tv", "Coffee machine", "Kettle", "Hair dryer", "Iron", "Tub");
+    private static final int DESTINATIONS = 1000;
+
+    private SupplierCatalog() {
+    }
+
+    public static List<List<SupplierHotel>> generate(int hotels, double overlap, long seed) {
+        Random random = new Random(seed);
+        List<List<SupplierHotel>> catalog = new ArrayList<>(hotels);
+        for (int i = 0; i < hotels; i++) {
+            int sender = random.nextInt(3);
+            List<SupplierHotel> records = new ArrayList<>(3);
+            if (sender == 0 || random.nextDouble() < overlap) {
+                records.add(acme(i));
+            }
+            if (sender == 1 || random.nextDouble() < overlap) {
+                records.add(paperflies(i));
+            }
+            if (sender == 2 || random.nextDouble() < overlap) {
+                records.add(patagonia(i));
+            }
+            catalog.add(records);
+        }
+        return catalog;
+    }
+
+    private static AcmeHotelResult acme(int hotel) {
+        AcmeHotelResult result = new AcmeHotelResult();
+        result.setID(hotelID(hotel));
+        result.setDestinationID(String.valueOf(hotel % DESTINATIONS));
+        result.setName(" Hotel " + hotel + " ");
+        result.setLatitude(1.264751f);
+        result.setLongitude(103.824005f);
+        result.setAddress(hotel + " Sentosa Gateway, Beach Villas ");
+        result.setCity("singapore");
+        result.setCountry("SG");
+        result.setPostalCode("098269");
+        result.setDescription("this " + hotel + " is a short acme description of the hotel near the beach.");
+        result.setFacilities(ACME_FACILITIES);
+        return result;
+    }
+
+    private static PaperfliesHotelResult paperflies(int hotel) {
+        PaperfliesHotelResult result = new PaperfliesHotelResult();
+        result.setID(hotelID(hotel));
+        result.setDestinationID(hotel % DESTINATIONS);
+        result.setName("Hotel " + hotel + " Singapore");
+        PaperfliesHotelLocation location = new PaperfliesHotelLocation();
+        location.setAddress(hotel + " Sentosa Gateway, Beach Villas, 098269");
+        location.setCountry("Singapore");
+        result.setLocation(location);
+        result.setDetails("surrounded by tropical gardens, hotel " + hotel + " offers upscale villas in elegant colonial-style "
+                + "buildings and is a 2-minute walk from the waterfront train station.");
+        PaperfliesHotelAmenities amenities = new PaperfliesHotelAmenities();
+        amenities.setGeneral(GENERAL_AMENITIES);
+        amenities.setRoom(ROOM_AMENITIES);
+        result.setAmenities(amenities);
+        PaperfliesHotelImages images = new PaperfliesHotelImages();
+        images.setRooms(List.of(paperfliesImage(hotel, 2, "Double room"), paperfliesImage(hotel, 3, "Double room")));
+        images.setSite(List.of(paperfliesImage(hotel, 1, "Front")));
+        result.setImages(images);
+        result.setBookingConditions(List.of("All children are welcome.===Pets are not allowed.", " WiFi is available in all areas and is free of charge. "));
+        return result;
+    }
+
+    private static PatagoniaHotelResult patagonia(int hotel) {
+        PatagoniaHotelResult result = new PatagoniaHotelResult();
+        result.setID(hotelID(hotel));
+        result.setDestination(hotel % DESTINATIONS);
+        result.setName("Hotel " + hotel);
+        result.setLatitude(1.264751f);
+        result.setLongitude(103.824005f);
+        result.setAddress(hotel + " Sentosa Gateway, Beach Villas, 098269");
+        result.setInfo("located at the western tip of resorts world sentosa, hotel " + hotel + " is a luxurious beachfront escape.");
+        result.setAmenities(PATAGONIA_AMENITIES);
+        PatagoniaHotelImages images = new PatagoniaHotelImages();
+        images.setRooms(List.of(patagoniaImage(hotel, 2, "Double room"), patagoniaImage(hotel, 4, "Bathroom")));
+        images.setAmenities(List.of(patagoniaImage(hotel, 0, "RWS")));
+        result.setImages(images);
+        return result;
+    }
+
+    private static PaperfliesHotelImage paperfliesImage(int hotel, int image, String caption) {
+        PaperfliesHotelImage result = new PaperfliesHotelImage();
+        result.setLink("https://images.example.com/" + hotelID(hotel) + "/" + image + ".jpg");
+        result.setCaption(caption);
+        return result;
+    }
+
+    private static PatagoniaHotelImage patagoniaImage(int hotel, int image, String description) {
+        PatagoniaHotelImage result = new PatagoniaHotelImage();
+        result.setUrl("https://images.example.com/" + hotelID(hotel) + "/" + image + ".jpg");
+        result.setDescription(description);
+        return result;
+    }
+
+    private static String hotelID(int hotel) {
+        return "h" + hotel;
+    }
+}
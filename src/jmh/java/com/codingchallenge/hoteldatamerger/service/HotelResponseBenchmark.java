@@ -0,0 +1,77 @@
+package com.codingchallenge.hoteldatamerger.service;
+
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.SupplierHotel;
+import com.codingchallenge.hoteldatamerger.merger.HotelResultMergeProcessor;
+import com.codingchallenge.hoteldatamerger.merger.SinglePassHotelAttributeResolver;
+import com.codingchallenge.hoteldatamerger.merger.SupplierCatalog;
+import com.codingchallenge.hoteldatamerger.model.HotelResult;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * HotelResponseBenchmark measures writing a page of hotels served from the cache, by serializing the hotels wrapped in
+ * EntityModels with Jackson and by copying the pre-rendered hotels of HotelResponseWriter. Both write the same bytes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HotelResponseBenchmark {
+    private static final String HOTELS_URI = "http://localhost:8080/api/v1/hotels";
+
+    @Param({"10", "100"})
+    public int pageSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private HotelResponseWriter writer;
+    private List<HotelResult> page;
+
+    @Setup
+    public void setUp() {
+        this.writer = new HotelResponseWriter(this.objectMapper);
+        this.page = new ArrayList<>();
+        for (List<SupplierHotel> hotel : SupplierCatalog.generate(this.pageSize, 0.7, 42)) {
+            this.page.add(new HotelResultMergeProcessor(new SinglePassHotelAttributeResolver(hotel)).mergeDetails());
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeEntityModels() throws JsonProcessingException {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("hotels", this.page.stream()
+                .map(hotel -> EntityModel.of(hotel).add(Link.of(HOTELS_URI + "/" + hotel.id()).withSelfRel()))
+                .toList());
+        response.put("totalCount", this.page.size());
+        response.put("limit", this.pageSize);
+        response.put("offset", 0);
+        response.put("next", null);
+        response.put("prev", null);
+        return this.objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] writeFragments() {
+        return this.writer.writeHotels(new PaginatedHotelResponse(this.page, this.page.size(), this.pageSize, 0), HOTELS_URI);
+    }
+}
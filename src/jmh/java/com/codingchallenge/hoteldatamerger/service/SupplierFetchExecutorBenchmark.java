@@ -0,0 +1,83 @@
+package com.codingchallenge.hoteldatamerger.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * SupplierFetchExecutorBenchmark measures how many bursts of concurrent cache misses the supplier fan out can serve.
+ * Every miss fans out to each supplier and each fetch blocks like a supplier call would. One operation is a whole
+ * burst, so misses per second is the score times concurrentMisses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class SupplierFetchExecutorBenchmark {
+    private static final int PLATFORM_POOL_SIZE = 5;
+    private static final int MAX_CONCURRENT_FETCHES_PER_SUPPLIER = 100;
+
+    @Param({"1", "10", "100"})
+    public int concurrentMisses;
+
+    @Param({"VIRTUAL", "PLATFORM"})
+    public SupplierFetchExecutor.Mode mode;
+
+    @Param({"3"})
+    public int suppliers;
+
+    @Param({"20"})
+    public long supplierLatencyMillis;
+
+    private SupplierFetchExecutor executor;
+    private Object[] supplierKeys;
+
+    @Setup
+    public void setUp() {
+        this.executor = new SupplierFetchExecutor(this.mode, PLATFORM_POOL_SIZE, MAX_CONCURRENT_FETCHES_PER_SUPPLIER);
+        this.supplierKeys = new Object[this.suppliers];
+        for (int i = 0; i < this.suppliers; i++) {
+            this.supplierKeys[i] = "supplier-" + i;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.executor.shutdown();
+    }
+
+    @Benchmark
+    public void concurrentMisses() {
+        CompletableFuture<?>[] fetches = new CompletableFuture<?>[this.concurrentMisses * this.suppliers];
+        int index = 0;
+        for (int miss = 0; miss < this.concurrentMisses; miss++) {
+            for (Object supplierKey : this.supplierKeys) {
+                fetches[index++] = this.executor.submit(supplierKey, this::fetch);
+            }
+        }
+        CompletableFuture.allOf(fetches).join();
+    }
+
+    // stands in for a supplier call that blocks on I/O
+    private void fetch() {
+        try {
+            Thread.sleep(this.supplierLatencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
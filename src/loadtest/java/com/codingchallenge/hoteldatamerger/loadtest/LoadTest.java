@@ -0,0 +1,117 @@
+package com.codingchallenge.hoteldatamerger.loadtest;
+
+import com.codingchallenge.hoteldatamerger.HotelDataMergerApplication;
+import com.codingchallenge.hoteldatamerger.cachemanager.CacheManager;
+import com.codingchallenge.hoteldatamerger.service.CatalogRefresher;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * LoadTest boots the service against local stand-in suppliers and drives open model load against /api/v1/hotels at
+ * several cache hit ratios. It reports throughput and HdrHistogram latency percentiles for each ratio.
+ *
+ * Run with: mvn -Ploadtest test-compile exec:exec -Dloadtest.args="rate=500 duration=60s hit-ratios=1.0,0.5"
+ * Arguments starting with -- are passed on to the service, e.g. --cache.max-size=1000.
+ */
+public class LoadTest {
+    private static final Duration CATALOG_READY_TIMEOUT = Duration.ofSeconds(60);
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    // every request that is meant to miss uses a filter no request used before
+    private static final AtomicLong UNIQUE_FILTERS = new AtomicLong();
+
+    public static void main(String[] args) throws Exception {
+        List<String> loadTestArgs = new ArrayList<>();
+        List<String> serviceArgs = new ArrayList<>(List.of("--server.port=0",
+                // logging every cache hit to the console would be measured instead of the service
+                "--logging.level.com.codingchallenge.hoteldatamerger=WARN"));
+        for (String arg : args) {
+            (arg.startsWith("--") ? serviceArgs : loadTestArgs).add(arg);
+        }
+        LoadTestSettings settings = LoadTestSettings.parse(loadTestArgs.toArray(String[]::new));
+
+        try (StandInSupplierServer suppliers = new StandInSupplierServer(settings)) {
+            List<String> suppliersArgs = new ArrayList<>();
+            for (String supplier : StandInSupplierServer.SUPPLIERS) {
+                suppliersArgs.add("--suppliers." + supplier + ".gethotels.v1=" + suppliers.url(supplier));
+                System.out.printf("stand-in %s: %d hotels, %d bytes, latency median %s sigma %.2f, error rate %.3f%n", supplier,
+                        settings.hotels(), suppliers.feedBytes(supplier), settings.supplierLatency(),
+                        settings.supplierLatencySigma(), settings.supplierErrorRate());
+            }
+            // the service arguments come first so that they win over the stand-in urls
+            serviceArgs.addAll(suppliersArgs);
+
+            // devtools would restart the service by running this main method again
+            System.setProperty("spring.devtools.restart.enabled", "false");
+            try (ConfigurableApplicationContext service = SpringApplication.run(HotelDataMergerApplication.class, serviceArgs.toArray(String[]::new))) {
+                String baseURL = "http://localhost:" + service.getEnvironment().getProperty("local.server.port") + "/api/v1/hotels";
+                awaitCatalog(service.getBean(CatalogRefresher.class));
+                CacheManager cacheManager = service.getBean(CacheManager.class);
+
+                OpenModelLoad load = new OpenModelLoad();
+                try {
+                    for (double hitRatio : settings.hitRatios()) {
+                        run(load, settings, baseURL, cacheManager, hitRatio);
+                    }
+                } finally {
+                    load.close();
+                }
+                System.out.printf("stand-in suppliers served %d requests, %d errors%n", suppliers.requests(), suppliers.errors());
+            }
+        }
+    }
+
+    private static void run(OpenModelLoad load, LoadTestSettings settings, String baseURL, CacheManager cacheManager, double hitRatio) throws InterruptedException {
+        load.run(settings.requestsPerSecond(), settings.warmup(), _ -> requestURI(settings, baseURL, hitRatio));
+
+        long loadsBefore = cacheManager.getLoadStats().executions();
+        OpenModelLoad.Result result = load.run(settings.requestsPerSecond(), settings.duration(), _ -> requestURI(settings, baseURL, hitRatio));
+        long misses = cacheManager.getLoadStats().executions() - loadsBefore;
+
+        Histogram latencies = result.latencies();
+        StringBuilder percentiles = new StringBuilder();
+        for (double percentile : PERCENTILES) {
+            percentiles.append(String.format(Locale.ROOT, "  p%s %.2f", BigDecimal.valueOf(percentile).stripTrailingZeros().toPlainString(),
+                    millis(latencies.getValueAtPercentile(percentile))));
+        }
+        System.out.printf(Locale.ROOT, "hit ratio %.2f (observed %.2f): %d requests, %.1f req/s, %d errors%n",
+                hitRatio, 1 - (double) misses / result.requests(), result.requests(), result.throughput(), result.errors());
+        System.out.printf(Locale.ROOT, "  latency ms%s  max %.2f%n", percentiles, millis(latencies.getMaxValue()));
+    }
+
+    // a hit uses one of the hot filters. a miss adds an id no hotel has, so the filter was never cached
+    private static URI requestURI(LoadTestSettings settings, String baseURL, double hitRatio) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String hotelIDs = StandInSupplierServer.hotelID(random.nextInt(Math.min(settings.hotFilters(), settings.hotels())));
+        if (random.nextDouble() >= hitRatio) {
+            hotelIDs += ",miss" + UNIQUE_FILTERS.incrementAndGet();
+        }
+        return URI.create(baseURL + "?hotelIDs=" + hotelIDs);
+    }
+
+    // measures the service serving the refreshed catalog rather than its startup
+    private static void awaitCatalog(CatalogRefresher catalogRefresher) throws InterruptedException {
+        long deadline = System.nanoTime() + CATALOG_READY_TIMEOUT.toNanos();
+        while (catalogRefresher.stats().values().stream().anyMatch(stats -> stats.refreshes() == 0)) {
+            if (System.nanoTime() > deadline) {
+                System.out.println("not every supplier was refreshed yet. measuring with a partial catalog");
+                return;
+            }
+            Thread.sleep(100);
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,59 @@
+package com.codingchallenge.hoteldatamerger.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * LoadTestSettings are the knobs of a load test run, passed as key=value arguments. Durations use the same format as
+ * the application properties, e.g. 500ms or 30s.
+ */
+record LoadTestSettings(
+        // open model arrival rate, independent of how fast the service answers
+        double requestsPerSecond,
+        Duration warmup,
+        Duration duration,
+        // the share of requests for a filter that is already cached. every other request uses a new filter
+        List<Double> hitRatios,
+        // the number of cached filters the hits are spread over
+        int hotFilters,
+        // payload of every stand-in supplier
+        int hotels,
+        int descriptionLength,
+        // the stand-in supplier latency is log-normal around the median
+        Duration supplierLatency,
+        double supplierLatencySigma,
+        double supplierErrorRate) {
+
+    static LoadTestSettings parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("expected key=value but got " + arg);
+            }
+            values.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        LoadTestSettings settings = new LoadTestSettings(
+                Double.parseDouble(values.getOrDefault("rate", "200")),
+                DurationStyle.detectAndParse(values.getOrDefault("warmup", "10s")),
+                DurationStyle.detectAndParse(values.getOrDefault("duration", "30s")),
+                Arrays.stream(values.getOrDefault("hit-ratios", "1.0,0.9,0.5,0.0").split(",")).map(Double::parseDouble).toList(),
+                Integer.parseInt(values.getOrDefault("hot-filters", "20")),
+                Integer.parseInt(values.getOrDefault("hotels", "1000")),
+                Integer.parseInt(values.getOrDefault("description-length", "500")),
+                DurationStyle.detectAndParse(values.getOrDefault("supplier-latency", "50ms")),
+                Double.parseDouble(values.getOrDefault("supplier-latency-sigma", "0.5")),
+                Double.parseDouble(values.getOrDefault("supplier-error-rate", "0.01")));
+        values.keySet().removeAll(List.of("rate", "warmup", "duration", "hit-ratios", "hot-filters", "hotels",
+                "description-length", "supplier-latency", "supplier-latency-sigma", "supplier-error-rate"));
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("unknown settings " + values.keySet());
+        }
+        return settings;
+    }
+}
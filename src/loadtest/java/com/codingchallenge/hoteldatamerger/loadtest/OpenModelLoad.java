@@ -0,0 +1,87 @@
+package com.codingchallenge.hoteldatamerger.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongFunction;
+
+/*
+ * OpenModelLoad sends requests at a fixed arrival rate, no matter how long the earlier requests take. The latency of
+ * every request is measured from the time it was due to be sent, so a stalled service shows up in the tail instead of
+ * silently lowering the load (coordinated omission).
+ */
+class OpenModelLoad {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    OpenModelLoad() {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(this.executor)
+                .build();
+    }
+
+    // sends requests for the duration. the function returns the URI of the nth request
+    Result run(double requestsPerSecond, Duration duration, LongFunction<URI> requestURI) throws InterruptedException {
+        Histogram latencies = new ConcurrentHistogram(TimeUnit.MINUTES.toNanos(1), 3);
+        LongAdder errors = new LongAdder();
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+        long requests = (long) (duration.toNanos() / intervalNanos);
+
+        long start = System.nanoTime();
+        try (ExecutorService inFlight = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < requests; i++) {
+                long due = start + i * intervalNanos;
+                waitUntil(due);
+                URI uri = requestURI.apply(i);
+                inFlight.execute(() -> send(uri, due, latencies, errors));
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        return new Result(requests, errors.sum(), requests * (double) TimeUnit.SECONDS.toNanos(1) / elapsed, latencies);
+    }
+
+    private void send(URI uri, long due, Histogram latencies, LongAdder errors) {
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(REQUEST_TIMEOUT).GET().build();
+        try {
+            HttpResponse<Void> response = this.client.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() != 200) {
+                errors.increment();
+            }
+        } catch (Exception e) {
+            errors.increment();
+        }
+        latencies.recordValue(Math.min(System.nanoTime() - due, latencies.getHighestTrackableValue()));
+    }
+
+    private static void waitUntil(long due) throws InterruptedException {
+        long remaining;
+        while ((remaining = due - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    void close() {
+        this.client.shutdownNow();
+        this.executor.shutdownNow();
+    }
+
+    // throughput is the completed requests per second over the whole run, including waiting for the last responses
+    record Result(long requests, long errors, double throughput, Histogram latencies) {
+    }
+}
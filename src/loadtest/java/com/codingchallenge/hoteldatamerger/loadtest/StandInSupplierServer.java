@@ -0,0 +1,198 @@
+package com.codingchallenge.hoteldatamerger.loadtest;
+
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.acme.AcmeHotelResult;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.paperflies.PaperfliesHotelAmenities;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.paperflies.PaperfliesHotelImage;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.paperflies.PaperfliesHotelImages;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.paperflies.PaperfliesHotelLocation;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.paperflies.PaperfliesHotelResult;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.patagonia.PatagoniaHotelImage;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.patagonia.PatagoniaHotelImages;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.patagonia.PatagoniaHotelResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * StandInSupplierServer serves generated Acme, Paperflies and Patagonia feeds in their own formats at
+ * /suppliers/<name>. Every response is delayed by a log-normal latency and fails with the configured error rate, so
+ * that the service can be loaded without the real supplier endpoints.
+ */
+class StandInSupplierServer implements AutoCloseable {
+    static final List<String> SUPPLIERS = List.of("acme", "paperflies", "patagonia");
+
+    private static final int DESTINATIONS = 50;
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final LoadTestSettings settings;
+    private final Map<String, byte[]> feeds;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    StandInSupplierServer(LoadTestSettings settings) throws IOException {
+        this.settings = settings;
+        ObjectMapper objectMapper = new ObjectMapper();
+        this.feeds = Map.of(
+                "acme", objectMapper.writeValueAsBytes(acmeHotels(settings)),
+                "paperflies", objectMapper.writeValueAsBytes(paperfliesHotels(settings)),
+                "patagonia", objectMapper.writeValueAsBytes(patagoniaHotels(settings)));
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        for (String supplier : SUPPLIERS) {
+            this.server.createContext("/suppliers/" + supplier, exchange -> handle(exchange, this.feeds.get(supplier)));
+        }
+        // delayed responses must not hold back other requests
+        this.server.setExecutor(this.executor);
+        this.server.start();
+    }
+
+    String url(String supplier) {
+        return "http://localhost:" + this.server.getAddress().getPort() + "/suppliers/" + supplier;
+    }
+
+    int feedBytes(String supplier) {
+        return this.feeds.get(supplier).length;
+    }
+
+    // the hotel ids every feed is generated with
+    static String hotelID(int hotel) {
+        return "h" + hotel;
+    }
+
+    long requests() {
+        return this.requests.sum();
+    }
+
+    long errors() {
+        return this.errors.sum();
+    }
+
+    private void handle(HttpExchange exchange, byte[] feed) throws IOException {
+        this.requests.increment();
+        try (exchange) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long latencyNanos = (long) (this.settings.supplierLatency().toNanos() * Math.exp(this.settings.supplierLatencySigma() * random.nextGaussian()));
+            Thread.sleep(latencyNanos / 1_000_000, (int) (latencyNanos % 1_000_000));
+            if (random.nextDouble() < this.settings.supplierErrorRate()) {
+                this.errors.increment();
+                exchange.sendResponseHeaders(500, -1);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, feed.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(feed);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static List<AcmeHotelResult> acmeHotels(LoadTestSettings settings) {
+        List<AcmeHotelResult> hotels = new ArrayList<>();
+        for (int i = 0; i < settings.hotels(); i++) {
+            AcmeHotelResult hotel = new AcmeHotelResult();
+            hotel.setID(hotelID(i));
+            hotel.setDestinationID(String.valueOf(i % DESTINATIONS));
+            hotel.setName("Hotel " + i);
+            hotel.setLatitude(1.264751f);
+            hotel.setLongitude(103.824005f);
+            hotel.setAddress(i + " Sentosa Gateway");
+            hotel.setCity("Singapore");
+            hotel.setCountry("SG");
+            hotel.setPostalCode("098269");
+            hotel.setDescription(text("Acme description of hotel " + i, settings.descriptionLength()));
+            hotel.setFacilities(List.of("Pool", "BusinessCenter", "WiFi ", "DryCleaning", " Breakfast"));
+            hotels.add(hotel);
+        }
+        return hotels;
+    }
+
+    private static List<PaperfliesHotelResult> paperfliesHotels(LoadTestSettings settings) {
+        List<PaperfliesHotelResult> hotels = new ArrayList<>();
+        for (int i = 0; i < settings.hotels(); i++) {
+            PaperfliesHotelResult hotel = new PaperfliesHotelResult();
+            hotel.setID(hotelID(i));
+            hotel.setDestinationID(i % DESTINATIONS);
+            hotel.setName("Hotel " + i + " Singapore");
+            PaperfliesHotelLocation location = new PaperfliesHotelLocation();
+            location.setAddress(i + " Sentosa Gateway, 098269");
+            location.setCountry("Singapore");
+            hotel.setLocation(location);
+            hotel.setDetails(text("Paperflies details of hotel " + i, settings.descriptionLength()));
+            PaperfliesHotelAmenities amenities = new PaperfliesHotelAmenities();
+            amenities.setGeneral(List.of("outdoor pool", "indoor pool", "business center", "childcare"));
+            amenities.setRoom(List.of("tv", "coffee machine", "kettle", "hair dryer", "iron"));
+            hotel.setAmenities(amenities);
+            PaperfliesHotelImages images = new PaperfliesHotelImages();
+            images.setRooms(List.of(paperfliesImage(i, 2, "Double room"), paperfliesImage(i, 3, "Double room")));
+            images.setSite(List.of(paperfliesImage(i, 1, "Front")));
+            hotel.setImages(images);
+            hotel.setBookingConditions(List.of("All children are welcome.", "Pets are not allowed."));
+            hotels.add(hotel);
+        }
+        return hotels;
+    }
+
+    private static List<PatagoniaHotelResult> patagoniaHotels(LoadTestSettings settings) {
+        List<PatagoniaHotelResult> hotels = new ArrayList<>();
+        for (int i = 0; i < settings.hotels(); i++) {
+            PatagoniaHotelResult hotel = new PatagoniaHotelResult();
+            hotel.setID(hotelID(i));
+            hotel.setDestination(i % DESTINATIONS);
+            hotel.setName("Hotel " + i);
+            hotel.setLatitude(1.264751f);
+            hotel.setLongitude(103.824005f);
+            hotel.setAddress(i + " Sentosa Gateway, Singapore 098269");
+            hotel.setInfo(text("Patagonia info of hotel " + i, settings.descriptionLength()));
+            hotel.setAmenities(List.of("Aircon", "Tv", "Coffee machine", "Kettle", "Hair dryer", "Iron", "Tub"));
+            PatagoniaHotelImages images = new PatagoniaHotelImages();
+            images.setRooms(List.of(patagoniaImage(i, 2, "Double room"), patagoniaImage(i, 4, "Bathroom")));
+            images.setAmenities(List.of(patagoniaImage(i, 0, "RWS")));
+            hotel.setImages(images);
+            hotels.add(hotel);
+        }
+        return hotels;
+    }
+
+    private static PaperfliesHotelImage paperfliesImage(int hotel, int image, String caption) {
+        PaperfliesHotelImage paperfliesImage = new PaperfliesHotelImage();
+        paperfliesImage.setLink("https://images.example.com/" + hotelID(hotel) + "/" + image + ".jpg");
+        paperfliesImage.setCaption(caption);
+        return paperfliesImage;
+    }
+
+    private static PatagoniaHotelImage patagoniaImage(int hotel, int image, String description) {
+        PatagoniaHotelImage patagoniaImage = new PatagoniaHotelImage();
+        patagoniaImage.setUrl("https://images.example.com/" + hotelID(hotel) + "/" + image + ".jpg");
+        patagoniaImage.setDescription(description);
+        return patagoniaImage;
+    }
+
+    // the prefix repeated up to the length
+    private static String text(String prefix, int length) {
+        StringBuilder text = new StringBuilder(length);
+        while (text.length() < length) {
+            text.append(prefix).append(". ");
+        }
+        text.setLength(length);
+        return text.toString();
+    }
+
+    @Override
+    public void close() {
+        this.server.stop(0);
+        this.executor.shutdownNow();
+    }
+}
@@ -1,55 +1,118 @@
 package com.codingchallenge.hoteldatamerger;
 
-import com.codingchallenge.hoteldatamerger.model.HotelResult;
+import com.codingchallenge.hoteldatamerger.cachemanager.MergedResults;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.Deadline;
 import com.codingchallenge.hoteldatamerger.sanitizer.InputSanitizer;
+import com.codingchallenge.hoteldatamerger.service.HotelResponseWriter;
 import com.codingchallenge.hoteldatamerger.service.HotelService;
 import com.codingchallenge.hoteldatamerger.service.PaginatedHotelResponse;
-import org.springframework.hateoas.EntityModel;
+import com.codingchallenge.hoteldatamerger.service.RequestDeadlines;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.hateoas.MediaTypes;
 import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/v1/hotels")
 public class HotelController {
+    // the include option that adds the suppliers every attribute was resolved from to the hotels
+    private static final String INCLUDE_PROVENANCE = "provenance";
 
     private final HotelService hotelService;
+    private final RequestDeadlines requestDeadlines;
+    private final HotelResponseWriter hotelResponseWriter;
 
-    public HotelController(HotelService hotelService) {
+    public HotelController(HotelService hotelService, RequestDeadlines requestDeadlines, HotelResponseWriter hotelResponseWriter) {
         this.hotelService = hotelService;
+        this.requestDeadlines = requestDeadlines;
+        this.hotelResponseWriter = hotelResponseWriter;
     }
 
     @GetMapping
-    public PaginatedHotelResponse getHotels(
+    public Callable<ResponseEntity<byte[]>> getHotels(
             @RequestParam(value = "destinationIDs", required = false) List<String> destinations,
             @RequestParam(value = "hotelIDs", required = false) List<String> hotelIDs,
             @RequestParam(value = "offset", defaultValue = "0") int offset,
-            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+            @RequestParam(value = "limit", defaultValue = "10") int limit,
+            @RequestParam(value = "include", required = false) List<String> include,
+            @RequestHeader(value = RequestDeadlines.DEADLINE_HEADER, required = false) String deadlineMillis) {
 
         List<String> sanitizedDestinationIDs = InputSanitizer.sanitizeStringList(destinations);
         List<String> sanitizedHotelIDs = InputSanitizer.sanitizeStringList(hotelIDs);
+        boolean withProvenance = InputSanitizer.sanitizeStringList(include).contains(INCLUDE_PROVENANCE);
+        Deadline deadline = this.requestDeadlines.start(deadlineMillis);
 
         // Get paginated results supporting hateaos
-        return hotelService.getHotels(sanitizedDestinationIDs, sanitizedHotelIDs, limit, offset);
+        return inRequestContext(() -> {
+            PaginatedHotelResponse response = hotelService.getHotels(sanitizedDestinationIDs, sanitizedHotelIDs, limit, offset, deadline);
+            if (withProvenance) {
+                response.includeInLinks(List.of(INCLUDE_PROVENANCE));
+            }
+            return ResponseEntity.ok()
+                    .headers(headers -> markPartial(headers, response.isPartial()))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(this.hotelResponseWriter.writeHotels(response, hotelsUri(), withProvenance));
+        });
     }
 
     @GetMapping("/{hotelID}")
-    public EntityModel<HotelResult> getHotelById(@PathVariable String hotelID) {
-        // Fetch hotel by its ID
-        HotelResult hotel = hotelService.getHotelById(hotelID);
+    public Callable<ResponseEntity<byte[]>> getHotelById(
+            @PathVariable String hotelID,
+            @RequestParam(value = "include", required = false) List<String> include,
+            @RequestHeader(value = RequestDeadlines.DEADLINE_HEADER, required = false) String deadlineMillis) {
 
-        if (hotel == null) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Hotel not found for id: " + hotelID);
-        }
+        boolean withProvenance = InputSanitizer.sanitizeStringList(include).contains(INCLUDE_PROVENANCE);
+        Deadline deadline = this.requestDeadlines.start(deadlineMillis);
+
+        return inRequestContext(() -> {
+            // Fetch hotel by its ID
+            MergedResults result = hotelService.findHotelById(hotelID, deadline);
 
-        // add self links supporting hateaos
-        EntityModel<HotelResult> hotelModel = EntityModel.of(hotel);
-        hotelModel.add(WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(HotelController.class)
-                .getHotelById(hotelID)).withSelfRel());
+            if (result.hotels().isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Hotel not found for id: " + hotelID);
+            }
 
-        return hotelModel;
+            // the hotel links to itself supporting hateoas
+            return ResponseEntity.ok()
+                    .headers(headers -> markPartial(headers, result.partial()))
+                    .contentType(MediaTypes.HAL_JSON)
+                    .body(this.hotelResponseWriter.writeHotel(result.hotels().getFirst(), hotelsUri(), withProvenance));
+        });
+    }
+
+    // the url of the hotels resource as seen by the client, which the hotels link to
+    private static String hotelsUri() {
+        return WebMvcLinkBuilder.linkTo(HotelController.class).toUri().toString();
+    }
+
+    // the request is served asynchronously so that the supplier calls are cancelled if the client goes away.
+    // links are built from the current request, which is carried over to the async thread
+    private static <T> Callable<T> inRequestContext(Supplier<T> handler) {
+        HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
+        return () -> {
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+            try {
+                return handler.get();
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+            }
+        };
+    }
+
+    private static void markPartial(HttpHeaders headers, boolean partial) {
+        if (partial) {
+            headers.set(RequestDeadlines.PARTIAL_RESULT_HEADER, "true");
+        }
     }
 }
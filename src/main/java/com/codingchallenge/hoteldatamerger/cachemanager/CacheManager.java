@@ -1,9 +1,12 @@
 package com.codingchallenge.hoteldatamerger.cachemanager;
 
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.Deadline;
 import com.codingchallenge.hoteldatamerger.model.HotelResult;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -12,9 +15,14 @@ public class CacheManager {
     private static final Logger LOGGER = Logger.getLogger(CacheManager.class.getName());
 
     private final Cache<String, List<HotelResult>> cache;
+    // coalesces concurrent misses of the same cache key
+    private final SingleFlight<String, MergedResults> loads;
+    // bumped on every invalidation so that a load that started before it does not cache outdated results
+    private final AtomicLong generation = new AtomicLong();
 
     public CacheManager(Cache<String, List<HotelResult>> cache) {
         this.cache = cache;
+        this.loads = new SingleFlight<>();
     }
 
     // Get filtered results with caching
@@ -35,6 +43,54 @@ public class CacheManager {
         LOGGER.log(Level.INFO, "Added to cache. Key: " + cacheKey);
     }
 
+    // Load the results of a cache miss and add them to the cache unless they are partial. Concurrent misses for the
+    // same key share a single load, but each waits for it only until its own deadline and is served an empty partial
+    // result past it
+    public MergedResults loadFilteredResults(List<String> destinationIDs, List<String> hotelIDs, Supplier<MergedResults> loader) {
+        return loadFilteredResults(destinationIDs, hotelIDs, loader, Deadline.NONE);
+    }
+
+    public MergedResults loadFilteredResults(List<String> destinationIDs, List<String> hotelIDs, Supplier<MergedResults> loader,
+                                             Deadline deadline) {
+        String cacheKey = buildCacheKey(destinationIDs, hotelIDs);
+        return this.loads.executeAndWait(cacheKey, () -> {
+            // the key may have been loaded by another caller in the meantime
+            List<HotelResult> cached = this.cache.get(cacheKey);
+            if (cached != null) {
+                return MergedResults.complete(cached);
+            }
+            long generation = this.generation.get();
+            MergedResults result = loader.get();
+            if (result.partial()) {
+                // the next miss asks the suppliers again
+                LOGGER.log(Level.INFO, "Partial result not cached. Key: " + cacheKey);
+                return result;
+            }
+            this.cache.put(cacheKey, result.hotels());
+            if (this.generation.get() != generation) {
+                // the results were invalidated while they were loaded
+                this.cache.remove(cacheKey);
+                return result;
+            }
+            LOGGER.log(Level.INFO, "Added to cache. Key: " + cacheKey);
+            return result;
+        }, deadline.remainingNanos(), () -> {
+            LOGGER.log(Level.INFO, "Deadline passed while waiting for a shared load. Key: " + cacheKey);
+            return MergedResults.timedOut();
+        });
+    }
+
+    // Drop every cached result, e.g. once the catalog they were filtered from was rebuilt
+    public void invalidateAll() {
+        this.generation.incrementAndGet();
+        this.cache.clear();
+        LOGGER.log(Level.INFO, "Cache invalidated");
+    }
+
+    public SingleFlight.Stats getLoadStats() {
+        return this.loads.stats();
+    }
+
     // Build the cache key based on destinationIDs and hotelIDs
     String buildCacheKey(List<String> destinationIDs, List<String> hotelIDs) {
         String destinationKey = (destinationIDs == null || destinationIDs.isEmpty()) ? "all" : String.join("_", destinationIDs);
@@ -0,0 +1,26 @@
+package com.codingchallenge.hoteldatamerger.cachemanager;
+
+import com.codingchallenge.hoteldatamerger.model.HotelResult;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/*
+ * MergedResults are the merged hotels of a cache miss. They are partial if some suppliers did not answer before
+ * the request deadline, in which case they are served but never cached.
+ */
+public record MergedResults(List<HotelResult> hotels, boolean partial) {
+
+    public static MergedResults complete(List<HotelResult> hotels) {
+        return new MergedResults(hotels, false);
+    }
+
+    // no hotels, for a caller that stopped waiting for a load shared with other callers
+    public static MergedResults timedOut() {
+        return new MergedResults(List.of(), true);
+    }
+
+    public MergedResults filter(Predicate<HotelResult> predicate) {
+        return new MergedResults(this.hotels.stream().filter(predicate).toList(), this.partial);
+    }
+}
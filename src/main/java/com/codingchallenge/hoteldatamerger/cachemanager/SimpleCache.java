@@ -7,9 +7,6 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -21,18 +18,12 @@ public class SimpleCache<K, V> implements Cache<K, V> {
     private final int maxSize; // to limit the entries in the cache
     private final Random random;
 
-    public SimpleCache(@Value("${cache.max-size}") int maxSize, @Value("${cache.ttl.mins}") int clearIntervalMinutes) {
+    // entries are not evicted on a timer. they are invalidated whenever the catalog is refreshed in the background
+    public SimpleCache(@Value("${cache.max-size}") int maxSize) {
         this.cache = new ConcurrentHashMap<>(); // use concurrent hash map to ensure thread safety
         this.maxSize = maxSize;
         this.random = new Random();
-
-        // Schedule a task to clear the cache every `clearIntervalMinutes`
-        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
-        LOGGER.log(Level.INFO, "Simple cache started. auto evict all keys every " + clearIntervalMinutes + " mins");
-        scheduler.scheduleAtFixedRate(() -> {
-            clear();
-            LOGGER.log(Level.INFO, "Simple cache cleared");
-        }, clearIntervalMinutes, clearIntervalMinutes, TimeUnit.MINUTES);
+        LOGGER.log(Level.INFO, "Simple cache started. max " + maxSize + " keys");
     }
 
     // Add a new key-value pair to the cache
@@ -60,16 +51,16 @@ public class SimpleCache<K, V> implements Cache<K, V> {
 
     // Replace a random entry in the cache
     private void replaceRandomEntry() {
-        if (cache.isEmpty()) return;
+        int size = cache.size();
+        if (size == 0) return;
         Iterator<K> iterator = cache.keySet().iterator();
-        int randomIndex = random.nextInt(cache.size());
-        for (int i = 0; i <= randomIndex; i++) {
-            if (i == randomIndex && iterator.hasNext()) {
-                K randomKey = iterator.next();
-                cache.remove(randomKey);
-            } else {
-                iterator.next();
-            }
+        int randomIndex = random.nextInt(size);
+        // other threads may remove entries while walking, so the walk can end early
+        for (int i = 0; i < randomIndex && iterator.hasNext(); i++) {
+            iterator.next();
+        }
+        if (iterator.hasNext()) {
+            cache.remove(iterator.next());
         }
     }
 
@@ -0,0 +1,87 @@
+package com.codingchallenge.hoteldatamerger.cachemanager;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/*
+ * SingleFlight coalesces concurrent loads of the same key. The first caller runs the loader and every caller
+ * arriving while it runs shares the same in-flight future instead of starting its own load.
+ */
+public class SingleFlight<K, V> {
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    // runs the loader on the calling thread unless a load of the same key is already in flight
+    public CompletableFuture<V> execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = this.inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            this.coalesced.increment();
+            return existing;
+        }
+
+        this.executions.increment();
+        try {
+            call.complete(loader.get());
+        } catch (Throwable t) {
+            call.completeExceptionally(t);
+        } finally {
+            // later callers start a new load and see fresh data
+            this.inFlight.remove(key, call);
+        }
+        return call;
+    }
+
+    // waits for the shared result and rethrows the loader failure as is
+    public V executeAndWait(K key, Supplier<V> loader) {
+        try {
+            return execute(key, loader).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    // waits for the shared result no longer than the timeout. a caller that gives up gets the fallback and leaves
+    // the load running for the callers still waiting on it. the caller that starts the load runs it to the end
+    public V executeAndWait(K key, Supplier<V> loader, long timeoutNanos, Supplier<V> fallback) {
+        CompletableFuture<V> call = execute(key, loader);
+        try {
+            return call.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return fallback.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return fallback.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new CompletionException(e.getCause());
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(this.executions.sum(), this.coalesced.sum(), this.inFlight.size());
+    }
+
+    // executions is the number of loads that ran. coalesced is the number of callers that shared another load
+    public record Stats(long executions, long coalesced, int inFlight) {
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 import org.springframework.web.server.ResponseStatusException;
 
 @ControllerAdvice
@@ -18,6 +19,13 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(new ErrorDetails("Resource not found", ex.getMessage()), HttpStatus.NOT_FOUND);
     }
 
+    // Handle requests that outlived the async request timeout (503)
+    @ExceptionHandler(AsyncRequestTimeoutException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ResponseEntity<ErrorDetails> handleAsyncRequestTimeoutException(AsyncRequestTimeoutException ex, WebRequest request) {
+        return new ResponseEntity<>(new ErrorDetails("Service unavailable", "request timed out"), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     // Handle Internal Server Error (500)
     @ExceptionHandler(Exception.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
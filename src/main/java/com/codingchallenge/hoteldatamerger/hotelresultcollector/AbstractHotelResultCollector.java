@@ -0,0 +1,245 @@
+package com.codingchallenge.hoteldatamerger.hotelresultcollector;
+
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.SupplierHotel;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.net.http.HttpResponse;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/*
+ * AbstractHotelResultCollector streams a supplier response, which is a JSON array of hotels, and parses it
+ * one hotel at a time. Only a single hotel is buffered at any point instead of the whole response body, except for the
+ * raw body of a feed without validators that is likely unchanged, whose hash is compared before it is parsed.
+ * The last parsed feed is remembered and reused as long as the supplier reports that it did not change.
+ * Queries are sent to the supplier as URL query parameters if it can filter its feed.
+ */
+public abstract class AbstractHotelResultCollector<T extends SupplierHotel> implements HotelResultCollector<T> {
+    // object mappers are thread safe and expensive to create. share a single one between the suppliers
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    // the raw bytes of a body without validators buffered to compare its hash before parsing it
+    private static final int MAX_HASHED_BODY_BYTES = 32 << 20;
+
+    private final Logger logger = Logger.getLogger(getClass().getName());
+
+    private final HTTPClient httpClient;
+    private final List<String> getHotelsURLs;
+    private final QueryParameters queryParameters;
+    private final ObjectReader hotelReader;
+    private volatile FeedSnapshot<T> snapshot = new FeedSnapshot<>(FeedValidators.NONE, null, List.of());
+
+    protected AbstractHotelResultCollector(HTTPClient httpClient, String getHotelsURL, Class<T> hotelType) {
+        this(httpClient, getHotelsURL, List.of(), QueryParameters.NONE, hotelType);
+    }
+
+    // the mirrors serve the same feed and are only asked when the primary URL is slow or fails
+    protected AbstractHotelResultCollector(HTTPClient httpClient, String getHotelsURL, List<String> mirrorURLs,
+                                           QueryParameters queryParameters, Class<T> hotelType) {
+        this.httpClient = httpClient;
+        this.queryParameters = queryParameters;
+        List<String> getHotelsURLs = new ArrayList<>();
+        getHotelsURLs.add(getHotelsURL);
+        getHotelsURLs.addAll(mirrorURLs);
+        this.getHotelsURLs = List.copyOf(getHotelsURLs);
+        this.hotelReader = OBJECT_MAPPER.readerFor(hotelType);
+    }
+
+    @Override
+    public List<T> getAllHotels() {
+        List<T> results = new ArrayList<>();
+        streamAllHotels(results::add);
+        return results;
+    }
+
+    @Override
+    public void streamAllHotels(Consumer<? super T> sink) {
+        streamAllHotels(Deadline.NONE, sink);
+    }
+
+    private void streamAllHotels(Deadline deadline, Consumer<? super T> sink) {
+        FeedSnapshot<T> snapshot = this.snapshot;
+        try {
+            HttpResponse<InputStream> response = this.httpClient.doGetStream(this.getHotelsURLs, snapshot.validators(), deadline);
+            try (InputStream body = response.body()) {
+                if (response.statusCode() == HttpStatus.NOT_MODIFIED.value()) {
+                    // feed did not change since the last response. reuse the parsed hotels without deserializing
+                    snapshot.hotels().forEach(sink);
+                    return;
+                }
+                FeedValidators validators = FeedValidators.of(response.headers());
+                if (validators.isEmpty()) {
+                    streamUnvalidatedHotels(body, snapshot, sink);
+                } else {
+                    // hotels are kept to be replayed for the next 304 response
+                    List<T> hotels = new ArrayList<>();
+                    parseHotels(body, retaining(hotels, sink));
+                    this.snapshot = new FeedSnapshot<>(validators, null, hotels);
+                }
+            }
+
+        } catch (HttpServerErrorException | IOException | InterruptedException e) {
+            throw fetchFailed(e);
+        }
+    }
+
+    @Override
+    public void streamHotels(HotelQuery query, Consumer<? super T> sink) {
+        streamHotels(query, Deadline.NONE, sink);
+    }
+
+    @Override
+    public void streamHotels(HotelQuery query, Deadline deadline, Consumer<? super T> sink) {
+        List<String> queryURLs = query.isAll() ? null : this.queryParameters.apply(this.getHotelsURLs, query);
+        if (queryURLs == null) {
+            // the supplier cannot filter. fetch the whole feed, which is likely not modified since the last fetch
+            streamAllHotels(deadline, matching(query, sink));
+            return;
+        }
+
+        try {
+            // the supplier filters on its side. the filtered feed is not kept as the snapshot of the whole feed
+            HttpResponse<InputStream> response = this.httpClient.doGetStream(queryURLs, FeedValidators.NONE, deadline);
+            try (InputStream body = response.body()) {
+                // the supplier may only filter on some of the ids. filter the rest here
+                parseHotels(body, matching(query, sink));
+            }
+        } catch (HttpServerErrorException | IOException | InterruptedException e) {
+            throw fetchFailed(e);
+        }
+    }
+
+    @Override
+    public String getSupplierName() {
+        return this.httpClient.getSupplier();
+    }
+
+    private SupplierFetchException fetchFailed(Exception e) {
+        if (e instanceof HttpServerErrorException) {
+            // downstream server error.
+            this.logger.log(Level.WARNING, "server returned an error", e);
+            return new SupplierFetchException("server returned an error", e);
+        }
+        if (e instanceof InterruptedException) {
+            // a timeout happened.
+            this.logger.log(Level.SEVERE, "request timeout while collecting hotel results", e);
+            Thread.currentThread().interrupt();
+            return new SupplierFetchException("request timeout while collecting hotel results", e);
+        }
+        // an error happened.
+        this.logger.log(Level.SEVERE, "error while collecting hotel results", e);
+        return new SupplierFetchException("error while collecting hotel results", e);
+    }
+
+    // the supplier sent no validators. fall back to comparing the body hash with the previous response. once there is a
+    // previous hash the body is likely unchanged, so it is buffered raw and only parsed if its hash differs. a body
+    // larger than MAX_HASHED_BODY_BYTES, and the first body, are parsed and handed over while they are hashed instead
+    private void streamUnvalidatedHotels(InputStream body, FeedSnapshot<T> snapshot, Consumer<? super T> sink) throws IOException {
+        DigestInputStream hashing = new DigestInputStream(body, sha256());
+        InputStream parsed = hashing;
+        if (snapshot.contentHash() != null) {
+            byte[] head = hashing.readNBytes(MAX_HASHED_BODY_BYTES);
+            if (head.length < MAX_HASHED_BODY_BYTES) {
+                // the whole body was read
+                byte[] contentHash = hashing.getMessageDigest().digest();
+                if (Arrays.equals(contentHash, snapshot.contentHash())) {
+                    this.httpClient.getStats().recordUnchangedBody();
+                    snapshot.hotels().forEach(sink);
+                    return;
+                }
+                List<T> hotels = new ArrayList<>();
+                parseHotels(new ByteArrayInputStream(head), retaining(hotels, sink));
+                this.snapshot = new FeedSnapshot<>(FeedValidators.NONE, contentHash, hotels);
+                return;
+            }
+            // too large to buffer. the rest is hashed while the buffered head and the rest are parsed
+            parsed = new SequenceInputStream(new ByteArrayInputStream(head), hashing);
+        }
+
+        List<T> hotels = new ArrayList<>();
+        try (JsonParser parser = OBJECT_MAPPER.getFactory().createParser(parsed)) {
+            parseHotels(parser, retaining(hotels, sink));
+            // the hash covers the whole body, including anything after the array
+            parsed.transferTo(OutputStream.nullOutputStream());
+        }
+        byte[] contentHash = hashing.getMessageDigest().digest();
+        if (Arrays.equals(contentHash, snapshot.contentHash())) {
+            // parsed in vain. the previous hotels are kept, they are equal to the ones just parsed
+            this.httpClient.getStats().recordUnchangedBody();
+            return;
+        }
+        this.snapshot = new FeedSnapshot<>(FeedValidators.NONE, contentHash, hotels);
+    }
+
+    private void parseHotels(InputStream body, Consumer<? super T> sink) throws IOException {
+        try (JsonParser parser = OBJECT_MAPPER.getFactory().createParser(body)) {
+            parseHotels(parser, sink);
+        }
+    }
+
+    // reads the hotels array token by token and hands over each hotel as soon as it is parsed
+    private void parseHotels(JsonParser parser, Consumer<? super T> sink) throws IOException {
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new JsonParseException(parser, "expected a json array of hotels");
+        }
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null) {
+                throw new JsonParseException(parser, "unexpected end of the hotels array");
+            }
+            if (token == JsonToken.START_OBJECT) {
+                sink.accept(this.hotelReader.readValue(parser));
+            } else {
+                // dirty data. ignore anything that is not a hotel object
+                parser.skipChildren();
+            }
+        }
+    }
+
+    // hands over the hotels matching the query only
+    private static <T> Consumer<T> matching(HotelQuery query, Consumer<? super T> sink) {
+        return hotel -> {
+            if (query.matches(hotel)) {
+                sink.accept(hotel);
+            }
+        };
+    }
+
+    // hands over each hotel and keeps it for the snapshot
+    private static <T> Consumer<T> retaining(List<T> hotels, Consumer<? super T> sink) {
+        return hotel -> {
+            hotels.add(hotel);
+            sink.accept(hotel);
+        };
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every jvm is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // the last successfully parsed supplier feed along with what is needed to detect that it did not change
+    private record FeedSnapshot<T>(FeedValidators validators, byte[] contentHash, List<T> hotels) {
+    }
+}
@@ -0,0 +1,76 @@
+package com.codingchallenge.hoteldatamerger.hotelresultcollector;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/*
+ * CircuitBreaker stops calling a supplier after consecutive failures. While the circuit is open calls are rejected
+ * right away. Once the open duration elapsed a single probe call is let through, which either closes the circuit
+ * again or keeps it open for another open duration.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final LongSupplier nanoClock;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this(failureThreshold, openDuration, System::nanoTime);
+    }
+
+    CircuitBreaker(int failureThreshold, Duration openDuration, LongSupplier nanoClock) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    // returns false if the call must not reach the supplier
+    public synchronized boolean tryAcquire() {
+        return switch (this.state) {
+            case CLOSED -> true;
+            case OPEN -> {
+                if (this.nanoClock.getAsLong() - this.openedAt < this.openDurationNanos) {
+                    yield false;
+                }
+                // let a single probe call through
+                this.state = State.HALF_OPEN;
+                yield true;
+            }
+            case HALF_OPEN -> false; // the probe call did not finish yet
+        };
+    }
+
+    public synchronized void recordSuccess() {
+        this.consecutiveFailures = 0;
+        this.state = State.CLOSED;
+    }
+
+    public synchronized void recordFailure() {
+        this.consecutiveFailures++;
+        if (this.state == State.HALF_OPEN || this.consecutiveFailures >= this.failureThreshold) {
+            this.state = State.OPEN;
+            this.openedAt = this.nanoClock.getAsLong();
+        }
+    }
+
+    // the caller gave up on the call before the supplier answered, which tells nothing about the supplier. a call that
+    // timed out is recorded as a failure instead. a probe call that was cut short lets the next call probe again
+    public synchronized void recordAbandoned() {
+        if (this.state == State.HALF_OPEN) {
+            this.state = State.OPEN;
+        }
+    }
+
+    public synchronized State getState() {
+        return this.state;
+    }
+}
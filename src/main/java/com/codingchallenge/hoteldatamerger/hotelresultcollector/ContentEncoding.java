@@ -0,0 +1,99 @@
+package com.codingchallenge.hoteldatamerger.hotelresultcollector;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/*
+ * ContentEncoding negotiates compressed supplier responses and decompresses them while they are streamed
+ */
+final class ContentEncoding {
+    // zstd has no decoder in the jdk. add it here along with its decoder once a zstd library is on the classpath
+    static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private ContentEncoding() {
+    }
+
+    // returns the decoded body. the decoder is created on the first read since it reads the encoding header
+    static InputStream decode(String contentEncoding, InputStream body) {
+        String encoding = contentEncoding == null ? "identity" : contentEncoding.trim().toLowerCase(Locale.ROOT);
+        return switch (encoding) {
+            case "gzip", "x-gzip" -> new LazyDecoder(body, ContentEncoding::gzip);
+            case "deflate" -> new LazyDecoder(body, ContentEncoding::deflate);
+            case "identity", "" -> body;
+            default -> new LazyDecoder(body, _ -> {
+                throw new IOException("unsupported content encoding " + contentEncoding);
+            });
+        };
+    }
+
+    static boolean isCompressed(String contentEncoding) {
+        return contentEncoding != null && !contentEncoding.isBlank() && !contentEncoding.trim().equalsIgnoreCase("identity");
+    }
+
+    private static InputStream gzip(InputStream body) throws IOException {
+        return new GZIPInputStream(body, BUFFER_SIZE);
+    }
+
+    // deflate should be zlib wrapped, but some servers send raw deflate data. tell them apart by the zlib header
+    private static InputStream deflate(InputStream body) throws IOException {
+        PushbackInputStream pushback = new PushbackInputStream(body, 2);
+        byte[] header = pushback.readNBytes(2);
+        pushback.unread(header);
+        boolean zlib = header.length == 2 && (header[0] & 0x0F) == 8 && (((header[0] & 0xFF) << 8) | (header[1] & 0xFF)) % 31 == 0;
+        return new InflaterInputStream(pushback, new Inflater(!zlib), BUFFER_SIZE);
+    }
+
+    private interface Decoder {
+        InputStream open(InputStream body) throws IOException;
+    }
+
+    private static final class LazyDecoder extends InputStream {
+        private final InputStream body;
+        private final Decoder decoder;
+        private InputStream decoded;
+
+        private LazyDecoder(InputStream body, Decoder decoder) {
+            this.body = body;
+            this.decoder = decoder;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return decoded().read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return decoded().read(b, off, len);
+        }
+
+        @Override
+        public int available() throws IOException {
+            return this.decoded == null ? 0 : this.decoded.available();
+        }
+
+        @Override
+        public void close() throws IOException {
+            // closing the decoder releases its native memory and closes the body
+            if (this.decoded != null) {
+                this.decoded.close();
+            } else {
+                this.body.close();
+            }
+        }
+
+        private InputStream decoded() throws IOException {
+            if (this.decoded == null) {
+                this.decoded = this.decoder.open(this.body);
+            }
+            return this.decoded;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.codingchallenge.hoteldatamerger.hotelresultcollector;
+
+import java.time.Duration;
+
+/*
+ * Deadline is the point in time by which a request has to be answered. It is passed down to the supplier calls so
+ * that none of them waits longer than the time left for the request.
+ */
+public final class Deadline {
+    // no deadline. supplier calls are only bounded by their own timeouts
+    public static final Deadline NONE = new Deadline(0, false);
+
+    private final long expiresAtNanos;
+    private final boolean bounded;
+
+    private Deadline(long expiresAtNanos, boolean bounded) {
+        this.expiresAtNanos = expiresAtNanos;
+        this.bounded = bounded;
+    }
+
+    public static Deadline after(Duration budget) {
+        return new Deadline(System.nanoTime() + budget.toNanos(), true);
+    }
+
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    // Long.MAX_VALUE if there is no deadline
+    public long remainingNanos() {
+        return this.bounded ? this.expiresAtNanos - System.nanoTime() : Long.MAX_VALUE;
+    }
+
+    // the timeout of a call that must not outlive the deadline. zero once the deadline passed
+    public Duration bound(Duration timeout) {
+        if (!this.bounded) {
+            return timeout;
+        }
+        return Duration.ofNanos(Math.max(0, Math.min(timeout.toNanos(), remainingNanos())));
+    }
+}
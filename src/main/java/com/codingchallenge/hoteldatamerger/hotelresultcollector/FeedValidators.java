@@ -0,0 +1,19 @@
+package com.codingchallenge.hoteldatamerger.hotelresultcollector;
+
+import java.net.http.HttpHeaders;
+
+/*
+ * FeedValidators are the cache validators a supplier returned with its last response. They are sent back as
+ * If-None-Match / If-Modified-Since so an unchanged feed is answered with 304 Not Modified.
+ */
+public record FeedValidators(String etag, String lastModified) {
+    public static final FeedValidators NONE = new FeedValidators(null, null);
+
+    public static FeedValidators of(HttpHeaders headers) {
+        return new FeedValidators(headers.firstValue("ETag").orElse(null), headers.firstValue("Last-Modified").orElse(null));
+    }
+
+    public boolean isEmpty() {
+        return this.etag == null && this.lastModified == null;
+    }
+}
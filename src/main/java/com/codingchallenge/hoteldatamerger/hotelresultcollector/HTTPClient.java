@@ -3,38 +3,439 @@ package com.codingchallenge.hoteldatamerger.hotelresultcollector;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.client.HttpServerErrorException;
 
+import javax.net.ssl.SSLSession;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-public class HTTPClient {
+/*
+ * HTTPClient is a long-lived client for a single supplier. The underlying connections are pooled and reused
+ * across requests and HTTP/2 is negotiated where the supplier supports it.
+ */
+public class HTTPClient implements AutoCloseable {
+    // the jdk connection pool reads its idle timeouts once, when the first client is built
+    private static final String KEEP_ALIVE_PROPERTY = "jdk.httpclient.keepalive.timeout";
+    private static final String H2_KEEP_ALIVE_PROPERTY = "jdk.httpclient.keepalive.timeout.h2";
+    // the observed latency is only trusted for hedging once this many responses were seen
+    private static final int MIN_HEDGE_LATENCY_SAMPLES = 20;
 
-    private final Duration timeout;
+    private final String supplier;
+    private final HTTPClientSettings settings;
+    private final Semaphore connectionPermits;
+    private final HTTPClientStats stats;
+    private volatile HttpClient httpClient;
 
-    public HTTPClient(Duration timeout) {
-        this.timeout = timeout;
+    public HTTPClient(String supplier, HTTPClientSettings settings) {
+        this.supplier = supplier;
+        this.settings = settings;
+        this.connectionPermits = new Semaphore(settings.maxConnections());
+        this.stats = new HTTPClientStats();
+        raiseKeepAlive(settings);
     }
 
-    public HttpResponse<String> doGet(String URL) throws IOException, InterruptedException, HttpServerErrorException {
-        // create the http client
-        try (HttpClient httpClient = HttpClient.newHttpClient()) {
-            HttpRequest httpRequest = HttpRequest
-                    .newBuilder().uri(URI.create(URL))
-                    .GET()
-                    .timeout(this.timeout)
-                    .build();
+    // returns the response with a streamed body. the body must be closed to free up the connection.
+    // a 304 Not Modified response with an empty body is returned if the validators still match the supplier feed
+    public HttpResponse<InputStream> doGetStream(String URL, FeedValidators validators) throws IOException, InterruptedException, HttpServerErrorException {
+        return doGetStream(URL, validators, Deadline.NONE);
+    }
+
+    // same as doGetStream but the request never outlives the deadline
+    public HttpResponse<InputStream> doGetStream(String URL, FeedValidators validators, Deadline deadline) throws IOException, InterruptedException, HttpServerErrorException {
+        Duration timeout = requestTimeout(deadline);
+        HttpRequest httpRequest = buildRequest(URL, validators, timeout);
+
+        // limit the concurrent requests, and therefore the open connections, towards the supplier
+        if (!this.connectionPermits.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+            this.stats.recordFailure();
+            throw new HttpTimeoutException("no free connection for supplier " + this.supplier);
+        }
 
-            // Send the request and get the response as a String
-            HttpResponse<String> response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofString());
+        this.stats.recordRequestStarted();
+        long start = System.nanoTime();
+        boolean streaming = false;
+        try {
+            // Send the request and get the response body as a stream
+            HttpResponse<InputStream> response = client().send(httpRequest, HttpResponse.BodyHandlers.ofInputStream());
+            this.stats.recordResponse(response.version(), response.statusCode(), System.nanoTime() - start);
 
             // downstream server error.
-            if (response.statusCode() != HttpStatus.OK.value()) {
+            if (!isSuccessful(response)) {
+                response.body().close();
+                this.stats.recordFailure();
                 throw new HttpServerErrorException(HttpStatus.valueOf(response.statusCode()), "server error");
             }
-            return response;
+            streaming = true;
+            return new ReleasingResponse(response, new ReleasingInputStream(decodedBody(response)));
+        } catch (IOException | InterruptedException e) {
+            this.stats.recordFailure();
+            throw e;
+        } finally {
+            if (!streaming) {
+                release();
+            }
+        }
+    }
+
+    // same as doGetStream but the supplier feed is served by several mirrors. the request goes to the first URL and a
+    // duplicate is sent to the next mirror whenever no response arrived within the hedge delay, or right away if the
+    // previous attempt failed. the first successful response wins and the remaining attempts are cancelled
+    public HttpResponse<InputStream> doGetStream(List<String> URLs, FeedValidators validators) throws IOException, InterruptedException, HttpServerErrorException {
+        return doGetStream(URLs, validators, Deadline.NONE);
+    }
+
+    // same as doGetStream but neither the request nor its duplicates outlive the deadline
+    public HttpResponse<InputStream> doGetStream(List<String> URLs, FeedValidators validators, Deadline deadline) throws IOException, InterruptedException, HttpServerErrorException {
+        if (URLs.size() == 1) {
+            return doGetStream(URLs.getFirst(), validators, deadline);
+        }
+        return new HedgedRequest(URLs, validators, requestTimeout(deadline)).await();
+    }
+
+    // the supplier timeout, cut short by the time left for the request
+    private Duration requestTimeout(Deadline deadline) throws HttpTimeoutException {
+        Duration timeout = deadline.bound(this.settings.requestTimeout());
+        if (timeout.isZero()) {
+            throw new HttpTimeoutException("request deadline passed before calling supplier " + this.supplier);
+        }
+        return timeout;
+    }
+
+    private HttpRequest buildRequest(String URL, FeedValidators validators, Duration timeout) {
+        HttpRequest.Builder requestBuilder = HttpRequest
+                .newBuilder().uri(URI.create(URL))
+                .GET()
+                .timeout(timeout);
+        // compressed responses are decoded while they are streamed
+        requestBuilder.header("Accept-Encoding", ContentEncoding.ACCEPT_ENCODING);
+        // conditional request. the supplier only sends the feed if it changed since the last response
+        if (validators.etag() != null) {
+            requestBuilder.header("If-None-Match", validators.etag());
+        }
+        if (validators.lastModified() != null) {
+            requestBuilder.header("If-Modified-Since", validators.lastModified());
+        }
+        return requestBuilder.build();
+    }
+
+    // counts the bytes on the wire and the decoded bytes handed over to the parser
+    private InputStream decodedBody(HttpResponse<InputStream> response) {
+        String contentEncoding = response.headers().firstValue("Content-Encoding").orElse(null);
+        if (ContentEncoding.isCompressed(contentEncoding)) {
+            this.stats.recordCompressedResponse();
+        }
+        InputStream wire = this.stats.countWireBytes(response.body());
+        return this.stats.countDecodedBytes(ContentEncoding.decode(contentEncoding, wire));
+    }
+
+    private static boolean isSuccessful(HttpResponse<?> response) {
+        return response.statusCode() == HttpStatus.OK.value() || response.statusCode() == HttpStatus.NOT_MODIFIED.value();
+    }
+
+    public String getSupplier() {
+        return this.supplier;
+    }
+
+    public HTTPClientStats getStats() {
+        return this.stats;
+    }
+
+    // lets in-flight requests finish within the request timeout. requests to a supplier that hangs are aborted
+    @Override
+    public void close() {
+        HttpClient client = this.httpClient;
+        if (client == null) {
+            return;
+        }
+        client.shutdown();
+        try {
+            if (!client.awaitTermination(this.settings.requestTimeout())) {
+                client.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            client.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // hedge after the observed p95 latency of the supplier, but never earlier than the configured min delay
+    private long hedgeDelayNanos() {
+        return Math.max(this.settings.hedgeMinDelay().toNanos(), this.stats.hedgeLatencyNanos(MIN_HEDGE_LATENCY_SAMPLES));
+    }
+
+    private void release() {
+        this.stats.recordRequestFinished();
+        this.connectionPermits.release();
+    }
+
+    // the client is built on first use so that every supplier had a chance to raise the keep-alive
+    private HttpClient client() {
+        HttpClient client = this.httpClient;
+        if (client == null) {
+            synchronized (this) {
+                client = this.httpClient;
+                if (client == null) {
+                    client = HttpClient.newBuilder()
+                            .version(HttpClient.Version.HTTP_2) // falls back to HTTP/1.1 if the supplier does not support it
+                            .connectTimeout(this.settings.connectTimeout())
+                            .followRedirects(HttpClient.Redirect.NORMAL)
+                            .build();
+                    this.httpClient = client;
+                }
+            }
+        }
+        return client;
+    }
+
+    // the jdk keeps one connection pool per process. use the longest keep-alive requested by any supplier
+    private static synchronized void raiseKeepAlive(HTTPClientSettings settings) {
+        long keepAliveSeconds = Math.max(1, settings.keepAlive().toSeconds());
+        for (String property : new String[]{KEEP_ALIVE_PROPERTY, H2_KEEP_ALIVE_PROPERTY}) {
+            String current = System.getProperty(property);
+            if (current == null || Long.parseLong(current) < keepAliveSeconds) {
+                System.setProperty(property, String.valueOf(keepAliveSeconds));
+            }
+        }
+    }
+
+    // a single request raced against its duplicates on the supplier mirrors
+    private final class HedgedRequest {
+        private final List<String> URLs;
+        private final FeedValidators validators;
+        private final Duration timeout;
+        private final List<CompletableFuture<HttpResponse<InputStream>>> attempts = new ArrayList<>();
+        private final BlockingQueue<Outcome> outcomes = new LinkedBlockingQueue<>();
+        private final AtomicBoolean decided = new AtomicBoolean();
+        private int nextURL;
+
+        private HedgedRequest(List<String> URLs, FeedValidators validators, Duration timeout) {
+            this.URLs = URLs;
+            this.validators = validators;
+            this.timeout = timeout;
+        }
+
+        private HttpResponse<InputStream> await() throws IOException, InterruptedException {
+            long deadline = System.nanoTime() + this.timeout.toNanos();
+            long hedgeDelay = hedgeDelayNanos();
+            // the first request waits for a free connection like any other request
+            if (!start(this.timeout.toNanos())) {
+                stats.recordFailure();
+                throw new HttpTimeoutException("no free connection for supplier " + supplier);
+            }
+
+            Exception lastFailure = null;
+            int failed = 0;
+            try {
+                while (true) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        abandon();
+                        stats.recordFailure();
+                        throw new HttpTimeoutException("request to supplier " + supplier + " timed out");
+                    }
+                    boolean hasMirror = this.nextURL < this.URLs.size();
+                    Outcome outcome = this.outcomes.poll(hasMirror ? Math.min(hedgeDelay, remaining) : remaining, TimeUnit.NANOSECONDS);
+                    if (outcome == null) {
+                        // the supplier is slow. ask the next mirror as well, if a connection is free
+                        if (hasMirror && start(0)) {
+                            stats.recordHedge();
+                        }
+                        continue;
+                    }
+                    if (outcome.response() != null) {
+                        return win(outcome);
+                    }
+
+                    lastFailure = outcome.failure();
+                    failed++;
+                    if (hasMirror) {
+                        // fail over to the next mirror without waiting for the hedge delay
+                        start(Math.max(0, deadline - System.nanoTime()));
+                    }
+                    if (failed == this.attempts.size() && this.nextURL == this.URLs.size()) {
+                        if (lastFailure instanceof IOException ioException) {
+                            throw ioException;
+                        }
+                        throw (RuntimeException) lastFailure;
+                    }
+                }
+            } catch (InterruptedException e) {
+                abandon();
+                throw e;
+            }
+        }
+
+        // sends the request to the next mirror. returns false if no connection got free in time, in which case the
+        // mirror is tried again on the next hedge
+        private boolean start(long waitNanos) throws InterruptedException {
+            if (!connectionPermits.tryAcquire(waitNanos, TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+            String URL = this.URLs.get(this.nextURL++);
+            stats.recordRequestStarted();
+            int attempt = this.attempts.size();
+            long start = System.nanoTime();
+            CompletableFuture<HttpResponse<InputStream>> exchange = client().sendAsync(buildRequest(URL, this.validators, this.timeout), HttpResponse.BodyHandlers.ofInputStream());
+            this.attempts.add(exchange);
+            exchange.whenComplete((response, failure) -> complete(attempt, start, response, failure));
+            return true;
+        }
+
+        private void complete(int attempt, long start, HttpResponse<InputStream> response, Throwable failure) {
+            if (failure != null) {
+                release();
+                // cancelled attempts lost the race and are already accounted for
+                if (!(failure instanceof CancellationException)) {
+                    stats.recordFailure();
+                    Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+                    this.outcomes.add(Outcome.failed(attempt, cause instanceof RuntimeException || cause instanceof IOException ? (Exception) cause : new IOException(cause)));
+                }
+                return;
+            }
+
+            stats.recordResponse(response.version(), response.statusCode(), System.nanoTime() - start);
+            if (!isSuccessful(response)) {
+                // downstream server error.
+                closeQuietly(response.body());
+                release();
+                stats.recordFailure();
+                this.outcomes.add(Outcome.failed(attempt, new HttpServerErrorException(HttpStatus.valueOf(response.statusCode()), "server error")));
+                return;
+            }
+
+            HttpResponse<InputStream> releasing = new ReleasingResponse(response, new ReleasingInputStream(decodedBody(response)));
+            if (this.decided.compareAndSet(false, true)) {
+                this.outcomes.add(new Outcome(attempt, releasing, null));
+            } else {
+                // another mirror already won
+                closeQuietly(releasing.body());
+                stats.recordCancelled();
+            }
+        }
+
+        private HttpResponse<InputStream> win(Outcome outcome) {
+            if (outcome.attempt() > 0) {
+                stats.recordMirrorWin();
+            }
+            for (int i = 0; i < this.attempts.size(); i++) {
+                if (i != outcome.attempt() && this.attempts.get(i).cancel(true)) {
+                    stats.recordCancelled();
+                }
+            }
+            return outcome.response();
+        }
+
+        // stops every attempt. a response that won the race in the meantime is closed as well
+        private void abandon() {
+            this.attempts.forEach(exchange -> exchange.cancel(true));
+            if (this.decided.compareAndSet(false, true)) {
+                return;
+            }
+            // the winner is queued right after it won. the caller may have been interrupted, which must not leak it
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    Outcome outcome = this.outcomes.take();
+                    if (outcome.response() != null) {
+                        closeQuietly(outcome.response().body());
+                        break;
+                    }
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private record Outcome(int attempt, HttpResponse<InputStream> response, Exception failure) {
+        private static Outcome failed(int attempt, Exception failure) {
+            return new Outcome(attempt, null, failure);
+        }
+    }
+
+    private static void closeQuietly(InputStream body) {
+        try {
+            body.close();
+        } catch (IOException ignored) {
+            // the response is discarded anyway
+        }
+    }
+
+    // frees the connection permit once the caller is done reading the body
+    private class ReleasingInputStream extends FilterInputStream {
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private ReleasingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                if (this.released.compareAndSet(false, true)) {
+                    release();
+                }
+            }
+        }
+    }
+
+    // response view that swaps in the releasing body stream
+    private record ReleasingResponse(HttpResponse<InputStream> response, InputStream body) implements HttpResponse<InputStream> {
+        @Override
+        public int statusCode() {
+            return this.response.statusCode();
+        }
+
+        @Override
+        public HttpRequest request() {
+            return this.response.request();
+        }
+
+        @Override
+        public Optional<HttpResponse<InputStream>> previousResponse() {
+            return this.response.previousResponse();
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return this.response.headers();
+        }
+
+        @Override
+        public Optional<SSLSession> sslSession() {
+            return this.response.sslSession();
+        }
+
+        @Override
+        public URI uri() {
+            return this.response.uri();
+        }
+
+        @Override
+        public HttpClient.Version version() {
+            return this.response.version();
         }
     }
 }
@@ -0,0 +1,41 @@
+package com.codingchallenge.hoteldatamerger.hotelresultcollector;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/*
+ * HTTPClientRegistry owns one long-lived HTTPClient per supplier and closes them on shutdown
+ */
+@Component
+public class HTTPClientRegistry {
+    private static final Logger LOGGER = Logger.getLogger(HTTPClientRegistry.class.getName());
+
+    private final Map<String, HTTPClient> clients = new ConcurrentHashMap<>();
+
+    // returns the client of the supplier. the client is created on the first call
+    public HTTPClient register(String supplier, HTTPClientSettings settings) {
+        return this.clients.computeIfAbsent(supplier, name -> {
+            LOGGER.log(Level.INFO, "Created http client for supplier " + name + " with " + settings);
+            return new HTTPClient(name, settings);
+        });
+    }
+
+    // returns the statistics of every supplier client sorted by the supplier name
+    public Map<String, HTTPClientStats.Snapshot> stats() {
+        Map<String, HTTPClientStats.Snapshot> stats = new TreeMap<>();
+        this.clients.forEach((supplier, client) -> stats.put(supplier, client.getStats().snapshot()));
+        return stats;
+    }
+
+    @PreDestroy
+    public void close() {
+        this.clients.values().forEach(HTTPClient::close);
+        this.clients.clear();
+    }
+}
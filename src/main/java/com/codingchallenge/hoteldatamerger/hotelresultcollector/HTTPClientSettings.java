@@ -0,0 +1,14 @@
+package com.codingchallenge.hoteldatamerger.hotelresultcollector;
+
+import java.time.Duration;
+
+/*
+ * HTTPClientSettings holds the per supplier connection settings used to build the long-lived supplier client
+ */
+public record HTTPClientSettings(
+        Duration requestTimeout,  // max time to wait for a single supplier response
+        Duration connectTimeout,  // max time to wait while establishing a new connection
+        Duration keepAlive,       // how long an idle connection is kept in the pool
+        int maxConnections,       // max concurrent requests (and therefore connections) towards the supplier
+        Duration hedgeMinDelay) { // min time to wait for a response before a mirror is asked as well
+}
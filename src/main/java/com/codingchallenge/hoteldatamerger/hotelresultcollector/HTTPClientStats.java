@@ -0,0 +1,116 @@
+package com.codingchallenge.hoteldatamerger.hotelresultcollector;
+
+import java.io.InputStream;
+import java.net.http.HttpClient;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * HTTPClientStats collects the request level statistics of a single supplier client
+ */
+public class HTTPClientStats {
+    private static final int LATENCY_SAMPLES = 128;
+    private static final double HEDGE_PERCENTILE = 0.95;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder http2Responses = new LongAdder();
+    private final LongAdder http1Responses = new LongAdder();
+    private final LongAdder notModifiedResponses = new LongAdder();
+    private final LongAdder unchangedBodies = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final LongAdder hedgedRequests = new LongAdder();
+    private final LongAdder mirrorWins = new LongAdder();
+    private final LongAdder cancelledRequests = new LongAdder();
+    private final LongAdder compressedResponses = new LongAdder();
+    private final LongAdder wireBytes = new LongAdder();
+    private final LongAdder decodedBytes = new LongAdder();
+    private final LatencyWindow latencies = new LatencyWindow(LATENCY_SAMPLES);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+
+    void recordRequestStarted() {
+        this.requests.increment();
+        int current = this.inFlight.incrementAndGet();
+        this.peakInFlight.accumulateAndGet(current, Math::max);
+    }
+
+    void recordRequestFinished() {
+        this.inFlight.decrementAndGet();
+    }
+
+    void recordResponse(HttpClient.Version version, int statusCode, long latencyNanos) {
+        if (version == HttpClient.Version.HTTP_2) {
+            // all http/2 requests towards a supplier are multiplexed over the same pooled connection
+            this.http2Responses.increment();
+        } else {
+            this.http1Responses.increment();
+        }
+        if (statusCode == 304) {
+            this.notModifiedResponses.increment();
+        }
+        this.totalLatencyNanos.add(latencyNanos);
+        this.latencies.record(latencyNanos);
+    }
+
+    // a duplicate request was sent to a mirror because the supplier was slow
+    void recordHedge() {
+        this.hedgedRequests.increment();
+    }
+
+    // the response of a mirror arrived first
+    void recordMirrorWin() {
+        this.mirrorWins.increment();
+    }
+
+    // a request lost the race against another mirror and was cancelled
+    void recordCancelled() {
+        this.cancelledRequests.increment();
+    }
+
+    void recordCompressedResponse() {
+        this.compressedResponses.increment();
+    }
+
+    // the response body as received, before it is decompressed
+    InputStream countWireBytes(InputStream body) {
+        return new CountingInputStream(body, this.wireBytes);
+    }
+
+    // the response body as handed over to the parser
+    InputStream countDecodedBytes(InputStream body) {
+        return new CountingInputStream(body, this.decodedBytes);
+    }
+
+    // the supplier sent no validators but the body hash matched the previous response
+    void recordUnchangedBody() {
+        this.unchangedBodies.increment();
+    }
+
+    void recordFailure() {
+        this.failures.increment();
+    }
+
+    // the p95 latency of the latest responses, once enough of them were recorded to be meaningful
+    long hedgeLatencyNanos(int minSamples) {
+        return this.latencies.size() < minSamples ? 0 : this.latencies.percentile(HEDGE_PERCENTILE);
+    }
+
+    public Snapshot snapshot() {
+        long responses = this.http2Responses.sum() + this.http1Responses.sum();
+        double averageLatencyMillis = responses == 0 ? 0 : (double) TimeUnit.NANOSECONDS.toMicros(this.totalLatencyNanos.sum()) / responses / 1000;
+        return new Snapshot(this.requests.sum(), this.failures.sum(), this.http2Responses.sum(), this.http1Responses.sum(),
+                this.notModifiedResponses.sum(), this.unchangedBodies.sum(), this.inFlight.get(), this.peakInFlight.get(),
+                averageLatencyMillis, this.latencies.percentile(HEDGE_PERCENTILE) / 1_000_000d, this.hedgedRequests.sum(),
+                this.mirrorWins.sum(), this.cancelledRequests.sum(), this.compressedResponses.sum(), this.wireBytes.sum(),
+                this.decodedBytes.sum());
+    }
+
+    // point in time view of the statistics. exposed via the suppliers actuator endpoint
+    public record Snapshot(long requests, long failures, long http2Responses, long http1Responses,
+                           long notModifiedResponses, long unchangedBodies, int inFlight, int peakInFlight,
+                           double averageLatencyMillis, double p95LatencyMillis, long hedgedRequests, long mirrorWins,
+                           long cancelledRequests, long compressedResponses, long wireBytes, long decodedBytes) {
+    }
+}
@@ -0,0 +1,38 @@
+package com.codingchallenge.hoteldatamerger.hotelresultcollector;
+
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.SupplierHotel;
+
+import java.util.List;
+import java.util.Set;
+
+/*
+ * HotelQuery narrows down the hotels requested from a supplier. An empty set of ids does not filter on those ids.
+ */
+public record HotelQuery(Set<String> destinationIDs, Set<String> hotelIDs) {
+    public static final HotelQuery ALL = new HotelQuery(Set.of(), Set.of());
+
+    public static HotelQuery of(List<String> destinationIDs, List<String> hotelIDs) {
+        return new HotelQuery(
+                destinationIDs == null ? Set.of() : Set.copyOf(destinationIDs),
+                hotelIDs == null ? Set.of() : Set.copyOf(hotelIDs));
+    }
+
+    public boolean isAll() {
+        return this.destinationIDs.isEmpty() && this.hotelIDs.isEmpty();
+    }
+
+    public boolean matches(Object hotel) {
+        if (isAll()) {
+            return true;
+        }
+        if (!(hotel instanceof SupplierHotel supplierHotel)) {
+            return false;
+        }
+        if (!this.hotelIDs.isEmpty() && !this.hotelIDs.contains(supplierHotel.getID())) {
+            return false;
+        }
+        // a hotel without a destination is kept. the destination of the merged hotel may come from another supplier
+        String destinationID = supplierHotel.destinationKey();
+        return this.destinationIDs.isEmpty() || destinationID == null || this.destinationIDs.contains(destinationID);
+    }
+}
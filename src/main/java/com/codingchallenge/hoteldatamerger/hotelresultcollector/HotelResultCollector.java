@@ -1,7 +1,32 @@
 package com.codingchallenge.hoteldatamerger.hotelresultcollector;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface HotelResultCollector<T> {
     List<T> getAllHotels();
+
+    // hands each hotel to the sink as soon as it is available instead of materializing the whole list
+    default void streamAllHotels(Consumer<? super T> sink) {
+        getAllHotels().forEach(sink);
+    }
+
+    // hands over the hotels matching the query. suppliers that cannot filter on their side fetch everything and
+    // filter here
+    default void streamHotels(HotelQuery query, Consumer<? super T> sink) {
+        streamAllHotels(hotel -> {
+            if (query.matches(hotel)) {
+                sink.accept(hotel);
+            }
+        });
+    }
+
+    // same as streamHotels but gives up once the deadline passed. collectors that cannot bound their calls ignore it
+    default void streamHotels(HotelQuery query, Deadline deadline, Consumer<? super T> sink) {
+        streamHotels(query, sink);
+    }
+
+    default String getSupplierName() {
+        return getClass().getSimpleName();
+    }
 }
@@ -0,0 +1,37 @@
+package com.codingchallenge.hoteldatamerger.hotelresultcollector;
+
+import java.util.Arrays;
+
+/*
+ * LatencyWindow keeps the latest response latencies of a supplier to estimate its latency percentiles
+ */
+class LatencyWindow {
+    private final long[] samples;
+    private int next;
+    private int size;
+
+    LatencyWindow(int capacity) {
+        this.samples = new long[capacity];
+    }
+
+    synchronized void record(long latencyNanos) {
+        this.samples[this.next] = latencyNanos;
+        this.next = (this.next + 1) % this.samples.length;
+        this.size = Math.min(this.size + 1, this.samples.length);
+    }
+
+    synchronized int size() {
+        return this.size;
+    }
+
+    // nearest rank percentile of the recorded latencies, or 0 if nothing was recorded yet
+    synchronized long percentile(double percentile) {
+        if (this.size == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(this.samples, this.size);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile * this.size);
+        return sorted[Math.max(0, rank - 1)];
+    }
+}
@@ -0,0 +1,41 @@
+package com.codingchallenge.hoteldatamerger.hotelresultcollector;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/*
+ * QueryParameters holds the names of the URL query parameters a supplier filters its feed by.
+ * A blank name means that the supplier cannot filter on those ids.
+ */
+public record QueryParameters(String destinationIDs, String hotelIDs) {
+    public static final QueryParameters NONE = new QueryParameters("", "");
+
+    // returns the URLs with the query appended, or null if the supplier cannot filter on any id of the query
+    public List<String> apply(List<String> URLs, HotelQuery query) {
+        StringJoiner parameters = new StringJoiner("&");
+        addParameter(parameters, this.destinationIDs, query.destinationIDs());
+        addParameter(parameters, this.hotelIDs, query.hotelIDs());
+        if (parameters.length() == 0) {
+            return null;
+        }
+
+        List<String> queryURLs = new ArrayList<>(URLs.size());
+        for (String URL : URLs) {
+            queryURLs.add(URL + (URL.contains("?") ? "&" : "?") + parameters);
+        }
+        return queryURLs;
+    }
+
+    private static void addParameter(StringJoiner parameters, String name, Set<String> ids) {
+        if (name == null || name.isBlank() || ids.isEmpty()) {
+            return;
+        }
+        // sorted to get the same URL for the same query
+        parameters.add(URLEncoder.encode(name, StandardCharsets.UTF_8) + "="
+                + URLEncoder.encode(String.join(",", ids.stream().sorted().toList()), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,50 @@
+package com.codingchallenge.hoteldatamerger.hotelresultcollector;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/*
+ * ResilienceRegistry guards every supplier collector with its own circuit breaker and retry budget
+ */
+@Component
+public class ResilienceRegistry {
+
+    private final ResilienceSettings settings;
+    private final List<ResilientHotelResultCollector<?>> collectors = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    public ResilienceRegistry(
+            @Value("${suppliers.circuit-breaker.failure-threshold}") int failureThreshold,
+            @Value("${suppliers.circuit-breaker.open-duration}") Duration openDuration,
+            @Value("${suppliers.retry.max-retries}") int maxRetries,
+            @Value("${suppliers.retry.backoff}") Duration retryBackoff,
+            @Value("${suppliers.retry.budget-ratio}") double retryBudgetRatio,
+            @Value("${suppliers.retry.budget-max-tokens}") int retryBudgetMaxTokens) {
+
+        this(new ResilienceSettings(failureThreshold, openDuration, maxRetries, retryBackoff, retryBudgetRatio, retryBudgetMaxTokens));
+    }
+
+    public ResilienceRegistry(ResilienceSettings settings) {
+        this.settings = settings;
+    }
+
+    public <T> ResilientHotelResultCollector<T> register(HotelResultCollector<T> collector) {
+        ResilientHotelResultCollector<T> resilientCollector = new ResilientHotelResultCollector<>(collector, this.settings);
+        this.collectors.add(resilientCollector);
+        return resilientCollector;
+    }
+
+    // returns the circuit state of every supplier sorted by the supplier name
+    public Map<String, ResilientHotelResultCollector.Stats> stats() {
+        Map<String, ResilientHotelResultCollector.Stats> stats = new TreeMap<>();
+        this.collectors.forEach(collector -> stats.put(collector.getSupplierName(), collector.stats()));
+        return stats;
+    }
+}
@@ -0,0 +1,15 @@
+package com.codingchallenge.hoteldatamerger.hotelresultcollector;
+
+import java.time.Duration;
+
+/*
+ * ResilienceSettings holds how failing supplier calls are retried and when a supplier is no longer called
+ */
+public record ResilienceSettings(
+        int failureThreshold,       // consecutive failed calls that open the circuit
+        Duration openDuration,      // how long an open circuit rejects calls before a probe call is let through
+        int maxRetries,             // max retries of a single call
+        Duration retryBackoff,      // base delay of the exponential backoff. the actual delay is jittered
+        double retryBudgetRatio,    // retries allowed per call on average
+        int retryBudgetMaxTokens) { // max retries that can be saved up while the supplier is healthy
+}
@@ -0,0 +1,188 @@
+package com.codingchallenge.hoteldatamerger.hotelresultcollector;
+
+import java.net.http.HttpTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/*
+ * ResilientHotelResultCollector guards a supplier collector with a circuit breaker and jittered retries.
+ * Whenever the supplier cannot be reached, the hotels of the last successful call are served instead, so a failing
+ * supplier neither slows down every cache miss nor drops its attributes from the merged hotels.
+ */
+public class ResilientHotelResultCollector<T> implements HotelResultCollector<T> {
+    private static final Logger LOGGER = Logger.getLogger(ResilientHotelResultCollector.class.getName());
+
+    private final HotelResultCollector<T> delegate;
+    private final ResilienceSettings settings;
+    private final CircuitBreaker circuitBreaker;
+    private final RetryBudget retryBudget;
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+    private volatile List<T> lastKnownGood = List.of();
+
+    public ResilientHotelResultCollector(HotelResultCollector<T> delegate, ResilienceSettings settings) {
+        this.delegate = delegate;
+        this.settings = settings;
+        this.circuitBreaker = new CircuitBreaker(settings.failureThreshold(), settings.openDuration());
+        this.retryBudget = new RetryBudget(settings.retryBudgetRatio(), settings.retryBudgetMaxTokens());
+    }
+
+    @Override
+    public List<T> getAllHotels() {
+        List<T> results = new ArrayList<>();
+        streamAllHotels(results::add);
+        return results;
+    }
+
+    @Override
+    public void streamAllHotels(Consumer<? super T> sink) {
+        streamHotels(HotelQuery.ALL, sink);
+    }
+
+    @Override
+    public void streamHotels(HotelQuery query, Consumer<? super T> sink) {
+        streamHotels(query, Deadline.NONE, sink);
+    }
+
+    @Override
+    public void streamHotels(HotelQuery query, Deadline deadline, Consumer<? super T> sink) {
+        Outcome outcome = fetch(query, deadline, sink);
+        if (outcome == Outcome.FAILED) {
+            fallBack(query, sink);
+        } else if (outcome != Outcome.SUCCEEDED) {
+            // the hotels handed over are only part of the feed. the caller must not take them for the whole feed
+            throw new SupplierFetchException("supplier " + getSupplierName() + " did not finish its feed");
+        }
+    }
+
+    // same as streamAllHotels but fails instead of serving the last known good hotels, so that a background refresh
+    // can keep its own previous snapshot
+    public void refreshAllHotels(Consumer<? super T> sink) {
+        Outcome outcome = fetch(HotelQuery.ALL, Deadline.NONE, sink);
+        if (outcome != Outcome.SUCCEEDED) {
+            throw new SupplierFetchException("supplier " + getSupplierName() + " could not be refreshed, circuit is " + this.circuitBreaker.getState());
+        }
+    }
+
+    private Outcome fetch(HotelQuery query, Deadline deadline, Consumer<? super T> sink) {
+        if (!this.circuitBreaker.tryAcquire()) {
+            // the supplier is known to be down. do not wait for it to time out again
+            return Outcome.FAILED;
+        }
+
+        this.retryBudget.recordCall();
+        for (int attempt = 0; ; attempt++) {
+            List<T> hotels = new ArrayList<>();
+            boolean calledInTime = !deadline.isExpired();
+            try {
+                this.delegate.streamHotels(query, deadline, hotel -> {
+                    hotels.add(hotel);
+                    sink.accept(hotel);
+                });
+                this.circuitBreaker.recordSuccess();
+                if (query.isAll()) {
+                    // only the whole feed can stand in for any later query
+                    this.lastKnownGood = hotels;
+                }
+                return Outcome.SUCCEEDED;
+            } catch (RuntimeException e) {
+                // the collector logged the failure already
+                if (deadline.isExpired() || Thread.currentThread().isInterrupted()) {
+                    // the request gave up on the supplier and does not wait for a fallback either
+                    if (calledInTime && !Thread.currentThread().isInterrupted() && timedOut(e)) {
+                        // the supplier did not answer within the time it was given. a supplier that hangs is down
+                        // as well, even if each call only waited for a short deadline
+                        this.circuitBreaker.recordFailure();
+                    } else {
+                        this.circuitBreaker.recordAbandoned();
+                    }
+                    return Outcome.ABANDONED;
+                }
+                if (!hotels.isEmpty()) {
+                    // part of the feed was handed over already. neither a retry nor the last known good hotels
+                    // can be handed over without duplicating those
+                    this.circuitBreaker.recordFailure();
+                    LOGGER.log(Level.WARNING, "supplier " + getSupplierName() + " failed after " + hotels.size() + " hotels");
+                    return Outcome.FAILED_AFTER_HOTELS;
+                }
+                if (!shouldRetry(attempt) || !backOff(attempt, deadline)) {
+                    this.circuitBreaker.recordFailure();
+                    LOGGER.log(Level.WARNING, "supplier " + getSupplierName() + " failed, circuit is " + this.circuitBreaker.getState());
+                    return Outcome.FAILED;
+                }
+                this.retries.increment();
+            }
+        }
+    }
+
+    @Override
+    public String getSupplierName() {
+        return this.delegate.getSupplierName();
+    }
+
+    public Stats stats() {
+        return new Stats(this.circuitBreaker.getState(), this.retries.sum(), this.fallbacks.sum(),
+                this.retryBudget.getTokens(), this.lastKnownGood.size());
+    }
+
+    // a probe call of a half open circuit is never retried
+    private boolean shouldRetry(int attempt) {
+        return attempt < this.settings.maxRetries()
+                && this.circuitBreaker.getState() == CircuitBreaker.State.CLOSED
+                && this.retryBudget.tryRetry();
+    }
+
+    // waits a random delay of up to the exponential backoff so that retries of concurrent calls do not line up.
+    // returns false if the retry would not start before the deadline
+    private boolean backOff(int attempt, Deadline deadline) {
+        long maxBackoffMillis = this.settings.retryBackoff().toMillis() << Math.min(attempt, 10);
+        long backoffMillis = ThreadLocalRandom.current().nextLong(maxBackoffMillis + 1);
+        if (TimeUnit.MILLISECONDS.toNanos(backoffMillis) >= deadline.remainingNanos()) {
+            return false;
+        }
+        try {
+            Thread.sleep(backoffMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // whether the supplier call failed because the supplier did not answer in time
+    private static boolean timedOut(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof HttpTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void fallBack(HotelQuery query, Consumer<? super T> sink) {
+        this.fallbacks.increment();
+        for (T hotel : this.lastKnownGood) {
+            if (query.matches(hotel)) {
+                sink.accept(hotel);
+            }
+        }
+    }
+
+    // only a failed fetch that handed over no hotels yet falls back to the last known good hotels. the others fail
+    private enum Outcome {
+        SUCCEEDED,
+        FAILED,
+        FAILED_AFTER_HOTELS,
+        ABANDONED
+    }
+
+    // lastKnownGoodHotels is the number of hotels served while the supplier cannot be reached
+    public record Stats(CircuitBreaker.State state, long retries, long fallbacks, double retryBudget, int lastKnownGoodHotels) {
+    }
+}
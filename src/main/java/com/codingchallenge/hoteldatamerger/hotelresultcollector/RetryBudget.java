@@ -0,0 +1,34 @@
+package com.codingchallenge.hoteldatamerger.hotelresultcollector;
+
+/*
+ * RetryBudget limits the retries to a ratio of the calls, so that retries cannot multiply the load on a supplier
+ * that is already struggling. Every call deposits the ratio and every retry withdraws a whole token.
+ */
+public class RetryBudget {
+    private final double ratio;
+    private final double maxTokens;
+    private double tokens;
+
+    public RetryBudget(double ratio, int maxTokens) {
+        this.ratio = ratio;
+        this.maxTokens = maxTokens;
+        this.tokens = maxTokens;
+    }
+
+    public synchronized void recordCall() {
+        this.tokens = Math.min(this.maxTokens, this.tokens + this.ratio);
+    }
+
+    // returns false if the budget is used up and the call must not be retried
+    public synchronized boolean tryRetry() {
+        if (this.tokens < 1) {
+            return false;
+        }
+        this.tokens--;
+        return true;
+    }
+
+    public synchronized double getTokens() {
+        return this.tokens;
+    }
+}
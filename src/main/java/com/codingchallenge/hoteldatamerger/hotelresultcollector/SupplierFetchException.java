@@ -0,0 +1,15 @@
+package com.codingchallenge.hoteldatamerger.hotelresultcollector;
+
+/*
+ * SupplierFetchException is thrown when the feed of a supplier could not be fetched or parsed
+ */
+public class SupplierFetchException extends RuntimeException {
+
+    public SupplierFetchException(String message) {
+        super(message);
+    }
+
+    public SupplierFetchException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,26 @@
+package com.codingchallenge.hoteldatamerger.hotelresultcollector;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/*
+ * SupplierHttpEndpoint exposes the per supplier connection statistics at /actuator/suppliers
+ */
+@Component
+@Endpoint(id = "suppliers")
+public class SupplierHttpEndpoint {
+
+    private final HTTPClientRegistry httpClientRegistry;
+
+    public SupplierHttpEndpoint(HTTPClientRegistry httpClientRegistry) {
+        this.httpClientRegistry = httpClientRegistry;
+    }
+
+    @ReadOperation
+    public Map<String, HTTPClientStats.Snapshot> suppliers() {
+        return this.httpClientRegistry.stats();
+    }
+}
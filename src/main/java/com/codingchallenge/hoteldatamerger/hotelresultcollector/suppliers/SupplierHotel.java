@@ -1,5 +1,10 @@
 package com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers;
 
-// marker interface
+// a hotel as sent by a supplier. the ids are used to filter the supplier hotels before they are merged.
+// implementations compare by content so that hotels whose supplier records did not change keep their previous merge
 public interface SupplierHotel {
+    String getID();
+
+    // the destination id of the hotel, or null if the supplier did not send one
+    String destinationKey();
 }
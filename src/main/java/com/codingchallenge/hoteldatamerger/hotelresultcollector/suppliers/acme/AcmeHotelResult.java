@@ -2,6 +2,7 @@ package com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.acme;
 
 import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.SupplierHotel;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -12,6 +13,7 @@ import java.util.List;
  */
 @Getter
 @Setter
+@EqualsAndHashCode
 public class AcmeHotelResult implements SupplierHotel {
     @JsonProperty("Id")
     private String ID;
@@ -45,4 +47,9 @@ public class AcmeHotelResult implements SupplierHotel {
 
     @JsonProperty("Facilities")
     private List<String> facilities;
+
+    @Override
+    public String destinationKey() {
+        return this.destinationID == null || this.destinationID.isBlank() ? null : this.destinationID.strip();
+    }
 }
@@ -1,6 +1,7 @@
 package com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.paperflies;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -8,6 +9,7 @@ import java.util.List;
 
 @Getter
 @Setter
+@EqualsAndHashCode
 public class PaperfliesHotelAmenities {
     @JsonProperty("general")
     private List<String> general;
@@ -1,11 +1,13 @@
 package com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.paperflies;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 
 @Getter
 @Setter
+@EqualsAndHashCode
 public class PaperfliesHotelLocation {
     @JsonProperty("address")
     private String address;
@@ -2,6 +2,7 @@ package com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.paper
 
 import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.SupplierHotel;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -12,6 +13,7 @@ import java.util.List;
  */
 @Getter
 @Setter
+@EqualsAndHashCode
 public class PaperfliesHotelResult implements SupplierHotel {
     @JsonProperty("hotel_id")
     private String ID;
@@ -36,4 +38,9 @@ public class PaperfliesHotelResult implements SupplierHotel {
 
     @JsonProperty("booking_conditions")
     private List<String> bookingConditions;
+
+    @Override
+    public String destinationKey() {
+        return this.destinationID == 0 ? null : String.valueOf(this.destinationID);
+    }
 }
@@ -2,6 +2,7 @@ package com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.patag
 
 import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.SupplierHotel;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -12,6 +13,7 @@ import java.util.List;
  */
 @Getter
 @Setter
+@EqualsAndHashCode
 public class PatagoniaHotelResult implements SupplierHotel {
     @JsonProperty("id")
     private String ID;
@@ -39,4 +41,9 @@ public class PatagoniaHotelResult implements SupplierHotel {
 
     @JsonProperty("images")
     private PatagoniaHotelImages images;
+
+    @Override
+    public String destinationKey() {
+        return this.destination == 0 ? null : String.valueOf(this.destination);
+    }
 }
@@ -3,6 +3,7 @@ package com.codingchallenge.hoteldatamerger.merger;
 import com.codingchallenge.hoteldatamerger.model.HotelAmenities;
 import com.codingchallenge.hoteldatamerger.model.HotelImages;
 import com.codingchallenge.hoteldatamerger.model.HotelLocation;
+import com.codingchallenge.hoteldatamerger.model.HotelProvenance;
 
 import java.util.List;
 
@@ -30,4 +31,10 @@ public interface HotelAttributeResolver {
 
     // returns the resolved booking conditions
     List<String> resolveBookingConditions();
+
+    // returns the suppliers every attribute resolved so far was resolved from, see HotelProvenance. resolvers that do
+    // not record provenance return none
+    default int resolveProvenance() {
+        return HotelProvenance.NONE;
+    }
 }
@@ -0,0 +1,390 @@
+package com.codingchallenge.hoteldatamerger.merger;
+
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.SupplierHotel;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.acme.AcmeHotelResult;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.paperflies.PaperfliesHotelResult;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.patagonia.PatagoniaHotelResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+/*
+ * HotelMatcher finds the hotels that several suppliers list under different ids. Only the hotels that share a block are
+ * compared: a cell of a grid over the coordinates of the hotels, or a destination together with one of the rarest
+ * tokens of the name. Blocks that hold more than MAX_BLOCK_SIZE hotels are too common to tell hotels apart and are
+ * skipped, so the number of comparisons grows linearly with the catalog. A pair of hotels is scored by the similarity of their names and
+ * their distance, and the pairs scoring at least the threshold are merged as one hotel. The records of a supplier are
+ * never merged with each other, a supplier lists a hotel once. Suppliers are told apart by the bits of their slots.
+ */
+public class HotelMatcher {
+    private static final int MAX_BLOCK_SIZE = 64;
+    // the name blocks a hotel is compared in
+    private static final int NAME_BLOCKS = 2;
+    // the longitude cells searched around a hotel close to the poles, where the cells get narrow
+    private static final int MAX_LONGITUDE_REACH = 8;
+    private static final double METERS_PER_DEGREE = 111_320;
+    private static final double EARTH_RADIUS_METERS = 6_371_000;
+    // the share of the name similarity in the confidence of hotels with coordinates, the rest is their proximity
+    private static final double NAME_WEIGHT = 0.7;
+    // hotels without coordinates only match by name within a destination, which is trusted less
+    private static final double NAME_ONLY_WEIGHT = 0.9;
+    private static final String[] NO_TOKENS = new String[0];
+    private static final Set<String> STOP_WORDS = Set.of("a", "and", "at", "by", "of", "the", "hotel", "hotels");
+
+    private final double threshold;
+    private final double maxDistanceMeters;
+    private final double cellDegrees;
+    private long matches;
+    private long lastCandidates;
+    private long lastDuplicates;
+    private long totalDuplicates;
+
+    // threshold is the confidence from 0 to 1 two hotels are merged at, a threshold above 1 merges none.
+    // maxDistanceMeters is the distance up to which hotels with coordinates can be the same hotel
+    public HotelMatcher(double threshold, double maxDistanceMeters) {
+        this.threshold = threshold;
+        this.maxDistanceMeters = maxDistanceMeters;
+        this.cellDegrees = maxDistanceMeters / METERS_PER_DEGREE;
+    }
+
+    // the ids of the hotels that are duplicates of another hotel, mapped to the id their group is keyed by, which is
+    // the smallest id of the group. the merge picks the id the group is served under. suppliersOf has a bit for the
+    // slot of every supplier listing the hotel id
+    public Map<String, String> findDuplicates(Map<String, List<SupplierHotel>> hotelsByID, ToIntFunction<String> suppliersOf) {
+        if (this.threshold > 1 || hotelsByID.size() < 2) {
+            recordMatch(0, 0);
+            return Map.of();
+        }
+        Profile[] profiles = new Profile[hotelsByID.size()];
+        int index = 0;
+        for (Map.Entry<String, List<SupplierHotel>> entry : hotelsByID.entrySet()) {
+            profiles[index++] = Profile.of(entry.getKey(), suppliersOf.applyAsInt(entry.getKey()), entry.getValue());
+        }
+
+        // the blocks hold the indexes of their hotels in ascending order
+        Map<Long, List<Integer>> cells = new HashMap<>();
+        Map<String, List<Integer>> nameBlocks = new HashMap<>();
+        for (int i = 0; i < profiles.length; i++) {
+            Profile profile = profiles[i];
+            if (profile.hasCoordinates()) {
+                cells.computeIfAbsent(cellKey(cell(profile.lat()), cell(profile.lng())), _ -> new ArrayList<>()).add(i);
+            }
+            if (profile.destination() != null) {
+                for (String token : profile.tokens()) {
+                    nameBlocks.computeIfAbsent(profile.destination() + '|' + token, _ -> new ArrayList<>()).add(i);
+                }
+            }
+        }
+
+        // a pair sharing several blocks is scored in each of them. that is cheaper than remembering the scored pairs,
+        // and clustering ignores a match of hotels already grouped
+        List<Match> matches = new ArrayList<>();
+        long candidates = 0;
+        for (int i = 0; i < profiles.length; i++) {
+            Profile profile = profiles[i];
+            if (!profile.hasCoordinates()) {
+                continue;
+            }
+            // the hotel is compared with the hotels after it in its own and the neighbouring cells
+            long latCell = cell(profile.lat());
+            long lngCell = cell(profile.lng());
+            int lngReach = longitudeReach(profile.lat());
+            for (long dLat = -1; dLat <= 1; dLat++) {
+                for (long dLng = -lngReach; dLng <= lngReach; dLng++) {
+                    List<Integer> cell = cells.get(cellKey(latCell + dLat, lngCell + dLng));
+                    if (cell == null || cell.size() > MAX_BLOCK_SIZE) {
+                        continue;
+                    }
+                    for (int other : cell) {
+                        if (other > i) {
+                            candidates++;
+                            compare(profiles, i, other, matches);
+                        }
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < profiles.length; i++) {
+            Profile profile = profiles[i];
+            if (profile.destination() == null) {
+                continue;
+            }
+            // common words like the city tell little apart, so the hotel is only compared with the hotels sharing
+            // its rarest tokens. similar names share their rarest tokens as well
+            for (List<Integer> block : rarestBlocks(profile, nameBlocks)) {
+                for (int other : block) {
+                    if (other != i) {
+                        candidates++;
+                        compare(profiles, Math.min(i, other), Math.max(i, other), matches);
+                    }
+                }
+            }
+        }
+
+        Map<String, String> duplicates = cluster(profiles, matches);
+        recordMatch(candidates, duplicates.size());
+        return duplicates;
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(this.matches, this.lastCandidates, this.lastDuplicates, this.totalDuplicates);
+    }
+
+    // the smallest name blocks of the hotel, at most NAME_BLOCKS per hotel
+    private static List<List<Integer>> rarestBlocks(Profile profile, Map<String, List<Integer>> nameBlocks) {
+        List<List<Integer>> blocks = new ArrayList<>(profile.tokens().length);
+        for (String token : profile.tokens()) {
+            List<Integer> block = nameBlocks.get(profile.destination() + '|' + token);
+            if (block.size() <= MAX_BLOCK_SIZE) {
+                blocks.add(block);
+            }
+        }
+        if (blocks.size() > NAME_BLOCKS) {
+            blocks.sort(Comparator.comparingInt(List::size));
+            return blocks.subList(0, NAME_BLOCKS);
+        }
+        return blocks;
+    }
+
+    private void compare(Profile[] profiles, int a, int b, List<Match> matches) {
+        double confidence = confidence(profiles[a], profiles[b]);
+        if (confidence >= this.threshold) {
+            matches.add(new Match(a, b, confidence));
+        }
+    }
+
+    // the confidence from 0 to 1 that both hotels are the same hotel
+    private double confidence(Profile a, Profile b) {
+        if ((a.suppliers() & b.suppliers()) != 0) {
+            return 0;
+        }
+        if (a.destination() != null && b.destination() != null && !a.destination().equals(b.destination())) {
+            return 0;
+        }
+        double nameSimilarity = dice(a.trigrams(), b.trigrams());
+        if (a.hasCoordinates() && b.hasCoordinates()) {
+            double distance = distanceMeters(a, b);
+            if (distance > this.maxDistanceMeters) {
+                return 0;
+            }
+            return NAME_WEIGHT * nameSimilarity + (1 - NAME_WEIGHT) * (1 - distance / this.maxDistanceMeters);
+        }
+        if (a.destination() == null || b.destination() == null) {
+            return 0;
+        }
+        return NAME_ONLY_WEIGHT * nameSimilarity;
+    }
+
+    // groups the matched hotels, the most confident matches first. two groups are only joined if no supplier lists a
+    // hotel in both of them
+    private static Map<String, String> cluster(Profile[] profiles, List<Match> matches) {
+        if (matches.isEmpty()) {
+            return Map.of();
+        }
+        // equally confident matches are taken in the order of their ids, so the groups do not depend on the order
+        // of the hotels
+        matches.sort(Comparator.comparingDouble(Match::confidence).reversed()
+                .thenComparing(match -> min(profiles[match.a()].hotelID(), profiles[match.b()].hotelID()))
+                .thenComparing(match -> max(profiles[match.a()].hotelID(), profiles[match.b()].hotelID())));
+        int[] parents = new int[profiles.length];
+        int[] suppliers = new int[profiles.length];
+        for (int i = 0; i < profiles.length; i++) {
+            parents[i] = i;
+            suppliers[i] = profiles[i].suppliers();
+        }
+        for (Match match : matches) {
+            int a = root(parents, match.a());
+            int b = root(parents, match.b());
+            if (a == b || (suppliers[a] & suppliers[b]) != 0) {
+                continue;
+            }
+            parents[b] = a;
+            suppliers[a] |= suppliers[b];
+        }
+
+        // every group is keyed by its smallest id
+        String[] keptIDs = new String[profiles.length];
+        for (int i = 0; i < profiles.length; i++) {
+            int group = root(parents, i);
+            keptIDs[group] = keptIDs[group] == null ? profiles[i].hotelID() : min(keptIDs[group], profiles[i].hotelID());
+        }
+        Map<String, String> duplicates = new HashMap<>();
+        for (int i = 0; i < profiles.length; i++) {
+            String keptID = keptIDs[root(parents, i)];
+            if (!keptID.equals(profiles[i].hotelID())) {
+                duplicates.put(profiles[i].hotelID(), keptID);
+            }
+        }
+        return duplicates;
+    }
+
+    private static String min(String a, String b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    private static String max(String a, String b) {
+        return a.compareTo(b) <= 0 ? b : a;
+    }
+
+    private static int root(int[] parents, int index) {
+        while (parents[index] != index) {
+            parents[index] = parents[parents[index]];
+            index = parents[index];
+        }
+        return index;
+    }
+
+    private long cell(float degrees) {
+        return (long) Math.floor(degrees / this.cellDegrees);
+    }
+
+    private static long cellKey(long latCell, long lngCell) {
+        return (latCell << 32) ^ (lngCell & 0xFFFFFFFFL);
+    }
+
+    // a degree of longitude shrinks with the cosine of the latitude, so more cells are searched away from the equator
+    private static int longitudeReach(float lat) {
+        double cos = Math.cos(Math.toRadians(lat));
+        return cos <= 1.0 / MAX_LONGITUDE_REACH ? MAX_LONGITUDE_REACH : (int) Math.ceil(1 / cos);
+    }
+
+    // the haversine distance
+    private static double distanceMeters(Profile a, Profile b) {
+        double dLat = Math.toRadians(b.lat() - a.lat());
+        double dLng = Math.toRadians(b.lng() - a.lng());
+        double h = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(a.lat())) * Math.cos(Math.toRadians(b.lat())) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(h)));
+    }
+
+    // the dice coefficient of two sorted trigram sets
+    private static double dice(long[] a, long[] b) {
+        if (a.length == 0 || b.length == 0) {
+            return 0;
+        }
+        int common = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] == b[j]) {
+                common++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return 2.0 * common / (a.length + b.length);
+    }
+
+    private synchronized void recordMatch(long candidates, long duplicates) {
+        this.matches++;
+        this.lastCandidates = candidates;
+        this.lastDuplicates = duplicates;
+        this.totalDuplicates += duplicates;
+    }
+
+    private record Match(int a, int b, double confidence) {
+    }
+
+    // what the matcher compares of a hotel. suppliers has a bit for the slot of every supplier listing the hotel. the
+    // coordinates are the first ones a supplier sent
+    private record Profile(String hotelID, int suppliers, String destination, String[] tokens, long[] trigrams,
+                           boolean hasCoordinates, float lat, float lng) {
+
+        private static Profile of(String hotelID, int suppliers, List<SupplierHotel> records) {
+            String destination = null;
+            String name = null;
+            float lat = 0;
+            float lng = 0;
+            for (SupplierHotel record : records) {
+                if (destination == null) {
+                    destination = record.destinationKey();
+                }
+                switch (record) {
+                    case AcmeHotelResult acme -> {
+                        name = name == null ? acme.getName() : name;
+                        if (lat == 0 && lng == 0) {
+                            lat = acme.getLatitude();
+                            lng = acme.getLongitude();
+                        }
+                    }
+                    case PaperfliesHotelResult paperflies -> name = name == null ? paperflies.getName() : name;
+                    case PatagoniaHotelResult patagonia -> {
+                        name = name == null ? patagonia.getName() : name;
+                        if (lat == 0 && lng == 0) {
+                            lat = patagonia.getLatitude();
+                            lng = patagonia.getLongitude();
+                        }
+                    }
+                    // the name and coordinates of other suppliers are not known. their destination is still compared
+                    default -> {
+                    }
+                }
+            }
+            String[] tokens = tokens(name);
+            return new Profile(hotelID, suppliers, destination, tokens, trigrams(tokens), lat != 0 || lng != 0, lat, lng);
+        }
+
+        // the words of the name in lower case without punctuation and stop words
+        private static String[] tokens(String name) {
+            if (name == null) {
+                return NO_TOKENS;
+            }
+            List<String> tokens = new ArrayList<>(4);
+            int start = -1;
+            for (int i = 0; i <= name.length(); i++) {
+                boolean letterOrDigit = i < name.length() && Character.isLetterOrDigit(name.charAt(i));
+                if (letterOrDigit && start < 0) {
+                    start = i;
+                } else if (!letterOrDigit && start >= 0) {
+                    String token = name.substring(start, i).toLowerCase(Locale.ROOT);
+                    if (!STOP_WORDS.contains(token)) {
+                        tokens.add(token);
+                    }
+                    start = -1;
+                }
+            }
+            return tokens.toArray(NO_TOKENS);
+        }
+
+        // the sorted distinct character trigrams of the tokens, each token padded with a space on both sides
+        private static long[] trigrams(String[] tokens) {
+            int count = 0;
+            for (String token : tokens) {
+                count += token.length();
+            }
+            long[] trigrams = new long[count];
+            int size = 0;
+            for (String token : tokens) {
+                char previous = ' ';
+                char current = token.charAt(0);
+                for (int i = 1; i <= token.length(); i++) {
+                    char next = i < token.length() ? token.charAt(i) : ' ';
+                    trigrams[size++] = ((long) previous << 32) | ((long) current << 16) | next;
+                    previous = current;
+                    current = next;
+                }
+            }
+            Arrays.sort(trigrams, 0, size);
+            int distinct = 0;
+            for (int i = 0; i < size; i++) {
+                if (distinct == 0 || trigrams[i] != trigrams[distinct - 1]) {
+                    trigrams[distinct++] = trigrams[i];
+                }
+            }
+            return distinct == trigrams.length ? trigrams : Arrays.copyOf(trigrams, distinct);
+        }
+    }
+
+    // matches is the number of catalogs matched, candidates the pairs of hotels the last match compared
+    public record Stats(long matches, long lastCandidates, long lastDuplicates, long totalDuplicates) {
+    }
+}
@@ -0,0 +1,161 @@
+package com.codingchallenge.hoteldatamerger.merger;
+
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.SupplierHotel;
+import com.codingchallenge.hoteldatamerger.model.HotelResult;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+/*
+ * HotelMergeMemo remembers the merge of every hotel of the last catalog rebuild together with a fingerprint of the
+ * supplier records it was merged from. A rebuild only merges the hotels whose supplier records changed and reuses the
+ * previous merge of all the others, so that the work of a rebuild is proportional to the changes of the feeds.
+ * The hotels of a rebuild are merged in parallel on a fork join pool. The results keep the order of the hotels.
+ */
+public class HotelMergeMemo {
+    // the number of hotels a merge task merges without splitting further
+    private static final int MERGE_BATCH_SIZE = 256;
+
+    // null if the hotels are merged on the calling thread
+    private final ForkJoinPool pool;
+    private Map<String, MergedHotel> mergedHotels = new HashMap<>();
+    private long rebuilds;
+    private long lastReused;
+    private long lastMerged;
+    private long totalReused;
+    private long totalMerged;
+
+    // merges on the calling thread
+    public HotelMergeMemo() {
+        this(1);
+    }
+
+    // parallelism below 1 uses every available processor
+    public HotelMergeMemo(int parallelism) {
+        if (parallelism < 1) {
+            parallelism = Runtime.getRuntime().availableProcessors();
+        }
+        this.pool = parallelism == 1 ? null : new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("catalog-merge-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    // merges the supplier records of every hotel. the merge function returns null for hotels that cannot be merged,
+    // which are skipped. hotels that are no longer sent by any supplier are forgotten
+    public synchronized List<HotelResult> mergeAll(Map<String, List<SupplierHotel>> supplierHotels,
+                                                   Function<List<SupplierHotel>, HotelResult> merge) {
+        List<Map.Entry<String, List<SupplierHotel>>> entries = new ArrayList<>(supplierHotels.entrySet());
+        MergedHotel[] merged = new MergedHotel[entries.size()];
+        MergeTask task = new MergeTask(entries, merged, this.mergedHotels, merge, 0, entries.size());
+        if (this.pool == null) {
+            task.compute();
+        } else {
+            this.pool.invoke(task);
+        }
+
+        Map<String, MergedHotel> mergedHotels = new HashMap<>(supplierHotels.size());
+        List<HotelResult> results = new ArrayList<>(supplierHotels.size());
+        long reused = 0;
+        for (int i = 0; i < merged.length; i++) {
+            String hotelID = entries.get(i).getKey();
+            if (merged[i] == this.mergedHotels.get(hotelID)) {
+                reused++;
+            }
+            mergedHotels.put(hotelID, merged[i]);
+            if (merged[i].result() != null) {
+                results.add(merged[i].result());
+            }
+        }
+        this.mergedHotels = mergedHotels;
+
+        this.rebuilds++;
+        this.lastReused = reused;
+        this.lastMerged = supplierHotels.size() - reused;
+        this.totalReused += this.lastReused;
+        this.totalMerged += this.lastMerged;
+        return results;
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(this.rebuilds, this.lastReused, this.lastMerged, this.totalReused, this.totalMerged);
+    }
+
+    public void shutdown() {
+        if (this.pool != null) {
+            this.pool.shutdown();
+        }
+    }
+
+    // merges the hotels from start to end into merged, splitting the range in halves until it is small enough
+    private static final class MergeTask extends RecursiveAction {
+        private final List<Map.Entry<String, List<SupplierHotel>>> entries;
+        private final MergedHotel[] merged;
+        private final Map<String, MergedHotel> previous;
+        private final Function<List<SupplierHotel>, HotelResult> merge;
+        private final int start;
+        private final int end;
+
+        private MergeTask(List<Map.Entry<String, List<SupplierHotel>>> entries, MergedHotel[] merged,
+                          Map<String, MergedHotel> previous, Function<List<SupplierHotel>, HotelResult> merge, int start, int end) {
+            this.entries = entries;
+            this.merged = merged;
+            this.previous = previous;
+            this.merge = merge;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.end - this.start > MERGE_BATCH_SIZE) {
+                int middle = (this.start + this.end) >>> 1;
+                invokeAll(new MergeTask(this.entries, this.merged, this.previous, this.merge, this.start, middle),
+                        new MergeTask(this.entries, this.merged, this.previous, this.merge, middle, this.end));
+                return;
+            }
+            for (int i = this.start; i < this.end; i++) {
+                Map.Entry<String, List<SupplierHotel>> entry = this.entries.get(i);
+                Fingerprint fingerprint = Fingerprint.of(entry.getValue());
+                MergedHotel mergedHotel = this.previous.get(entry.getKey());
+                if (mergedHotel == null || !mergedHotel.fingerprint().equals(fingerprint)) {
+                    mergedHotel = new MergedHotel(fingerprint, this.merge.apply(entry.getValue()));
+                }
+                this.merged[i] = mergedHotel;
+            }
+        }
+    }
+
+    // the content hash of the supplier records of a hotel. records with the same hash are compared as well, so a hash
+    // collision never reuses the merge of different records
+    private record Fingerprint(int hash, List<SupplierHotel> records) {
+        private static Fingerprint of(List<SupplierHotel> records) {
+            return new Fingerprint(records.hashCode(), List.copyOf(records));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Fingerprint other && this.hash == other.hash && this.records.equals(other.records);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    // result is null if the hotel could not be merged
+    private record MergedHotel(Fingerprint fingerprint, HotelResult result) {
+    }
+
+    // lastReused and lastMerged count the hotels of the last rebuild
+    public record Stats(long rebuilds, long lastReused, long lastMerged, long totalReused, long totalMerged) {
+    }
+}
@@ -10,19 +10,17 @@ public class HotelResultMergeProcessor {
         this.attributeResolver = attributeResolver;
     }
 
-    // resolves attributes based on the rules
+    // resolves attributes based on the rules. the provenance is resolved last, once every attribute is
     public HotelResult mergeDetails() {
-        HotelResult result = new HotelResult();
-
-        result.setId(this.attributeResolver.resolveId());
-        result.setName(this.attributeResolver.resolveName());
-        result.setAmenities(this.attributeResolver.resolveAmenities());
-        result.setDescription(this.attributeResolver.resolveDescription());
-        result.setImages(this.attributeResolver.resolveImages());
-        result.setLocation(this.attributeResolver.resolveLocation());
-        result.setBookingConditions(this.attributeResolver.resolveBookingConditions());
-        result.setDestinationId(this.attributeResolver.resolveDestinationId());
-
-        return result;
+        return new HotelResult(
+                this.attributeResolver.resolveId(),
+                this.attributeResolver.resolveDestinationId(),
+                this.attributeResolver.resolveName(),
+                this.attributeResolver.resolveLocation(),
+                this.attributeResolver.resolveDescription(),
+                this.attributeResolver.resolveAmenities(),
+                this.attributeResolver.resolveImages(),
+                this.attributeResolver.resolveBookingConditions(),
+                this.attributeResolver.resolveProvenance());
     }
 }
@@ -6,6 +6,7 @@ import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.paperf
 import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.paperflies.PaperfliesHotelResult;
 import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.patagonia.PatagoniaHotelImage;
 import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.patagonia.PatagoniaHotelResult;
+import com.codingchallenge.hoteldatamerger.model.AmenityDictionary;
 import com.codingchallenge.hoteldatamerger.model.HotelAmenities;
 import com.codingchallenge.hoteldatamerger.model.HotelImage;
 import com.codingchallenge.hoteldatamerger.model.HotelImages;
@@ -13,7 +14,9 @@ import com.codingchallenge.hoteldatamerger.model.HotelLocation;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.logging.Level;
@@ -143,7 +146,11 @@ public class SimpleHotelAttributeResolver implements HotelAttributeResolver {
 
     @Override
     public HotelLocation resolveLocation() {
-        HotelLocation location = new HotelLocation();
+        float lat = 0;
+        float lng = 0;
+        String address = null;
+        String city = null;
+        String country = null;
 
         // define the priority order to consider when resolving for location
         List<Class<?>> priorityOrder = List.of(PatagoniaHotelResult.class, PaperfliesHotelResult.class, AcmeHotelResult.class);
@@ -156,43 +163,43 @@ public class SimpleHotelAttributeResolver implements HotelAttributeResolver {
                 switch (hotel) {
                     case AcmeHotelResult acmeHotelResult -> {
                         // only set the lat and lng if they are not already set by other high priority suppliers
-                        if (location.getLat() == 0 && acmeHotelResult.getLatitude() != 0) {
-                            location.setLat(acmeHotelResult.getLatitude());
+                        if (lat == 0 && acmeHotelResult.getLatitude() != 0) {
+                            lat = acmeHotelResult.getLatitude();
                         }
-                        if (location.getLng() == 0 && acmeHotelResult.getLongitude() != 0) {
-                            location.setLng(acmeHotelResult.getLongitude());
+                        if (lng == 0 && acmeHotelResult.getLongitude() != 0) {
+                            lng = acmeHotelResult.getLongitude();
                         }
-                        if (location.getAddress() == null && acmeHotelResult.getAddress() != null && !acmeHotelResult.getAddress().isBlank()) {
+                        if (address == null && acmeHotelResult.getAddress() != null && !acmeHotelResult.getAddress().isBlank()) {
                             // if address is not set. try with acme hotels.
-                            location.setAddress(StringUtils.capitalize(acmeHotelResult.getAddress()));
+                            address = StringUtils.capitalize(acmeHotelResult.getAddress());
                         }
                         if (acmeHotelResult.getCity() != null) {
-                            location.setCity(StringUtils.capitalize(acmeHotelResult.getCity()));
+                            city = StringUtils.capitalize(acmeHotelResult.getCity());
                         }
                         // only set the country if this is not already set by other high priority suppliers
-                        if (location.getCountry() == null && acmeHotelResult.getCountry() != null) {
-                            location.setCountry(StringUtils.capitalize(acmeHotelResult.getCountry()));
+                        if (country == null && acmeHotelResult.getCountry() != null) {
+                            country = StringUtils.capitalize(acmeHotelResult.getCountry());
                         }
                     }
                     case PatagoniaHotelResult patagoniaHotelResult -> {
                         if (patagoniaHotelResult.getLatitude() != 0) {
-                            location.setLat(patagoniaHotelResult.getLatitude());
+                            lat = patagoniaHotelResult.getLatitude();
                         }
                         if (patagoniaHotelResult.getLongitude() != 0) {
-                            location.setLng(patagoniaHotelResult.getLongitude());
+                            lng = patagoniaHotelResult.getLongitude();
                         }
                         if (patagoniaHotelResult.getAddress() != null && !patagoniaHotelResult.getAddress().isBlank()) {
-                            location.setAddress(StringUtils.capitalize(patagoniaHotelResult.getAddress()));
+                            address = StringUtils.capitalize(patagoniaHotelResult.getAddress());
                         }
                     }
                     case PaperfliesHotelResult paperfliesHotelResult -> {
                         if (paperfliesHotelResult.getLocation() != null) {
                             // only set the address if this is not already set by other high priority suppliers
-                            if (location.getAddress() == null && paperfliesHotelResult.getLocation().getAddress() != null && !paperfliesHotelResult.getLocation().getAddress().isBlank()) {
-                                location.setAddress(StringUtils.capitalize(paperfliesHotelResult.getLocation().getAddress()));
+                            if (address == null && paperfliesHotelResult.getLocation().getAddress() != null && !paperfliesHotelResult.getLocation().getAddress().isBlank()) {
+                                address = StringUtils.capitalize(paperfliesHotelResult.getLocation().getAddress());
                             }
                             if (paperfliesHotelResult.getLocation().getCountry() != null && !paperfliesHotelResult.getLocation().getCountry().isBlank()) {
-                                location.setCountry(StringUtils.capitalize(paperfliesHotelResult.getLocation().getCountry()));
+                                country = StringUtils.capitalize(paperfliesHotelResult.getLocation().getCountry());
                             }
                         }
                     }
@@ -201,7 +208,7 @@ public class SimpleHotelAttributeResolver implements HotelAttributeResolver {
             }
         }
 
-        return location;
+        return HotelLocation.of(lat, lng, address, city, country);
     }
 
     @Override
@@ -234,12 +241,10 @@ public class SimpleHotelAttributeResolver implements HotelAttributeResolver {
 
     @Override
     public HotelAmenities resolveAmenities() {
-        HotelAmenities amenities = new HotelAmenities();
-        amenities.setGeneral(new ArrayList<>());
-        amenities.setRoom(new ArrayList<>());
-
-        Set<String> generalAmenities = new HashSet<>();
-        Set<String> roomAmenities = new HashSet<>();
+        // amenities are deduplicated by their dictionary id
+        AmenityDictionary dictionary = AmenityDictionary.global();
+        BitSet generalAmenities = new BitSet();
+        BitSet roomAmenities = new BitSet();
 
         // define the priority order to consider when resolving for amenities
         List<Class<?>> priorityOrder = List.of(PaperfliesHotelResult.class, PatagoniaHotelResult.class, AcmeHotelResult.class);
@@ -255,10 +260,9 @@ public class SimpleHotelAttributeResolver implements HotelAttributeResolver {
                         // If the amenity is already present as a room amenity, do not add to general amenity again.
                         if (acmeHotelResult.getFacilities() != null) {
                             for (String ga : acmeHotelResult.getFacilities()) {
-                                String key = getKey(ga);
-                                if (!generalAmenities.contains(key) && !roomAmenities.contains(key)) {
-                                    generalAmenities.add(key);
-                                    amenities.getGeneral().add(StringUtils.capitalize(ga.strip()));
+                                int id = dictionary.idOf(ga);
+                                if (id >= 0 && !roomAmenities.get(id)) {
+                                    generalAmenities.set(id);
                                 }
                             }
                         }
@@ -268,10 +272,9 @@ public class SimpleHotelAttributeResolver implements HotelAttributeResolver {
                         // If the amenity is already present as a general amenity, do not add to room amenity again.
                         if (patagoniaHotelResult.getAmenities() != null) {
                             for (String ga : patagoniaHotelResult.getAmenities()) {
-                                String key = getKey(ga);
-                                if (!generalAmenities.contains(key) && !roomAmenities.contains(key)) {
-                                    roomAmenities.add(key);
-                                    amenities.getRoom().add(StringUtils.capitalize(ga.strip()));
+                                int id = dictionary.idOf(ga);
+                                if (id >= 0 && !generalAmenities.get(id)) {
+                                    roomAmenities.set(id);
                                 }
                             }
                         }
@@ -281,19 +284,17 @@ public class SimpleHotelAttributeResolver implements HotelAttributeResolver {
                         if (paperfliesHotelResult.getAmenities() != null) {
                             if (paperfliesHotelResult.getAmenities().getGeneral() != null) {
                                 for (String ga : paperfliesHotelResult.getAmenities().getGeneral()) {
-                                    String key = getKey(ga); // deduplicate entries based on a generated key
-                                    if (!generalAmenities.contains(key)) {
-                                        generalAmenities.add(key);
-                                        amenities.getGeneral().add(StringUtils.capitalize(ga.strip()));
+                                    int id = dictionary.idOf(ga);
+                                    if (id >= 0) {
+                                        generalAmenities.set(id);
                                     }
                                 }
                             }
                             if (paperfliesHotelResult.getAmenities().getRoom() != null) {
                                 for (String ra : paperfliesHotelResult.getAmenities().getRoom()) {
-                                    String key = getKey(ra); // deduplicate entries based on a generated key
-                                    if (!roomAmenities.contains(key)) {
-                                        roomAmenities.add(key);
-                                        amenities.getRoom().add(StringUtils.capitalize(ra.strip()));
+                                    int id = dictionary.idOf(ra);
+                                    if (id >= 0) {
+                                        roomAmenities.set(id);
                                     }
                                 }
                             }
@@ -303,16 +304,14 @@ public class SimpleHotelAttributeResolver implements HotelAttributeResolver {
                 }
             }
         }
-        return amenities;
+        return HotelAmenities.of(generalAmenities, roomAmenities);
     }
 
     @Override
     public HotelImages resolveImages() {
-        HotelImages images = new HotelImages();
-
-        Set<HotelImage> siteImages = new HashSet<>();
-        Set<HotelImage> amenitiesImages = new HashSet<>();
-        Set<HotelImage> roomImages = new HashSet<>();
+        Set<HotelImage> siteImages = new LinkedHashSet<>();
+        Set<HotelImage> amenitiesImages = new LinkedHashSet<>();
+        Set<HotelImage> roomImages = new LinkedHashSet<>();
 
         // define the priority order to consider when resolving for images
         List<Class<?>> priorityOrder = List.of(PaperfliesHotelResult.class, PatagoniaHotelResult.class);
@@ -332,7 +331,7 @@ public class SimpleHotelAttributeResolver implements HotelAttributeResolver {
                                         // dirty data. ignore
                                         continue;
                                     }
-                                    amenitiesImages.add(new HotelImage(img.getUrl().strip(), StringUtils.capitalize(img.getDescription().strip())));
+                                    amenitiesImages.add(HotelImage.of(img.getUrl().strip(), StringUtils.capitalize(img.getDescription().strip())));
                                 }
                             }
                             // extract room images and room types
@@ -342,7 +341,7 @@ public class SimpleHotelAttributeResolver implements HotelAttributeResolver {
                                         // dirty data. ignore
                                         continue;
                                     }
-                                    roomImages.add(new HotelImage(img.getUrl().strip(), StringUtils.capitalize(img.getDescription().strip())));
+                                    roomImages.add(HotelImage.of(img.getUrl().strip(), StringUtils.capitalize(img.getDescription().strip())));
                                 }
                             }
                         }
@@ -356,7 +355,7 @@ public class SimpleHotelAttributeResolver implements HotelAttributeResolver {
                                         // dirty data. ignore
                                         continue;
                                     }
-                                    siteImages.add(new HotelImage(img.getLink().strip(), StringUtils.capitalize(img.getCaption().strip())));
+                                    siteImages.add(HotelImage.of(img.getLink().strip(), StringUtils.capitalize(img.getCaption().strip())));
                                 }
                             }
                             // extract room images and room types
@@ -366,7 +365,7 @@ public class SimpleHotelAttributeResolver implements HotelAttributeResolver {
                                         // dirty data. ignore
                                         continue;
                                     }
-                                    roomImages.add(new HotelImage(img.getLink().strip(), StringUtils.capitalize(img.getCaption().strip())));
+                                    roomImages.add(HotelImage.of(img.getLink().strip(), StringUtils.capitalize(img.getCaption().strip())));
                                 }
                             }
                         }
@@ -376,11 +375,7 @@ public class SimpleHotelAttributeResolver implements HotelAttributeResolver {
             }
         }
 
-        images.setSiteImages(new ArrayList<>(siteImages));
-        images.setAmenitiesImages(new ArrayList<>(amenitiesImages));
-        images.setRoomImages(new ArrayList<>(roomImages));
-
-        return images;
+        return HotelImages.of(roomImages, siteImages, amenitiesImages);
     }
 
     @Override
@@ -414,16 +409,4 @@ public class SimpleHotelAttributeResolver implements HotelAttributeResolver {
 
         return bookingConditions;
     }
-
-
-    // This is used to deduplicate entries
-    private static String getKey(String ga) {
-        StringBuilder sb = new StringBuilder();
-        for (char c : ga.strip().toCharArray()) {
-            if (Character.isAlphabetic(c)) {
-                sb.append(c);
-            }
-        }
-        return sb.toString().toLowerCase();
-    }
 }
@@ -0,0 +1,420 @@
+package com.codingchallenge.hoteldatamerger.merger;
+
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.SupplierHotel;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.acme.AcmeHotelResult;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.paperflies.PaperfliesHotelImage;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.paperflies.PaperfliesHotelResult;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.patagonia.PatagoniaHotelImage;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.patagonia.PatagoniaHotelResult;
+import com.codingchallenge.hoteldatamerger.model.AmenityDictionary;
+import com.codingchallenge.hoteldatamerger.model.HotelAmenities;
+import com.codingchallenge.hoteldatamerger.model.HotelImage;
+import com.codingchallenge.hoteldatamerger.model.HotelImages;
+import com.codingchallenge.hoteldatamerger.model.HotelLocation;
+import com.codingchallenge.hoteldatamerger.model.HotelProvenance;
+import com.codingchallenge.hoteldatamerger.model.HotelProvenance.Attribute;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/*
+ * SinglePassHotelAttributeResolver resolves the same attributes as SimpleHotelAttributeResolver, with the same rules
+ * and the same output. Instead of scanning every supplier record once per priority of every attribute, it buckets
+ * the records by supplier in a single pass and each attribute walks its priority table over the buckets.
+ * While resolving, it records which suppliers every resolved value came from in a single int, see HotelProvenance.
+ * */
+public class SinglePassHotelAttributeResolver implements HotelAttributeResolver {
+    private static final Logger LOGGER = Logger.getLogger(SinglePassHotelAttributeResolver.class.getName());
+    // the values that repeat across hotels, like countries, cities, image captions and booking conditions, are
+    // stored once for the whole catalog
+    private static final StringPool STRINGS = StringPool.global();
+
+    private enum Supplier {
+        ACME(HotelProvenance.ACME),
+        PAPERFLIES(HotelProvenance.PAPERFLIES),
+        PATAGONIA(HotelProvenance.PATAGONIA);
+
+        // the bit of the supplier in the provenance
+        private final int bit;
+
+        Supplier(int bit) {
+            this.bit = bit;
+        }
+    }
+
+    // the priority order of the suppliers per attribute
+    private static final Supplier[] ID_PRIORITY = {Supplier.PATAGONIA, Supplier.PAPERFLIES, Supplier.ACME};
+    private static final Supplier[] DESTINATION_ID_PRIORITY = {Supplier.ACME, Supplier.PATAGONIA, Supplier.PAPERFLIES};
+    private static final Supplier[] NAME_PRIORITY = {Supplier.ACME, Supplier.PATAGONIA, Supplier.PAPERFLIES};
+    private static final Supplier[] LOCATION_PRIORITY = {Supplier.PATAGONIA, Supplier.PAPERFLIES, Supplier.ACME};
+    private static final Supplier[] AMENITIES_PRIORITY = {Supplier.PAPERFLIES, Supplier.PATAGONIA, Supplier.ACME};
+    private static final Supplier[] IMAGES_PRIORITY = {Supplier.PAPERFLIES, Supplier.PATAGONIA};
+
+    // the records of each supplier in the order they were given
+    private final List<AcmeHotelResult> acmeHotels = new ArrayList<>(1);
+    private final List<PaperfliesHotelResult> paperfliesHotels = new ArrayList<>(1);
+    private final List<PatagoniaHotelResult> patagoniaHotels = new ArrayList<>(1);
+    // the longest description wins and the first one on a tie, so it is picked while the records are still in order
+    private final String description;
+    private final int descriptionSupplier;
+    private int provenance = HotelProvenance.NONE;
+
+    public SinglePassHotelAttributeResolver(List<SupplierHotel> hotels) {
+        String longestDescription = "";
+        int longestDescriptionSupplier = HotelProvenance.NONE;
+        for (SupplierHotel hotel : hotels) {
+            int supplier = HotelProvenance.NONE;
+            String description = switch (hotel) {
+                case AcmeHotelResult result -> {
+                    this.acmeHotels.add(result);
+                    supplier = HotelProvenance.ACME;
+                    yield result.getDescription();
+                }
+                case PaperfliesHotelResult result -> {
+                    this.paperfliesHotels.add(result);
+                    supplier = HotelProvenance.PAPERFLIES;
+                    yield result.getDetails();
+                }
+                case PatagoniaHotelResult result -> {
+                    this.patagoniaHotels.add(result);
+                    supplier = HotelProvenance.PATAGONIA;
+                    yield result.getInfo();
+                }
+                default -> {
+                    LOGGER.log(Level.WARNING, "unidentified class instance");
+                    yield null;
+                }
+            };
+            if (description != null && description.length() > longestDescription.length()) {
+                longestDescription = description;
+                longestDescriptionSupplier = supplier;
+            }
+        }
+        this.description = longestDescription;
+        this.descriptionSupplier = longestDescriptionSupplier;
+    }
+
+    @Override
+    public String resolveId() {
+        String id = firstNonBlank(Attribute.ID, ID_PRIORITY, AcmeHotelResult::getID, PaperfliesHotelResult::getID, PatagoniaHotelResult::getID);
+        return id == null ? "" : id.strip();
+    }
+
+    @Override
+    public int resolveDestinationId() {
+        for (Supplier supplier : DESTINATION_ID_PRIORITY) {
+            switch (supplier) {
+                case ACME -> {
+                    for (AcmeHotelResult result : this.acmeHotels) {
+                        String destinationID = result.getDestinationID();
+                        if (destinationID != null && !destinationID.isBlank()) {
+                            int resolved = Integer.parseInt(destinationID);
+                            record(Attribute.DESTINATION_ID, supplier);
+                            return resolved;
+                        }
+                    }
+                }
+                case PAPERFLIES -> {
+                    for (PaperfliesHotelResult result : this.paperfliesHotels) {
+                        if (result.getDestinationID() != 0) {
+                            record(Attribute.DESTINATION_ID, supplier);
+                            return result.getDestinationID();
+                        }
+                    }
+                }
+                case PATAGONIA -> {
+                    for (PatagoniaHotelResult result : this.patagoniaHotels) {
+                        if (result.getDestination() != 0) {
+                            record(Attribute.DESTINATION_ID, supplier);
+                            return result.getDestination();
+                        }
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String resolveName() {
+        String name = firstNonBlank(Attribute.NAME, NAME_PRIORITY, AcmeHotelResult::getName, PaperfliesHotelResult::getName, PatagoniaHotelResult::getName);
+        return name == null ? "" : name.strip();
+    }
+
+    @Override
+    public HotelLocation resolveLocation() {
+        float lat = 0;
+        float lng = 0;
+        String address = null;
+        String city = null;
+        String country = null;
+        // the supplier of every field, so that a value overwritten by another supplier is not credited
+        int latSupplier = HotelProvenance.NONE;
+        int lngSupplier = HotelProvenance.NONE;
+        int addressSupplier = HotelProvenance.NONE;
+        int citySupplier = HotelProvenance.NONE;
+        int countrySupplier = HotelProvenance.NONE;
+
+        for (Supplier supplier : LOCATION_PRIORITY) {
+            switch (supplier) {
+                case ACME -> {
+                    for (AcmeHotelResult result : this.acmeHotels) {
+                        // only set the lat and lng if they are not already set by other high priority suppliers
+                        if (lat == 0 && result.getLatitude() != 0) {
+                            lat = result.getLatitude();
+                            latSupplier = supplier.bit;
+                        }
+                        if (lng == 0 && result.getLongitude() != 0) {
+                            lng = result.getLongitude();
+                            lngSupplier = supplier.bit;
+                        }
+                        if (address == null && result.getAddress() != null && !result.getAddress().isBlank()) {
+                            address = StringUtils.capitalize(result.getAddress());
+                            addressSupplier = supplier.bit;
+                        }
+                        if (result.getCity() != null) {
+                            city = STRINGS.intern(StringUtils.capitalize(result.getCity()));
+                            citySupplier = supplier.bit;
+                        }
+                        if (country == null && result.getCountry() != null) {
+                            country = STRINGS.intern(StringUtils.capitalize(result.getCountry()));
+                            countrySupplier = supplier.bit;
+                        }
+                    }
+                }
+                case PAPERFLIES -> {
+                    for (PaperfliesHotelResult result : this.paperfliesHotels) {
+                        if (result.getLocation() == null) {
+                            continue;
+                        }
+                        String paperfliesAddress = result.getLocation().getAddress();
+                        if (address == null && paperfliesAddress != null && !paperfliesAddress.isBlank()) {
+                            address = StringUtils.capitalize(paperfliesAddress);
+                            addressSupplier = supplier.bit;
+                        }
+                        String paperfliesCountry = result.getLocation().getCountry();
+                        if (paperfliesCountry != null && !paperfliesCountry.isBlank()) {
+                            country = STRINGS.intern(StringUtils.capitalize(paperfliesCountry));
+                            countrySupplier = supplier.bit;
+                        }
+                    }
+                }
+                case PATAGONIA -> {
+                    for (PatagoniaHotelResult result : this.patagoniaHotels) {
+                        if (result.getLatitude() != 0) {
+                            lat = result.getLatitude();
+                            latSupplier = supplier.bit;
+                        }
+                        if (result.getLongitude() != 0) {
+                            lng = result.getLongitude();
+                            lngSupplier = supplier.bit;
+                        }
+                        if (result.getAddress() != null && !result.getAddress().isBlank()) {
+                            address = StringUtils.capitalize(result.getAddress());
+                            addressSupplier = supplier.bit;
+                        }
+                    }
+                }
+            }
+        }
+        record(Attribute.LOCATION, latSupplier | lngSupplier | addressSupplier | citySupplier | countrySupplier);
+        return HotelLocation.of(lat, lng, address, city, country);
+    }
+
+    @Override
+    public String resolveDescription() {
+        record(Attribute.DESCRIPTION, this.descriptionSupplier);
+        return StringUtils.capitalize(this.description);
+    }
+
+    @Override
+    public HotelAmenities resolveAmenities() {
+        BitSet generalAmenities = new BitSet();
+        BitSet roomAmenities = new BitSet();
+
+        for (Supplier supplier : AMENITIES_PRIORITY) {
+            switch (supplier) {
+                case ACME -> {
+                    // acme facilities are general amenities unless they are already room amenities
+                    for (AcmeHotelResult result : this.acmeHotels) {
+                        if (addAmenities(result.getFacilities(), generalAmenities, roomAmenities)) {
+                            record(Attribute.AMENITIES, supplier);
+                        }
+                    }
+                }
+                case PAPERFLIES -> {
+                    for (PaperfliesHotelResult result : this.paperfliesHotels) {
+                        if (result.getAmenities() != null) {
+                            // both are added, even if the general amenities added any
+                            if (addAmenities(result.getAmenities().getGeneral(), generalAmenities, null)
+                                    | addAmenities(result.getAmenities().getRoom(), roomAmenities, null)) {
+                                record(Attribute.AMENITIES, supplier);
+                            }
+                        }
+                    }
+                }
+                case PATAGONIA -> {
+                    // patagonia amenities are room amenities unless they are already general amenities
+                    for (PatagoniaHotelResult result : this.patagoniaHotels) {
+                        if (addAmenities(result.getAmenities(), roomAmenities, generalAmenities)) {
+                            record(Attribute.AMENITIES, supplier);
+                        }
+                    }
+                }
+            }
+        }
+        return HotelAmenities.of(generalAmenities, roomAmenities);
+    }
+
+    @Override
+    public HotelImages resolveImages() {
+        Set<HotelImage> siteImages = new LinkedHashSet<>();
+        Set<HotelImage> amenitiesImages = new LinkedHashSet<>();
+        Set<HotelImage> roomImages = new LinkedHashSet<>();
+
+        for (Supplier supplier : IMAGES_PRIORITY) {
+            switch (supplier) {
+                case PAPERFLIES -> {
+                    for (PaperfliesHotelResult result : this.paperfliesHotels) {
+                        if (result.getImages() != null
+                                && (addPaperfliesImages(result.getImages().getSite(), siteImages)
+                                | addPaperfliesImages(result.getImages().getRooms(), roomImages))) {
+                            record(Attribute.IMAGES, supplier);
+                        }
+                    }
+                }
+                case PATAGONIA -> {
+                    for (PatagoniaHotelResult result : this.patagoniaHotels) {
+                        if (result.getImages() != null
+                                && (addPatagoniaImages(result.getImages().getAmenities(), amenitiesImages)
+                                | addPatagoniaImages(result.getImages().getRooms(), roomImages))) {
+                            record(Attribute.IMAGES, supplier);
+                        }
+                    }
+                }
+            }
+        }
+
+        return HotelImages.of(roomImages, siteImages, amenitiesImages);
+    }
+
+    @Override
+    public List<String> resolveBookingConditions() {
+        List<String> bookingConditions = new ArrayList<>();
+
+        // only paperflies hotels have booking conditions
+        for (PaperfliesHotelResult result : this.paperfliesHotels) {
+            if (result.getBookingConditions() == null) {
+                continue;
+            }
+            for (String condition : result.getBookingConditions()) {
+                if (condition != null && !condition.isBlank()) {
+                    for (String split : condition.split("===")) {
+                        bookingConditions.add(STRINGS.intern(StringUtils.capitalize(split.strip())));
+                    }
+                }
+            }
+        }
+        if (!bookingConditions.isEmpty()) {
+            record(Attribute.BOOKING_CONDITIONS, Supplier.PAPERFLIES);
+        }
+        return bookingConditions;
+    }
+
+    @Override
+    public int resolveProvenance() {
+        return this.provenance;
+    }
+
+    private void record(Attribute attribute, Supplier supplier) {
+        record(attribute, supplier.bit);
+    }
+
+    private void record(Attribute attribute, int suppliers) {
+        this.provenance = attribute.with(this.provenance, suppliers);
+    }
+
+    // the first non blank value in priority order, or null. the supplier of the value is recorded for the attribute
+    private String firstNonBlank(Attribute attribute, Supplier[] priority, Function<AcmeHotelResult, String> acme,
+                                 Function<PaperfliesHotelResult, String> paperflies, Function<PatagoniaHotelResult, String> patagonia) {
+        for (Supplier supplier : priority) {
+            String value = switch (supplier) {
+                case ACME -> firstNonBlank(this.acmeHotels, acme);
+                case PAPERFLIES -> firstNonBlank(this.paperfliesHotels, paperflies);
+                case PATAGONIA -> firstNonBlank(this.patagoniaHotels, patagonia);
+            };
+            if (value != null) {
+                record(attribute, supplier);
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private static <T> String firstNonBlank(List<T> hotels, Function<T, String> attribute) {
+        for (T hotel : hotels) {
+            String value = attribute.apply(hotel);
+            if (value != null && !value.isBlank()) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    // adds the amenities to ids unless they are in otherIds (if any). returns whether any amenity was new
+    private static boolean addAmenities(Collection<String> amenities, BitSet ids, BitSet otherIds) {
+        if (amenities == null) {
+            return false;
+        }
+        boolean added = false;
+        for (String amenity : amenities) {
+            int id = AmenityDictionary.global().idOf(amenity);
+            if (id >= 0 && (otherIds == null || !otherIds.get(id)) && !ids.get(id)) {
+                ids.set(id);
+                added = true;
+            }
+        }
+        return added;
+    }
+
+    // returns whether any image was new
+    private static boolean addPaperfliesImages(List<PaperfliesHotelImage> images, Set<HotelImage> target) {
+        if (images == null) {
+            return false;
+        }
+        boolean added = false;
+        for (PaperfliesHotelImage img : images) {
+            if (img == null || img.getCaption() == null || img.getLink() == null || img.getCaption().isBlank() || img.getLink().isBlank()) {
+                // dirty data. ignore
+                continue;
+            }
+            added |= target.add(HotelImage.of(img.getLink().strip(), STRINGS.intern(StringUtils.capitalize(img.getCaption().strip()))));
+        }
+        return added;
+    }
+
+    // returns whether any image was new
+    private static boolean addPatagoniaImages(List<PatagoniaHotelImage> images, Set<HotelImage> target) {
+        if (images == null) {
+            return false;
+        }
+        boolean added = false;
+        for (PatagoniaHotelImage img : images) {
+            if (img == null || img.getDescription() == null || img.getUrl() == null || img.getDescription().isBlank() || img.getUrl().isBlank()) {
+                // dirty data. ignore
+                continue;
+            }
+            added |= target.add(HotelImage.of(img.getUrl().strip(), STRINGS.intern(StringUtils.capitalize(img.getDescription().strip()))));
+        }
+        return added;
+    }
+}
@@ -0,0 +1,89 @@
+package com.codingchallenge.hoteldatamerger.merger;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * StringPool keeps one instance of every value that repeats across the hotels of the catalog, like countries, cities,
+ * image captions and booking conditions. The merge interns these values, so each distinct value is stored once however
+ * many hotels it appears in. It estimates the bytes its values currently save with compact strings: every copy that
+ * was replaced by a value the pool still holds saves the size of that value.
+ */
+public final class StringPool {
+    // the values the pool holds before it starts over, so that values of hotels that are gone do not pile up
+    private static final int MAX_VALUES = 1 << 20;
+    // object header and fields of a String plus the header of its byte array
+    private static final int STRING_OVERHEAD_BYTES = 24 + 16;
+
+    private static final StringPool GLOBAL = new StringPool();
+
+    private final int maxValues;
+    private final Map<String, String> values = new ConcurrentHashMap<>();
+    private final LongAdder interned = new LongAdder();
+    private final LongAdder deduplicated = new LongAdder();
+    // the bytes saved by the values held. starts over with the values
+    private final LongAdder savedBytes = new LongAdder();
+
+    StringPool() {
+        this(MAX_VALUES);
+    }
+
+    StringPool(int maxValues) {
+        this.maxValues = maxValues;
+    }
+
+    public static StringPool global() {
+        return GLOBAL;
+    }
+
+    // the pooled instance of the value. null stays null
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        this.interned.increment();
+        String pooled = this.values.get(value);
+        if (pooled == null) {
+            if (this.values.size() >= this.maxValues) {
+                startOver();
+            }
+            pooled = this.values.putIfAbsent(value, value);
+            if (pooled == null) {
+                return value;
+            }
+        }
+        if (pooled != value) {
+            this.deduplicated.increment();
+            this.savedBytes.add(sizeOf(value));
+        }
+        return pooled;
+    }
+
+    // the copies replaced by the values dropped are no longer saved once the values are pooled again
+    private synchronized void startOver() {
+        if (this.values.size() >= this.maxValues) {
+            this.values.clear();
+            this.savedBytes.reset();
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(this.values.size(), this.interned.sum(), this.deduplicated.sum(), this.savedBytes.sum());
+    }
+
+    // the heap taken by a string, aligned to 8 bytes. latin1 strings take a byte per character, others two
+    private static long sizeOf(String value) {
+        boolean latin1 = true;
+        for (int i = 0; i < value.length() && latin1; i++) {
+            latin1 = value.charAt(i) < 256;
+        }
+        long bytes = STRING_OVERHEAD_BYTES + (latin1 ? value.length() : 2L * value.length());
+        return (bytes + 7) & ~7L;
+    }
+
+    // values is the number of distinct values held. deduplicated is the number of copies ever replaced by a pooled
+    // value. savedBytes is the size of the copies replaced by the values held
+    public record Stats(int values, long interned, long deduplicated, long savedBytes) {
+    }
+}
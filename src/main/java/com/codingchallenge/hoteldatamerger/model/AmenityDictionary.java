@@ -0,0 +1,202 @@
+package com.codingchallenge.hoteldatamerger.model;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/*
+ * AmenityDictionary maps every amenity to a small integer id, so that the amenities of a hotel can be held as a bitset.
+ * Amenities are compared by their letters only, ignoring case, spaces and punctuation, i.e. "BusinessCenter" and
+ * "business center" are the same amenity. The known amenities and their synonyms are matched with a trie built once
+ * at startup. Any other amenity gets the next free id the first time it is seen, so its id depends on the merge order
+ * and is never used to order or to name it.
+ */
+public final class AmenityDictionary {
+    // the display name of each known amenity followed by the synonyms suppliers send for it. the ids follow this order
+    private static final String[][] KNOWN_AMENITIES = {
+            {"WiFi", "wifi", "wireless internet", "wireless"},
+            {"Outdoor pool"},
+            {"Indoor pool"},
+            {"Pool", "swimming pool"},
+            {"Business center", "business centre"},
+            {"Childcare", "child care", "babysitting"},
+            {"Parking", "car park"},
+            {"Bar"},
+            {"Dry cleaning"},
+            {"Breakfast"},
+            {"Concierge"},
+            {"Air conditioning", "aircon", "air conditioner"},
+            {"TV", "television"},
+            {"Coffee machine", "coffee maker"},
+            {"Kettle"},
+            {"Hair dryer", "blow dryer"},
+            {"Iron"},
+            {"Minibar"},
+            {"Bathtub", "tub", "bath"}
+    };
+    // the spellings remembered for fast lookups. spellings beyond this are looked up again every time
+    private static final int MAX_SPELLINGS = 10_000;
+
+    private static final AmenityDictionary GLOBAL = new AmenityDictionary();
+
+    private final TrieNode knownAmenities = new TrieNode();
+    // the display name by id. the known amenities come first
+    private final List<String> displayNames = new CopyOnWriteArrayList<>();
+    // the letters of the amenities that are not known by id, null for the known amenities
+    private final List<String> letters = new CopyOnWriteArrayList<>();
+    private final int knownCount;
+    // the ids of the amenities that are not known, by letters
+    private final Map<String, Integer> otherAmenities = new ConcurrentHashMap<>();
+    private final Map<String, Integer> spellings = new ConcurrentHashMap<>();
+
+    private AmenityDictionary() {
+        for (String[] amenity : KNOWN_AMENITIES) {
+            int id = this.displayNames.size();
+            this.displayNames.add(amenity[0]);
+            this.letters.add(null);
+            for (String synonym : amenity) {
+                this.knownAmenities.insert(synonym, id);
+            }
+        }
+        this.knownCount = this.displayNames.size();
+    }
+
+    public static AmenityDictionary global() {
+        return GLOBAL;
+    }
+
+    // the id of the amenity. -1 if the amenity has no letters
+    public int idOf(String amenity) {
+        if (amenity == null) {
+            return -1;
+        }
+        Integer id = this.spellings.get(amenity);
+        if (id != null) {
+            return id;
+        }
+        id = this.knownAmenities.match(amenity);
+        if (id == null) {
+            String letters = letters(amenity);
+            if (letters.isEmpty()) {
+                return -1;
+            }
+            id = register(letters, StringUtils.capitalize(amenity.strip()));
+        }
+        if (this.spellings.size() < MAX_SPELLINGS) {
+            this.spellings.put(amenity, id);
+        }
+        return id;
+    }
+
+    // the display names of the amenity ids in display order
+    public List<String> displayNames(BitSet ids) {
+        return displayNames(ids.stream().toArray());
+    }
+
+    // the display names of the amenity ids in display order, with the ids given as the words of a bitset
+    public List<String> displayNames(long[] words) {
+        return displayNames(BitSet.valueOf(words).stream().toArray());
+    }
+
+    // the known amenities come first in the order they are listed above. the other amenities follow in the order of
+    // their letters, so that the order does not depend on the order in which the hotels were merged
+    private List<String> displayNames(int[] ids) {
+        List<String> names = new ArrayList<>(ids.length);
+        List<Integer> others = new ArrayList<>();
+        for (int id : ids) {
+            if (id < this.knownCount) {
+                names.add(this.displayNames.get(id));
+            } else {
+                others.add(id);
+            }
+        }
+        others.sort(Comparator.comparing(this.letters::get));
+        for (int id : others) {
+            names.add(this.displayNames.get(id));
+        }
+        return names;
+    }
+
+    // the display name is the spelling the amenity was first seen with and never changes, so that the hotels merged
+    // before and after another spelling turned up display the amenity alike
+    private synchronized int register(String letters, String displayName) {
+        Integer id = this.otherAmenities.get(letters);
+        if (id == null) {
+            id = this.displayNames.size();
+            this.displayNames.add(displayName);
+            this.letters.add(letters);
+            this.otherAmenities.put(letters, id);
+        }
+        return id;
+    }
+
+    private static String letters(String amenity) {
+        StringBuilder sb = new StringBuilder(amenity.length());
+        for (int i = 0; i < amenity.length(); i++) {
+            char c = amenity.charAt(i);
+            if (Character.isAlphabetic(c)) {
+                sb.append(Character.toLowerCase(c));
+            }
+        }
+        return sb.toString();
+    }
+
+    // matches the letters of an amenity against all known synonyms at once, without copying the amenity
+    private static final class TrieNode {
+        private char[] labels = new char[0];
+        private TrieNode[] children = new TrieNode[0];
+        private Integer id;
+
+        private void insert(String synonym, int id) {
+            TrieNode node = this;
+            for (int i = 0; i < synonym.length(); i++) {
+                char c = synonym.charAt(i);
+                if (Character.isAlphabetic(c)) {
+                    node = node.childOrCreate(Character.toLowerCase(c));
+                }
+            }
+            node.id = id;
+        }
+
+        // the id of the synonym with exactly the letters of the amenity, or null
+        private Integer match(String amenity) {
+            TrieNode node = this;
+            for (int i = 0; i < amenity.length() && node != null; i++) {
+                char c = amenity.charAt(i);
+                if (Character.isAlphabetic(c)) {
+                    node = node.child(Character.toLowerCase(c));
+                }
+            }
+            return node == null ? null : node.id;
+        }
+
+        private TrieNode child(char label) {
+            for (int i = 0; i < this.labels.length; i++) {
+                if (this.labels[i] == label) {
+                    return this.children[i];
+                }
+            }
+            return null;
+        }
+
+        private TrieNode childOrCreate(char label) {
+            TrieNode child = child(label);
+            if (child == null) {
+                child = new TrieNode();
+                int size = this.labels.length;
+                this.labels = Arrays.copyOf(this.labels, size + 1);
+                this.children = Arrays.copyOf(this.children, size + 1);
+                this.labels[size] = label;
+                this.children[size] = child;
+            }
+            return child;
+        }
+    }
+}
@@ -1,17 +1,47 @@
 package com.codingchallenge.hoteldatamerger.model;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
-import lombok.Getter;
-import lombok.Setter;
 
+import java.util.BitSet;
 import java.util.List;
 
-@Getter
-@Setter
-public class HotelAmenities {
+/*
+ * HotelAmenities holds the general and room amenities of a hotel as the frozen words of bitsets of AmenityDictionary
+ * ids. It is immutable, and hotels without amenities share EMPTY. The display names are only looked up when the hotel
+ * is serialized.
+ */
+public final class HotelAmenities {
+    private static final long[] NO_WORDS = new long[0];
+
+    public static final HotelAmenities EMPTY = new HotelAmenities(NO_WORDS, NO_WORDS);
+
+    private final long[] general;
+    private final long[] room;
+
+    private HotelAmenities(long[] general, long[] room) {
+        this.general = general;
+        this.room = room;
+    }
+
+    // the amenities with the given ids. the bitsets are copied
+    public static HotelAmenities of(BitSet generalIds, BitSet roomIds) {
+        if (generalIds.isEmpty() && roomIds.isEmpty()) {
+            return EMPTY;
+        }
+        return new HotelAmenities(words(generalIds), words(roomIds));
+    }
+
     @JsonProperty("general")
-    private List<String> general;
+    public List<String> getGeneral() {
+        return AmenityDictionary.global().displayNames(this.general);
+    }
 
     @JsonProperty("room")
-    private List<String> room;
+    public List<String> getRoom() {
+        return AmenityDictionary.global().displayNames(this.room);
+    }
+
+    private static long[] words(BitSet ids) {
+        return ids.isEmpty() ? NO_WORDS : ids.toLongArray();
+    }
 }
@@ -1,33 +1,102 @@
 package com.codingchallenge.hoteldatamerger.model;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
-import lombok.AllArgsConstructor;
 import lombok.Getter;
-import lombok.NoArgsConstructor;
-import lombok.Setter;
 
-import java.util.Objects;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
-@Getter
-@Setter
-@NoArgsConstructor
-@AllArgsConstructor
-public class HotelImage {
+/*
+ * HotelImage is an immutable image of a merged hotel. Two images are the same if they have the same link and the same
+ * description ignoring case and whitespace. The hash of that normalized form is computed once when the image is
+ * created. Images with the same link and description are shared across the whole catalog, see of().
+ */
+public final class HotelImage {
+    // the links the pool holds before it starts over, so that the images of hotels that are gone do not pile up
+    private static final int MAX_POOLED_LINKS = 1 << 20;
+    // the images by link. a link rarely has more than one description
+    private static final Map<String, HotelImage[]> POOL = new ConcurrentHashMap<>();
+
+    @Getter
     @JsonProperty("link")
-    private String link;
+    private final String link;
 
+    @Getter
     @JsonProperty("description")
-    private String description;
+    private final String description;
+
+    private final int hash;
+
+    private HotelImage(String link, String description) {
+        this.link = link;
+        this.description = description;
+        this.hash = 31 * link.hashCode() + normalizedHash(description);
+    }
+
+    // the shared image with exactly this link and description
+    public static HotelImage of(String link, String description) {
+        HotelImage[] images = POOL.get(link);
+        if (images != null) {
+            for (HotelImage image : images) {
+                if (image.description.equals(description)) {
+                    return image;
+                }
+            }
+        }
+        if (POOL.size() >= MAX_POOLED_LINKS) {
+            POOL.clear();
+        }
+        HotelImage image = new HotelImage(link, description);
+        POOL.merge(link, new HotelImage[]{image}, (pooled, added) -> {
+            HotelImage[] merged = Arrays.copyOf(pooled, pooled.length + 1);
+            merged[pooled.length] = added[0];
+            return merged;
+        });
+        return image;
+    }
 
     @Override
     public boolean equals(Object o) {
+        if (this == o) return true;
         if (!(o instanceof HotelImage that)) return false;
-        return getLink().strip().equals(that.getLink())
-                && getDescription().strip().replaceAll("\\s+", "").equalsIgnoreCase(that.getDescription().strip().replaceAll("\\s+", ""));
+        return this.hash == that.hash && this.link.equals(that.link) && equalsNormalized(this.description, that.description);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(getLink(), getDescription());
+        return this.hash;
+    }
+
+    // compares the descriptions ignoring case and whitespace without copying them
+    private static boolean equalsNormalized(String a, String b) {
+        int i = 0;
+        int j = 0;
+        while (true) {
+            while (i < a.length() && Character.isWhitespace(a.charAt(i))) i++;
+            while (j < b.length() && Character.isWhitespace(b.charAt(j))) j++;
+            if (i == a.length() || j == b.length()) {
+                return i == a.length() && j == b.length();
+            }
+            if (normalized(a.charAt(i++)) != normalized(b.charAt(j++))) {
+                return false;
+            }
+        }
+    }
+
+    private static int normalizedHash(String description) {
+        int hash = 0;
+        for (int i = 0; i < description.length(); i++) {
+            char c = description.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                hash = 31 * hash + normalized(c);
+            }
+        }
+        return hash;
+    }
+
+    // the case of a character the way String.equalsIgnoreCase compares it
+    private static char normalized(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
     }
 }
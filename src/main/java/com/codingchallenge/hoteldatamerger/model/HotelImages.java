@@ -1,20 +1,30 @@
 package com.codingchallenge.hoteldatamerger.model;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
-import lombok.Getter;
-import lombok.Setter;
 
+import java.util.Collection;
 import java.util.List;
 
-@Getter
-@Setter
-public class HotelImages {
-    @JsonProperty("rooms")
-    private List<HotelImage> roomImages;
+/*
+ * HotelImages holds the images of a hotel in frozen lists. Hotels without images share EMPTY.
+ */
+public record HotelImages(@JsonProperty("rooms") List<HotelImage> roomImages,
+                          @JsonProperty("site") List<HotelImage> siteImages,
+                          @JsonProperty("amenities") List<HotelImage> amenitiesImages) {
 
-    @JsonProperty("site")
-    private List<HotelImage> siteImages;
+    public static final HotelImages EMPTY = new HotelImages(List.of(), List.of(), List.of());
 
-    @JsonProperty("amenities")
-    private List<HotelImage> amenitiesImages;
+    public HotelImages {
+        roomImages = List.copyOf(roomImages);
+        siteImages = List.copyOf(siteImages);
+        amenitiesImages = List.copyOf(amenitiesImages);
+    }
+
+    public static HotelImages of(Collection<HotelImage> roomImages, Collection<HotelImage> siteImages,
+                                 Collection<HotelImage> amenitiesImages) {
+        if (roomImages.isEmpty() && siteImages.isEmpty() && amenitiesImages.isEmpty()) {
+            return EMPTY;
+        }
+        return new HotelImages(List.copyOf(roomImages), List.copyOf(siteImages), List.copyOf(amenitiesImages));
+    }
 }
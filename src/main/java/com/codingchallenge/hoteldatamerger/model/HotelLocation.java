@@ -1,24 +1,22 @@
 package com.codingchallenge.hoteldatamerger.model;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
-import lombok.Getter;
-import lombok.Setter;
 
-@Getter
-@Setter
-public class HotelLocation {
-    @JsonProperty("lat")
-    private float lat;
+/*
+ * HotelLocation is the location of a hotel. Hotels without any location share EMPTY.
+ */
+public record HotelLocation(@JsonProperty("lat") float lat,
+                            @JsonProperty("lng") float lng,
+                            @JsonProperty("address") String address,
+                            @JsonProperty("city") String city,
+                            @JsonProperty("country") String country) {
 
-    @JsonProperty("lng")
-    private float lng;
+    public static final HotelLocation EMPTY = new HotelLocation(0, 0, null, null, null);
 
-    @JsonProperty("address")
-    private String address;
-
-    @JsonProperty("city")
-    private String city;
-
-    @JsonProperty("country")
-    private String country;
+    public static HotelLocation of(float lat, float lng, String address, String city, String country) {
+        if (lat == 0 && lng == 0 && address == null && city == null && country == null) {
+            return EMPTY;
+        }
+        return new HotelLocation(lat, lng, address, city, country);
+    }
 }
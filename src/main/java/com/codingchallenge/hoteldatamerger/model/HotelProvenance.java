@@ -0,0 +1,72 @@
+package com.codingchallenge.hoteldatamerger.model;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * HotelProvenance reads which suppliers every attribute of a merged hotel was resolved from. The merge records them in
+ * a single int with a bit per supplier for every attribute, so a hotel carries its provenance without any allocation.
+ * The supplier names are only looked up when a response asks for the provenance.
+ */
+public final class HotelProvenance {
+    // the supplier bits of an attribute
+    public static final int ACME = 1;
+    public static final int PAPERFLIES = 1 << 1;
+    public static final int PATAGONIA = 1 << 2;
+
+    public static final int NONE = 0;
+
+    private static final int BITS_PER_ATTRIBUTE = 3;
+    private static final int SUPPLIERS_MASK = (1 << BITS_PER_ATTRIBUTE) - 1;
+    private static final String[] SUPPLIER_NAMES = {"acme", "paperflies", "patagonia"};
+
+    // the attributes in the order they are served
+    public enum Attribute {
+        ID("id"),
+        DESTINATION_ID("destination_id"),
+        NAME("name"),
+        LOCATION("location"),
+        DESCRIPTION("description"),
+        AMENITIES("amenities"),
+        IMAGES("images"),
+        BOOKING_CONDITIONS("booking_conditions");
+
+        private final String jsonName;
+
+        Attribute(String jsonName) {
+            this.jsonName = jsonName;
+        }
+
+        // the provenance with the suppliers added to the attribute
+        public int with(int provenance, int suppliers) {
+            return provenance | suppliers << ordinal() * BITS_PER_ATTRIBUTE;
+        }
+
+        // the supplier bits of the attribute
+        public int suppliers(int provenance) {
+            return provenance >>> ordinal() * BITS_PER_ATTRIBUTE & SUPPLIERS_MASK;
+        }
+    }
+
+    private HotelProvenance() {
+    }
+
+    // the names of the suppliers of every attribute by the json name of the attribute, in the order the attributes
+    // are served. an attribute that no supplier had a value for has no suppliers
+    public static Map<String, List<String>> supplierNames(int provenance) {
+        Map<String, List<String>> names = new LinkedHashMap<>();
+        for (Attribute attribute : Attribute.values()) {
+            int suppliers = attribute.suppliers(provenance);
+            List<String> attributeNames = new ArrayList<>(Integer.bitCount(suppliers));
+            for (int supplier = 0; supplier < SUPPLIER_NAMES.length; supplier++) {
+                if ((suppliers & 1 << supplier) != 0) {
+                    attributeNames.add(SUPPLIER_NAMES[supplier]);
+                }
+            }
+            names.put(attribute.jsonName, attributeNames);
+        }
+        return names;
+    }
+}
@@ -1,35 +1,32 @@
 package com.codingchallenge.hoteldatamerger.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import lombok.Getter;
-import lombok.Setter;
 
 import java.util.List;
 
-@Getter
-@Setter
-public class HotelResult {
-    @JsonProperty("id")
-    private String Id;
-
-    @JsonProperty("destination_id")
-    private int destinationId;
-
-    @JsonProperty("name")
-    private String name;
-
-    @JsonProperty("location")
-    private HotelLocation location;
-
-    @JsonProperty("description")
-    private String description;
-
-    @JsonProperty("amenities")
-    private HotelAmenities amenities;
-
-    @JsonProperty("images")
-    private HotelImages images;
-
-    @JsonProperty("booking_conditions")
-    private List<String> bookingConditions;
+/*
+ * HotelResult is a merged hotel as it is served. It is immutable, so the catalog can hand out the same instance to
+ * every request and keep it across rebuilds. The provenance of the attributes is only served on request, see
+ * HotelProvenance.
+ */
+public record HotelResult(@JsonProperty("id") String id,
+                          @JsonProperty("destination_id") int destinationId,
+                          @JsonProperty("name") String name,
+                          @JsonProperty("location") HotelLocation location,
+                          @JsonProperty("description") String description,
+                          @JsonProperty("amenities") HotelAmenities amenities,
+                          @JsonProperty("images") HotelImages images,
+                          @JsonProperty("booking_conditions") List<String> bookingConditions,
+                          @JsonIgnore int provenance) {
+
+    public HotelResult {
+        bookingConditions = List.copyOf(bookingConditions);
+    }
+
+    // a hotel without provenance
+    public HotelResult(String id, int destinationId, String name, HotelLocation location, String description,
+                       HotelAmenities amenities, HotelImages images, List<String> bookingConditions) {
+        this(id, destinationId, name, location, description, amenities, images, bookingConditions, HotelProvenance.NONE);
+    }
 }
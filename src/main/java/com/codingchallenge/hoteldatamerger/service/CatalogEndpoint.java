@@ -0,0 +1,45 @@
+package com.codingchallenge.hoteldatamerger.service;
+
+import com.codingchallenge.hoteldatamerger.cachemanager.CacheManager;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.ResilienceRegistry;
+import com.codingchallenge.hoteldatamerger.merger.StringPool;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * CatalogEndpoint exposes how the merged hotel catalog is built and served at /actuator/catalog
+ */
+@Component
+@Endpoint(id = "catalog")
+public class CatalogEndpoint {
+
+    private final HotelService hotelService;
+    private final CacheManager cacheManager;
+    private final ResilienceRegistry resilienceRegistry;
+    private final CatalogRefresher catalogRefresher;
+
+    public CatalogEndpoint(HotelService hotelService, CacheManager cacheManager, ResilienceRegistry resilienceRegistry,
+                           CatalogRefresher catalogRefresher) {
+        this.hotelService = hotelService;
+        this.cacheManager = cacheManager;
+        this.resilienceRegistry = resilienceRegistry;
+        this.catalogRefresher = catalogRefresher;
+    }
+
+    @ReadOperation
+    public Map<String, Object> catalog() {
+        Map<String, Object> catalog = new LinkedHashMap<>();
+        catalog.put("catalogRebuilds", this.hotelService.getCatalogRebuildStats());
+        catalog.put("catalogMerges", this.hotelService.getCatalogMergeStats());
+        catalog.put("catalogMatches", this.hotelService.getCatalogMatchStats());
+        catalog.put("catalogStrings", StringPool.global().stats());
+        catalog.put("filteredResultLoads", this.cacheManager.getLoadStats());
+        catalog.put("supplierCircuits", this.resilienceRegistry.stats());
+        catalog.put("supplierRefreshes", this.catalogRefresher.stats());
+        return catalog;
+    }
+}
@@ -0,0 +1,148 @@
+package com.codingchallenge.hoteldatamerger.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/*
+ * CatalogRefresher refreshes every supplier in the background and has the merged catalog rebuilt off the request
+ * path. Each supplier is refreshed on its own interval (suppliers.<name>.refresh.interval), which is jittered so
+ * that the refreshes of several suppliers and instances do not line up.
+ */
+@Component
+public class CatalogRefresher {
+    private static final Logger LOGGER = Logger.getLogger(CatalogRefresher.class.getName());
+
+    private final HotelService hotelService;
+    private final SupplierFetchExecutor supplierFetchExecutor;
+    private final Environment environment;
+    private final Duration defaultInterval;
+    private final double jitter;
+    // only triggers the refreshes. the supplier calls run on the supplier fetch executor
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+            .name("catalog-refresher").daemon().factory());
+    private final Map<String, SupplierRefresh> refreshes = new ConcurrentHashMap<>();
+
+    public CatalogRefresher(HotelService hotelService, SupplierFetchExecutor supplierFetchExecutor, Environment environment,
+                            @Value("${suppliers.refresh.interval}") Duration defaultInterval,
+                            @Value("${suppliers.refresh.jitter}") double jitter) {
+        this.hotelService = hotelService;
+        this.supplierFetchExecutor = supplierFetchExecutor;
+        this.environment = environment;
+        this.defaultInterval = defaultInterval;
+        this.jitter = jitter;
+    }
+
+    // every supplier is refreshed right away so that the catalog is ready as soon as possible
+    @PostConstruct
+    public void start() {
+        for (String supplier : this.hotelService.getSupplierNames()) {
+            String supplierInterval = this.environment.getProperty("suppliers." + supplier + ".refresh.interval");
+            Duration interval = supplierInterval == null ? this.defaultInterval : DurationStyle.detectAndParse(supplierInterval);
+            SupplierRefresh refresh = new SupplierRefresh(supplier, interval);
+            this.refreshes.put(supplier, refresh);
+            schedule(refresh, 0);
+            LOGGER.log(Level.INFO, "Refreshing supplier " + supplier + " every " + interval);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.scheduler.shutdownNow();
+    }
+
+    // returns the refresh state of every supplier sorted by the supplier name
+    public Map<String, Stats> stats() {
+        Map<String, Stats> stats = new TreeMap<>();
+        this.refreshes.forEach((supplier, refresh) -> stats.put(supplier, refresh.stats()));
+        return stats;
+    }
+
+    private void schedule(SupplierRefresh refresh, long delayNanos) {
+        refresh.scheduled(Instant.now().plusNanos(delayNanos));
+        try {
+            this.scheduler.schedule(() -> this.supplierFetchExecutor.submit(refresh.supplier, () -> run(refresh)), delayNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // shutting down
+        }
+    }
+
+    private void run(SupplierRefresh refresh) {
+        long start = System.nanoTime();
+        try {
+            this.hotelService.refreshSupplier(refresh.supplier);
+            refresh.succeeded(System.nanoTime() - start);
+        } catch (RuntimeException e) {
+            refresh.failed(System.nanoTime() - start);
+            LOGGER.log(Level.WARNING, "refresh of supplier " + refresh.supplier + " failed, serving its previous feed", e);
+        } finally {
+            schedule(refresh, jittered(refresh.interval));
+        }
+    }
+
+    // the interval plus or minus up to the jitter ratio of it
+    private long jittered(Duration interval) {
+        double factor = 1 + this.jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+        return (long) (interval.toNanos() * factor);
+    }
+
+    // the refresh state of a single supplier
+    private static final class SupplierRefresh {
+        private final String supplier;
+        private final Duration interval;
+        private Instant lastRefresh;
+        private long lastDurationNanos;
+        private long refreshes;
+        private long failures;
+        private long consecutiveFailures;
+        private Instant nextRefresh;
+
+        private SupplierRefresh(String supplier, Duration interval) {
+            this.supplier = supplier;
+            this.interval = interval;
+        }
+
+        private synchronized void scheduled(Instant nextRefresh) {
+            this.nextRefresh = nextRefresh;
+        }
+
+        private synchronized void succeeded(long durationNanos) {
+            this.lastRefresh = Instant.now();
+            this.lastDurationNanos = durationNanos;
+            this.refreshes++;
+            this.consecutiveFailures = 0;
+        }
+
+        private synchronized void failed(long durationNanos) {
+            this.lastDurationNanos = durationNanos;
+            this.failures++;
+            this.consecutiveFailures++;
+        }
+
+        private synchronized Stats stats() {
+            return new Stats(this.interval, this.lastRefresh, TimeUnit.NANOSECONDS.toMillis(this.lastDurationNanos),
+                    this.refreshes, this.failures, this.consecutiveFailures, this.nextRefresh);
+        }
+    }
+
+    // lastRefresh is the last successful refresh. lastDurationMillis covers the last attempt, successful or not
+    public record Stats(Duration interval, Instant lastRefresh, long lastDurationMillis, long refreshes, long failures,
+                        long consecutiveFailures, Instant nextRefresh) {
+    }
+}
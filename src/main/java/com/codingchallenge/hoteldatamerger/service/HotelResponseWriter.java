@@ -0,0 +1,191 @@
+package com.codingchallenge.hoteldatamerger.service;
+
+import com.codingchallenge.hoteldatamerger.model.HotelProvenance;
+import com.codingchallenge.hoteldatamerger.model.HotelResult;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.hateoas.Link;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriUtils;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * HotelResponseWriter assembles the hotel responses from the JSON of every hotel, rendered to bytes once and kept as
+ * long as the catalog serves the same hotel instance. A response is written by copying those bytes, so a page costs
+ * no serialization of the hotels. Only the base URL of the self links comes from the request, it is written once per
+ * response and the path of every hotel is rendered with its JSON. The bytes are the same as Jackson writes for the
+ * hotels wrapped in an EntityModel with a self link. Responses that ask for the provenance of the attributes get it
+ * after the attributes of every hotel, rendered once per distinct provenance.
+ */
+@Component
+public class HotelResponseWriter {
+    // the hotels the writer holds before it starts over, so that the hotels that left the catalog do not pile up
+    private static final int MAX_FRAGMENTS = 1 << 20;
+
+    private static final byte[] HOTELS_START = ascii("{\"hotels\":[");
+    // a hotel of a page links to itself in a links array, a single hotel is served as hal
+    private static final byte[] LINKS_START = ascii(",\"links\":[{\"rel\":\"self\",\"href\":\"");
+    private static final byte[] LINKS_END = ascii("\"}]}");
+    private static final byte[] HAL_LINKS_START = ascii(",\"_links\":{\"self\":{\"href\":\"");
+    private static final byte[] HAL_LINKS_END = ascii("\"}}}");
+    private static final byte[] NO_PROVENANCE = new byte[0];
+
+    private final ObjectMapper objectMapper;
+    // the rendered hotels by hotel id
+    private final Map<String, HotelFragment> fragments = new ConcurrentHashMap<>();
+    // the rendered provenance fields by provenance. hotels resolved from the same suppliers share one
+    private final Map<Integer, byte[]> provenances = new ConcurrentHashMap<>();
+
+    public HotelResponseWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    // the page as json. hotelsUri is the url of the hotels resource the self links are relative to
+    public byte[] writeHotels(PaginatedHotelResponse response, String hotelsUri) {
+        return writeHotels(response, hotelsUri, false);
+    }
+
+    // the page as json, with the provenance of every hotel if withProvenance
+    public byte[] writeHotels(PaginatedHotelResponse response, String hotelsUri, boolean withProvenance) {
+        byte[] base = quoted(hotelsUri);
+        List<HotelResult> hotels = response.getHotels();
+        HotelFragment[] page = new HotelFragment[hotels.size()];
+        byte[][] provenances = new byte[page.length][];
+        int size = HOTELS_START.length;
+        for (int i = 0; i < page.length; i++) {
+            page[i] = fragment(hotels.get(i));
+            provenances[i] = withProvenance ? provenance(hotels.get(i)) : NO_PROVENANCE;
+            size += (i > 0 ? 1 : 0) + page[i].size(provenances[i], base, LINKS_START, LINKS_END);
+        }
+        byte[] end = pageEnd(response);
+
+        // the response is written into an array of its exact size, so the bytes are copied once
+        byte[] out = new byte[size + end.length];
+        int position = put(out, 0, HOTELS_START);
+        for (int i = 0; i < page.length; i++) {
+            if (i > 0) {
+                out[position++] = ',';
+            }
+            position = page[i].writeTo(out, position, provenances[i], base, LINKS_START, LINKS_END);
+        }
+        put(out, position, end);
+        return out;
+    }
+
+    // the hotel as hal json
+    public byte[] writeHotel(HotelResult hotel, String hotelsUri) {
+        return writeHotel(hotel, hotelsUri, false);
+    }
+
+    // the hotel as hal json, with its provenance if withProvenance
+    public byte[] writeHotel(HotelResult hotel, String hotelsUri, boolean withProvenance) {
+        byte[] base = quoted(hotelsUri);
+        HotelFragment fragment = fragment(hotel);
+        byte[] provenance = withProvenance ? provenance(hotel) : NO_PROVENANCE;
+        byte[] out = new byte[fragment.size(provenance, base, HAL_LINKS_START, HAL_LINKS_END)];
+        fragment.writeTo(out, 0, provenance, base, HAL_LINKS_START, HAL_LINKS_END);
+        return out;
+    }
+
+    // the number of hotels rendered so far
+    public int renderedHotels() {
+        return this.fragments.size();
+    }
+
+    // the rest of the page after the hotels
+    private byte[] pageEnd(PaginatedHotelResponse response) {
+        StringBuilder end = new StringBuilder("],\"totalCount\":").append(response.getTotalCount())
+                .append(",\"limit\":").append(response.getLimit())
+                .append(",\"offset\":").append(response.getOffset())
+                .append(",\"next\":").append(link(response.getNext()))
+                .append(",\"prev\":").append(link(response.getPrev()));
+        if (response.isPartial()) {
+            end.append(",\"partial\":true");
+        }
+        return end.append('}').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private String link(Link link) {
+        if (link == null) {
+            return "null";
+        }
+        try {
+            return this.objectMapper.writeValueAsString(link);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // the provenance field of the hotel, starting with the comma that separates it from the attributes
+    private byte[] provenance(HotelResult hotel) {
+        return this.provenances.computeIfAbsent(hotel.provenance(), provenance -> {
+            try {
+                return (",\"provenance\":" + this.objectMapper.writeValueAsString(HotelProvenance.supplierNames(provenance)))
+                        .getBytes(StandardCharsets.UTF_8);
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // the rendered hotel. a hotel replaced by a rebuild is a new instance and rendered again
+    private HotelFragment fragment(HotelResult hotel) {
+        HotelFragment fragment = this.fragments.get(hotel.id());
+        if (fragment != null && fragment.hotel() == hotel) {
+            return fragment;
+        }
+        try {
+            byte[] json = this.objectMapper.writeValueAsBytes(hotel);
+            // the links are appended to the object, so its closing brace is left out
+            fragment = new HotelFragment(hotel, Arrays.copyOf(json, json.length - 1),
+                    quoted("/" + UriUtils.encodePathSegment(hotel.id(), StandardCharsets.UTF_8)));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (this.fragments.size() >= MAX_FRAGMENTS) {
+            this.fragments.clear();
+        }
+        this.fragments.put(hotel.id(), fragment);
+        return fragment;
+    }
+
+    // the value escaped as the content of a json string
+    private static byte[] quoted(String value) {
+        return JsonStringEncoder.getInstance().quoteAsUTF8(value);
+    }
+
+    private static int put(byte[] target, int position, byte[] bytes) {
+        System.arraycopy(bytes, 0, target, position, bytes.length);
+        return position + bytes.length;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    // json is the json of the hotel without its closing brace. selfPath is the path of its self link below the hotels
+    private record HotelFragment(HotelResult hotel, byte[] json, byte[] selfPath) {
+
+        private int size(byte[] provenance, byte[] base, byte[] linksStart, byte[] linksEnd) {
+            return this.json.length + provenance.length + linksStart.length + base.length + this.selfPath.length + linksEnd.length;
+        }
+
+        // writes the hotel with its provenance field, if any, and its self link at the position. returns the position
+        // after it
+        private int writeTo(byte[] target, int position, byte[] provenance, byte[] base, byte[] linksStart, byte[] linksEnd) {
+            position = put(target, position, this.json);
+            position = put(target, position, provenance);
+            position = put(target, position, linksStart);
+            position = put(target, position, base);
+            position = put(target, position, this.selfPath);
+            return put(target, position, linksEnd);
+        }
+    }
+}
@@ -1,53 +1,85 @@
 package com.codingchallenge.hoteldatamerger.service;
 
 import com.codingchallenge.hoteldatamerger.cachemanager.CacheManager;
+import com.codingchallenge.hoteldatamerger.cachemanager.MergedResults;
+import com.codingchallenge.hoteldatamerger.cachemanager.SingleFlight;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.Deadline;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.HotelQuery;
 import com.codingchallenge.hoteldatamerger.hotelresultcollector.HotelResultCollector;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.ResilienceRegistry;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.SupplierFetchException;
 import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.SupplierHotel;
-import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.acme.AcmeHotelResult;
-import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.paperflies.PaperfliesHotelResult;
-import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.patagonia.PatagoniaHotelResult;
 import com.codingchallenge.hoteldatamerger.merger.HotelAttributeResolver;
+import com.codingchallenge.hoteldatamerger.merger.HotelMatcher;
+import com.codingchallenge.hoteldatamerger.merger.HotelMergeMemo;
 import com.codingchallenge.hoteldatamerger.merger.HotelResultMergeProcessor;
-import com.codingchallenge.hoteldatamerger.merger.SimpleHotelAttributeResolver;
+import com.codingchallenge.hoteldatamerger.merger.SinglePassHotelAttributeResolver;
 import com.codingchallenge.hoteldatamerger.model.HotelResult;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 @Service
 public class HotelService {
     private static final Logger LOGGER = Logger.getLogger(HotelService.class.getName());
-    private static final int THREAD_POOL_SIZE = 5;
+    private static final String CATALOG_KEY = "catalog";
 
-    private final List<HotelResultCollector> hotelResultCollectors;
-    private final ExecutorService threadPool;
+    // the suppliers in slot order
+    private final List<SupplierAdapter<?>> suppliers;
+    private final SupplierFetchExecutor supplierFetchExecutor;
     // read-through cache to cache results
     private final CacheManager cacheManager;
+    private final SingleFlight<String, MergedResults> catalogRebuilds;
+    // the catalog rebuilds only merge the hotels whose supplier records changed
+    private final HotelMergeMemo catalogMerges;
+    // joins the hotels that suppliers list under different ids
+    private final HotelMatcher hotelMatcher;
+    // the last refreshed feed of each supplier by slot and the catalog merged from them. see CatalogRefresher
+    private final AtomicReferenceArray<SupplierPartition<?>> supplierSnapshots;
+    private volatile Catalog catalog;
 
-    public HotelService(List<HotelResultCollector> hotelResultCollectors, CacheManager cacheManager) {
-        this.hotelResultCollectors = hotelResultCollectors;
+    public HotelService(List<HotelResultCollector<? extends SupplierHotel>> hotelResultCollectors, CacheManager cacheManager,
+                        SupplierFetchExecutor supplierFetchExecutor, ResilienceRegistry resilienceRegistry,
+                        @Value("${catalog.merge.parallelism}") int catalogMergeParallelism,
+                        @Value("${catalog.matching.threshold}") double catalogMatchingThreshold,
+                        @Value("${catalog.matching.max-distance-meters}") double catalogMatchingMaxDistanceMeters) {
+        this.suppliers = new ArrayList<>();
+        for (HotelResultCollector<? extends SupplierHotel> hotelResultCollector : hotelResultCollectors) {
+            this.suppliers.add(SupplierAdapter.of(this.suppliers.size(), hotelResultCollector, resilienceRegistry));
+        }
+        this.supplierSnapshots = new AtomicReferenceArray<>(this.suppliers.size());
         this.cacheManager = cacheManager;
-        this.threadPool = Executors.newFixedThreadPool(THREAD_POOL_SIZE); // limit the number of threads created by using a thread pool
+        this.catalogRebuilds = new SingleFlight<>();
+        this.catalogMerges = new HotelMergeMemo(catalogMergeParallelism);
+        this.hotelMatcher = new HotelMatcher(catalogMatchingThreshold, catalogMatchingMaxDistanceMeters);
+        this.supplierFetchExecutor = supplierFetchExecutor;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.catalogMerges.shutdown();
     }
 
     public PaginatedHotelResponse getHotels(List<String> destinationIDs, List<String> hotelIDs, int limit, int offset) {
-        List<HotelResult> result = this.cacheManager.getFilteredResults(destinationIDs, hotelIDs);
-        if (result == null) {
-            // cache miss. re-cache in the sync flow for simplicity
-            result = getAllMergedHotels().stream()
-                    .filter(hotel -> (destinationIDs == null || destinationIDs.isEmpty() || destinationIDs.contains(String.valueOf(hotel.getDestinationId()))) &&
-                            (hotelIDs == null || hotelIDs.isEmpty() || hotelIDs.contains(hotel.getId())))
-                    .toList();
-            this.cacheManager.addFilteredResult(destinationIDs, hotelIDs, result);
-        }
+        return getHotels(destinationIDs, hotelIDs, limit, offset, Deadline.NONE);
+    }
+
+    // suppliers that do not answer before the deadline are left out and the response is marked as partial
+    public PaginatedHotelResponse getHotels(List<String> destinationIDs, List<String> hotelIDs, int limit, int offset, Deadline deadline) {
+        MergedResults mergedResults = getFilteredResults(destinationIDs, hotelIDs, deadline);
+        List<HotelResult> result = mergedResults.hotels();
 
         // Paginate the result manually using subList
         int start = Math.min(offset, result.size());
@@ -56,6 +88,7 @@ public class HotelService {
 
         // Use custom pagination for simplicity
         PaginatedHotelResponse response = new PaginatedHotelResponse(paginatedResults, result.size(), limit, offset);
+        response.setPartial(mergedResults.partial());
 
         int totalCount = result.size();
         if (end < totalCount) {
@@ -69,15 +102,7 @@ public class HotelService {
     }
 
     public HotelResult getHotelById(String hotelID) {
-        List<String> hotelIDs = List.of(hotelID);
-        List<HotelResult> result = this.cacheManager.getFilteredResults(new ArrayList<>(), hotelIDs);
-        if (result == null) {
-            // cache miss. re-cache in the sync flow for simplicity
-            result = getAllMergedHotels().stream()
-                    .filter(hotel -> hotelIDs.contains(hotel.getId()))
-                    .toList();
-            this.cacheManager.addFilteredResult(new ArrayList<>(), hotelIDs, result);
-        }
+        List<HotelResult> result = findHotelById(hotelID, Deadline.NONE).hotels();
         if (result.isEmpty()) {
             // no hotel with the provided id
             return null;
@@ -85,91 +110,263 @@ public class HotelService {
         return result.getFirst();
     }
 
+    // the hotel with the provided id, if any. a partial result may miss the hotel or some of its attributes
+    public MergedResults findHotelById(String hotelID, Deadline deadline) {
+        return getFilteredResults(new ArrayList<>(), List.of(hotelID), deadline);
+    }
+
+    public SingleFlight.Stats getCatalogRebuildStats() {
+        return this.catalogRebuilds.stats();
+    }
+
+    public HotelMergeMemo.Stats getCatalogMergeStats() {
+        return this.catalogMerges.stats();
+    }
+
+    public HotelMatcher.Stats getCatalogMatchStats() {
+        return this.hotelMatcher.stats();
+    }
+
+    public List<String> getSupplierNames() {
+        return this.suppliers.stream().map(SupplierAdapter::supplierName).toList();
+    }
+
+    // fetches the whole feed of the supplier and rebuilds the catalog with it. the previous feed of the supplier is
+    // kept if the supplier cannot be reached
+    public void refreshSupplier(String supplierName) {
+        SupplierAdapter<?> supplier = this.suppliers.stream()
+                .filter(adapter -> adapter.supplierName().equals(supplierName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("unknown supplier " + supplierName));
+        this.supplierSnapshots.set(supplier.slot(), supplier.refresh());
+        rebuildCatalog();
+    }
+
+    // merges the last feed of every supplier. suppliers that were never refreshed make the catalog partial
+    private synchronized void rebuildCatalog() {
+        SupplierPartition<?>[] partitions = new SupplierPartition<?>[this.suppliers.size()];
+        for (int slot = 0; slot < partitions.length; slot++) {
+            partitions[slot] = this.supplierSnapshots.get(slot);
+        }
+        SupplierPartition.Joined joined = SupplierPartition.join(partitions, this.hotelMatcher);
+        MergedResults results = mergeCatalog(new SupplierResults(joined.hotels(), joined.aliases(), missingSuppliers(partitions)));
+        this.catalog = new Catalog(results, servedAliases(joined, results.hotels()));
+        HotelMergeMemo.Stats mergeStats = this.catalogMerges.stats();
+        LOGGER.log(Level.INFO, "catalog rebuilt. " + mergeStats.lastMerged() + " hotels merged, " + mergeStats.lastReused() + " reused");
+        // the cached results were filtered from the previous catalog
+        this.cacheManager.invalidateAll();
+    }
+
+    private MergedResults getFilteredResults(List<String> destinationIDs, List<String> requestedHotelIDs, Deadline deadline) {
+        List<String> hotelIDs = resolveAliases(requestedHotelIDs);
+        List<HotelResult> result = this.cacheManager.getFilteredResults(destinationIDs, hotelIDs);
+        if (result != null) {
+            return MergedResults.complete(result);
+        }
+        // cache miss. re-cache in the sync flow for simplicity. concurrent misses for the same filter share the load
+        HotelQuery query = HotelQuery.of(destinationIDs, hotelIDs);
+        return this.cacheManager.loadFilteredResults(destinationIDs, hotelIDs, () -> getMergedHotels(query, deadline)
+                .filter(hotel -> (destinationIDs == null || destinationIDs.isEmpty() || destinationIDs.contains(String.valueOf(hotel.destinationId()))) &&
+                        (hotelIDs == null || hotelIDs.isEmpty() || hotelIDs.contains(hotel.id()))), deadline);
+    }
+
+    // the duplicates are grouped under the smallest id of their group, but the merged hotel is served under the id
+    // the resolver picks by its priority. every other id of the group is mapped to the served id, including the id of
+    // the group. a group whose merge was invalid is not served and has no aliases
+    private static Map<String, String> servedAliases(SupplierPartition.Joined joined, List<HotelResult> hotels) {
+        if (joined.aliases().isEmpty()) {
+            return Map.of();
+        }
+        // the group of every id of a merged group
+        Map<String, String> groups = new HashMap<>();
+        for (String groupID : joined.aliases().values()) {
+            for (SupplierHotel record : joined.hotels().get(groupID)) {
+                groups.put(record.getID(), groupID);
+            }
+        }
+        Map<String, String> servedIDs = new HashMap<>();
+        for (HotelResult hotel : hotels) {
+            String groupID = groups.get(hotel.id());
+            if (groupID != null) {
+                servedIDs.put(groupID, hotel.id());
+            }
+        }
+        Map<String, String> aliases = new HashMap<>();
+        groups.forEach((hotelID, groupID) -> {
+            String servedID = servedIDs.get(groupID);
+            if (servedID != null && !servedID.equals(hotelID)) {
+                aliases.put(hotelID, servedID);
+            }
+        });
+        return aliases;
+    }
+
+    // a hotel id that was merged into another hotel is served as that hotel, like by the catalog it was merged in.
+    // before the catalog was built, the suppliers are only asked for the requested hotels and their duplicates under
+    // other ids are not known yet
+    private List<String> resolveAliases(List<String> hotelIDs) {
+        Catalog catalog = this.catalog;
+        if (hotelIDs == null || hotelIDs.isEmpty() || catalog == null || catalog.aliases().isEmpty()) {
+            return hotelIDs;
+        }
+        List<String> resolved = new ArrayList<>(hotelIDs.size());
+        for (String hotelID : hotelIDs) {
+            String resolvedID = catalog.aliases().getOrDefault(hotelID, hotelID);
+            if (!resolved.contains(resolvedID)) {
+                resolved.add(resolvedID);
+            }
+        }
+        return resolved;
+    }
+
+    // until the catalog was built once, a query for specific hotels or destinations only asks the suppliers for those,
+    // so that the work is proportional to the result instead of the catalog
+    private MergedResults getMergedHotels(HotelQuery query, Deadline deadline) {
+        Catalog catalog = this.catalog;
+        if (catalog != null) {
+            // the catalog is refreshed ahead in the background. the request does not wait for any supplier
+            return catalog.results();
+        }
+        if (query.isAll()) {
+            return getAllMergedHotels(deadline);
+        }
+        return mergeHotels(collectHotelResultsFromSuppliers(query, deadline));
+    }
+
+    // concurrent cache misses share a single supplier fan-out and merge instead of rebuilding the catalog each.
+    // the suppliers are asked with the deadline of the caller that started the rebuild. a caller joining it waits
+    // only until its own deadline and is served an empty partial result past it
+    private MergedResults getAllMergedHotels(Deadline deadline) {
+        return this.catalogRebuilds.executeAndWait(CATALOG_KEY, () -> mergeCatalog(collectHotelResultsFromSuppliers(HotelQuery.ALL, deadline)),
+                deadline.remainingNanos(), MergedResults::timedOut);
+    }
+
+    // merges the whole catalog, reusing the previous merge of the hotels whose supplier records did not change
+    private MergedResults mergeCatalog(SupplierResults supplierResults) {
+        List<HotelResult> resultList = this.catalogMerges.mergeAll(supplierResults.hotels(), HotelService::mergeHotel);
+        return new MergedResults(resultList, !supplierResults.missingSuppliers().isEmpty());
+    }
+
     // converts supplier specific hotel results to a common format by merging
-    private List<HotelResult> getAllMergedHotels() {
-        // map to collect hotel ID and all supplier hotels for the same hotel id
-        Map<String, List<SupplierHotel>> hotelIDSupplierHotelMap = collectHotelResultsFromSuppliers();
+    private MergedResults mergeHotels(SupplierResults supplierResults) {
         // collect the merged hotel results
         List<HotelResult> resultList = new ArrayList<>();
 
         // merge hotel based on their id and based on the rule processor
-        for (Map.Entry<String, List<SupplierHotel>> entry : hotelIDSupplierHotelMap.entrySet()) {
-            // iteration happens on the same hotel id but with different providers. i.e. hotel_id and destination_id same for all hotels
-            try {
-                HotelAttributeResolver resolver = new SimpleHotelAttributeResolver(entry.getValue());
-                HotelResultMergeProcessor processor = new HotelResultMergeProcessor(resolver);
-
-                HotelResult result = processor.mergeDetails();
-                if (result.getName().isBlank() || result.getId().isBlank() || result.getDestinationId() == -1) {
-                    // invalid result. skip
-                    continue;
-                }
+        for (List<SupplierHotel> supplierHotels : supplierResults.hotels().values()) {
+            HotelResult result = mergeHotel(supplierHotels);
+            if (result != null) {
                 resultList.add(result);
-            } catch (Exception e) {
-                LOGGER.log(Level.SEVERE, "error occurred while resolving attributes", e);
             }
         }
 
-        return resultList;
+        return new MergedResults(resultList, !supplierResults.missingSuppliers().isEmpty());
+    }
+
+    // merges the hotels of different providers with the same hotel id. i.e. hotel_id and destination_id same for all
+    // hotels. null if the merged hotel is invalid
+    private static HotelResult mergeHotel(List<SupplierHotel> supplierHotels) {
+        try {
+            HotelAttributeResolver resolver = new SinglePassHotelAttributeResolver(supplierHotels);
+            HotelResultMergeProcessor processor = new HotelResultMergeProcessor(resolver);
+
+            HotelResult result = processor.mergeDetails();
+            if (result.name().isBlank() || result.id().isBlank() || result.destinationId() == -1) {
+                // invalid result. skip
+                return null;
+            }
+            return result;
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "error occurred while resolving attributes", e);
+            return null;
+        }
     }
 
     // collect hotels from different suppliers
     Map<String, List<SupplierHotel>> collectHotelResultsFromSuppliers() {
-        // Map to collect hotel results parallel based on the hotel ID.
-        Map<String, List<SupplierHotel>> resultsMap = new ConcurrentHashMap<>();
+        return collectHotelResultsFromSuppliers(HotelQuery.ALL);
+    }
+
+    // collect the hotels matching the query from different suppliers
+    Map<String, List<SupplierHotel>> collectHotelResultsFromSuppliers(HotelQuery query) {
+        return collectHotelResultsFromSuppliers(query, Deadline.NONE).hotels();
+    }
+
+    // collect the hotels matching the query from the suppliers that answer before the deadline
+    SupplierResults collectHotelResultsFromSuppliers(HotelQuery query, Deadline deadline) {
+        // each supplier fetches into its own partition, which is only read once the supplier finished
+        SupplierPartition<?>[] fetched = new SupplierPartition<?>[this.suppliers.size()];
 
         // Execute requests in parallel
         List<CompletableFuture<Void>> futures = new ArrayList<>();
 
-        for (HotelResultCollector resultCollector : this.hotelResultCollectors) {
+        for (SupplierAdapter<?> supplier : this.suppliers) {
             // create futures to execute in parallel
-            CompletableFuture<Void> future = CompletableFuture.supplyAsync(() -> {
-                try {
-                    return resultCollector.getAllHotels();
-                } catch (Exception e) {
-                    LOGGER.log(Level.SEVERE, "error occurred while querying supplier", e);
-                }
-                return null;
-            }, this.threadPool).thenAccept(responseHotelsList -> {
-                if (responseHotelsList != null && !responseHotelsList.isEmpty()) {
-                    Object result = responseHotelsList.getFirst(); // check the type of the first result
-
-                    // collect the results based on result type
-                    switch (result) {
-                        case AcmeHotelResult _ -> {
-                            // Add AcmeHotelResults to the map
-                            for (Object hotelResult : responseHotelsList) {
-                                AcmeHotelResult acmeHotelResult = (AcmeHotelResult) hotelResult;
-                                resultsMap.computeIfAbsent(acmeHotelResult.getID(), _ -> new ArrayList<>()).add(acmeHotelResult);
-                            }
-                        }
-                        case PaperfliesHotelResult _ -> {
-                            // Add PaperfliesHotelResults to the map
-                            for (Object hotelResult : responseHotelsList) {
-                                PaperfliesHotelResult paperfliesHotelResult = (PaperfliesHotelResult) hotelResult;
-                                resultsMap.computeIfAbsent(paperfliesHotelResult.getID(), _ -> new ArrayList<>()).add(paperfliesHotelResult);
-                            }
-                        }
-                        case PatagoniaHotelResult _ -> {
-                            // Add PatagoniaHotelResults to the map
-                            for (Object hotelResult : responseHotelsList) {
-                                PatagoniaHotelResult patagoniaHotelResult = (PatagoniaHotelResult) hotelResult;
-                                resultsMap.computeIfAbsent(patagoniaHotelResult.getID(), _ -> new ArrayList<>()).add(patagoniaHotelResult);
-                            }
-                        }
-                        case null, default -> {
-                            LOGGER.log(Level.WARNING, "unknown response object");
-                        }
-                    }
+            CompletableFuture<Void> future = this.supplierFetchExecutor.submit(supplier.supplierName(), () -> {
+                SupplierPartition<?> partition = supplier.fetch(query, deadline);
+                if (deadline.isExpired()) {
+                    // too late. the request is merged without this supplier
+                    throw new SupplierFetchException("supplier " + supplier.supplierName() + " answered after the request deadline");
                 }
+                fetched[supplier.slot()] = partition;
             });
 
             futures.add(future);
         }
 
-        // Wait for all requests to complete
-        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        // Wait for the requests to complete, but no longer than the deadline
+        awaitSuppliers(futures, deadline);
+
+        // only the partitions of the suppliers that completed in time are joined. a supplier that is still running
+        // after the cancellation must not be read
+        SupplierPartition<?>[] partitions = new SupplierPartition<?>[fetched.length];
+        for (int slot = 0; slot < partitions.length; slot++) {
+            CompletableFuture<Void> future = futures.get(slot);
+            if (future.isDone() && !future.isCompletedExceptionally()) {
+                partitions[slot] = fetched[slot];
+            }
+        }
+        List<String> missingSuppliers = missingSuppliers(partitions);
+        if (!missingSuppliers.isEmpty()) {
+            LOGGER.log(Level.WARNING, "merging without suppliers " + missingSuppliers + " that did not answer in time");
+        }
+
+        SupplierPartition.Joined joined = SupplierPartition.join(partitions, this.hotelMatcher);
+        return new SupplierResults(joined.hotels(), joined.aliases(), missingSuppliers);
+    }
+
+    private List<String> missingSuppliers(SupplierPartition<?>[] partitions) {
+        List<String> missingSuppliers = new ArrayList<>();
+        for (SupplierAdapter<?> supplier : this.suppliers) {
+            if (partitions[supplier.slot()] == null) {
+                missingSuppliers.add(supplier.supplierName());
+            }
+        }
+        return missingSuppliers;
+    }
+
+    // the outstanding fetches are cancelled once the deadline passed or the waiting request was interrupted, e.g. by
+    // a client disconnect
+    private static void awaitSuppliers(List<CompletableFuture<Void>> futures, Deadline deadline) {
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            LOGGER.log(Level.WARNING, "request deadline passed while querying suppliers");
+        } catch (InterruptedException e) {
+            LOGGER.log(Level.WARNING, "request was cancelled while querying suppliers");
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // supplier failures are handled per supplier
+        }
+        futures.forEach(future -> future.cancel(true));
+    }
+
+    // the supplier hotels grouped by hotel id, the ids of the duplicates mapped to the id they were grouped under, and
+    // the suppliers that did not answer in time
+    record SupplierResults(Map<String, List<SupplierHotel>> hotels, Map<String, String> aliases, List<String> missingSuppliers) {
+    }
 
-        return resultsMap;
+    // the merged catalog and the ids of the hotels merged into another hotel, mapped to the id that hotel is served under
+    private record Catalog(MergedResults results, Map<String, String> aliases) {
     }
 }
@@ -2,35 +2,33 @@ package com.codingchallenge.hoteldatamerger.service;
 
 import com.codingchallenge.hoteldatamerger.HotelController;
 import com.codingchallenge.hoteldatamerger.model.HotelResult;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Getter;
 import lombok.Setter;
-import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import java.util.List;
 
+/*
+ * PaginatedHotelResponse is a page of hotels. It is written by HotelResponseWriter, which links every hotel to itself.
+ */
 @Getter
 @Setter
 public class PaginatedHotelResponse {
-    private List<EntityModel<HotelResult>> hotels;
+    private List<HotelResult> hotels;
     private int totalCount;
     private int limit;
     private int offset;
     private Link next;
     private Link prev;
+    // some suppliers did not answer before the request deadline. only serialized if set
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    private boolean partial;
 
     public PaginatedHotelResponse(List<HotelResult> hotels, int totalCount, int limit, int offset) {
-        // this loops runs only upto the max page size
-        this.hotels = hotels.stream()
-                .map(hotelResult -> {
-                    EntityModel<HotelResult> hotelModel = EntityModel.of(hotelResult);
-                    hotelModel.add(WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(HotelController.class)
-                            .getHotelById(hotelResult.getId())).withSelfRel()); // add self link to navigate to individual hotel
-                    return hotelModel;
-                })
-                .toList();
-
+        this.hotels = hotels;
         this.totalCount = totalCount;
         this.limit = limit;
         this.offset = offset;
@@ -41,7 +39,7 @@ public class PaginatedHotelResponse {
         int nextOffset = offset + limit;
         if (nextOffset < totalCount) {
             this.next = WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(HotelController.class)
-                            .getHotels(destinationIDs, hotelIDs, limit, nextOffset))
+                            .getHotels(destinationIDs, hotelIDs, limit, nextOffset, List.of(), null))
                     .withRel("next");
         }
     }
@@ -51,8 +49,24 @@ public class PaginatedHotelResponse {
         int prevOffset = offset - limit;
         if (prevOffset >= 0) {
             this.prev = WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(HotelController.class)
-                            .getHotels(destinationIDs, hotelIDs, limit, prevOffset))
+                            .getHotels(destinationIDs, hotelIDs, limit, prevOffset, List.of(), null))
                     .withRel("prev");
         }
     }
+
+    // adds the include options of the request to the next and previous page links, so that every page includes the same
+    public void includeInLinks(List<String> include) {
+        if (include.isEmpty()) {
+            return;
+        }
+        this.next = include(this.next, include);
+        this.prev = include(this.prev, include);
+    }
+
+    private static Link include(Link link, List<String> include) {
+        if (link == null) {
+            return null;
+        }
+        return Link.of(UriComponentsBuilder.fromUriString(link.getHref()).queryParam("include", include).toUriString(), link.getRel());
+    }
 }
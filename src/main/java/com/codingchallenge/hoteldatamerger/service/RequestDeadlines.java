@@ -0,0 +1,50 @@
+package com.codingchallenge.hoteldatamerger.service;
+
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.Deadline;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/*
+ * RequestDeadlines decides how long a request may wait for the suppliers. Clients can ask for another deadline
+ * with the X-Request-Deadline-Millis header, which is capped at the configured max.
+ */
+@Component
+public class RequestDeadlines {
+    private static final Logger LOGGER = Logger.getLogger(RequestDeadlines.class.getName());
+
+    public static final String DEADLINE_HEADER = "X-Request-Deadline-Millis";
+    public static final String PARTIAL_RESULT_HEADER = "X-Partial-Result";
+
+    private final Duration defaultDeadline;
+    private final Duration maxDeadline;
+
+    public RequestDeadlines(@Value("${hotels.deadline.default}") Duration defaultDeadline, @Value("${hotels.deadline.max}") Duration maxDeadline) {
+        this.defaultDeadline = defaultDeadline;
+        this.maxDeadline = maxDeadline;
+    }
+
+    // starts the deadline of a request that just arrived
+    public Deadline start(String requestedMillis) {
+        return Deadline.after(budget(requestedMillis));
+    }
+
+    Duration budget(String requestedMillis) {
+        if (requestedMillis == null || requestedMillis.isBlank()) {
+            return this.defaultDeadline;
+        }
+        try {
+            long millis = Long.parseLong(requestedMillis.trim());
+            if (millis > 0) {
+                return Duration.ofMillis(Math.min(millis, this.maxDeadline.toMillis()));
+            }
+        } catch (NumberFormatException ignored) {
+            // fall through to the default deadline
+        }
+        LOGGER.log(Level.WARNING, "ignoring invalid " + DEADLINE_HEADER + " header: " + requestedMillis);
+        return this.defaultDeadline;
+    }
+}
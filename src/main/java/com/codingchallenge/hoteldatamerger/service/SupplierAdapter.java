@@ -0,0 +1,63 @@
+package com.codingchallenge.hoteldatamerger.service;
+
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.Deadline;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.HotelQuery;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.HotelResultCollector;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.ResilienceRegistry;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.ResilientHotelResultCollector;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.SupplierHotel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/*
+ * SupplierAdapter plugs a supplier collector into the catalog. Every supplier owns a slot, which is the position of its
+ * records in the merge input, and fetches into its own partition. A new supplier only needs a HotelResultCollector of
+ * its SupplierHotel type.
+ */
+final class SupplierAdapter<T extends SupplierHotel> {
+    private static final Logger LOGGER = Logger.getLogger(SupplierAdapter.class.getName());
+
+    private final int slot;
+    private final ResilientHotelResultCollector<T> collector;
+
+    private SupplierAdapter(int slot, ResilientHotelResultCollector<T> collector) {
+        this.slot = slot;
+        this.collector = collector;
+    }
+
+    // every supplier call goes through its circuit breaker
+    static <T extends SupplierHotel> SupplierAdapter<T> of(int slot, HotelResultCollector<T> collector, ResilienceRegistry resilienceRegistry) {
+        return new SupplierAdapter<>(slot, resilienceRegistry.register(collector));
+    }
+
+    int slot() {
+        return this.slot;
+    }
+
+    String supplierName() {
+        return this.collector.getSupplierName();
+    }
+
+    // the hotels matching the query. a failing supplier fails the fetch, so that it is reported missing instead of
+    // the hotels it sent until it failed being served and cached as its whole answer
+    SupplierPartition<T> fetch(HotelQuery query, Deadline deadline) {
+        List<T> hotels = new ArrayList<>();
+        try {
+            this.collector.streamHotels(query, deadline, hotels::add);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "error occurred while querying supplier", e);
+            throw e;
+        }
+        return new SupplierPartition<>(this.slot, hotels);
+    }
+
+    // the whole feed. fails instead of handing over a stale or incomplete feed
+    SupplierPartition<T> refresh() {
+        List<T> hotels = new ArrayList<>();
+        this.collector.refreshAllHotels(hotels::add);
+        return new SupplierPartition<>(this.slot, hotels);
+    }
+}
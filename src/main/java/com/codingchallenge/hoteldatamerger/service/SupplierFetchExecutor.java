@@ -0,0 +1,91 @@
+package com.codingchallenge.hoteldatamerger.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/*
+ * SupplierFetchExecutor runs the supplier fetches of a catalog rebuild in parallel.
+ * Fetches mostly block on I/O, so by default every fetch runs on its own virtual thread and a per supplier semaphore
+ * caps the concurrent fetches instead of a pool size. A fixed size platform thread pool is available as well.
+ */
+@Component
+public class SupplierFetchExecutor {
+    private static final Logger LOGGER = Logger.getLogger(SupplierFetchExecutor.class.getName());
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    public enum Mode {
+        VIRTUAL,
+        PLATFORM
+    }
+
+    private final ExecutorService executor;
+    private final int maxConcurrentFetchesPerSupplier;
+    private final Map<Object, Semaphore> supplierPermits = new ConcurrentHashMap<>();
+
+    public SupplierFetchExecutor(
+            @Value("${suppliers.executor.mode}") Mode mode,
+            @Value("${suppliers.executor.platform-pool-size}") int platformPoolSize,
+            @Value("${suppliers.executor.max-concurrent-fetches-per-supplier}") int maxConcurrentFetchesPerSupplier) {
+
+        this.maxConcurrentFetchesPerSupplier = maxConcurrentFetchesPerSupplier;
+        this.executor = switch (mode) {
+            case VIRTUAL -> Executors.newVirtualThreadPerTaskExecutor();
+            case PLATFORM -> Executors.newFixedThreadPool(platformPoolSize); // limit the number of threads created by using a thread pool
+        };
+        LOGGER.log(Level.INFO, "Supplier fetch executor started in " + mode + " mode");
+    }
+
+    // runs the fetch once the supplier has a free permit. cancelling the returned future interrupts the fetch
+    public CompletableFuture<Void> submit(Object supplier, Runnable fetch) {
+        Semaphore permits = this.supplierPermits.computeIfAbsent(supplier, _ -> new Semaphore(this.maxConcurrentFetchesPerSupplier));
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        Future<?> task = this.executor.submit(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                result.completeExceptionally(e);
+                return;
+            }
+            try {
+                fetch.run();
+                result.complete(null);
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            } finally {
+                permits.release();
+            }
+        });
+        result.whenComplete((_, _) -> {
+            if (result.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.executor.shutdown();
+        try {
+            if (!this.executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                this.executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            this.executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.codingchallenge.hoteldatamerger.service;
+
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.SupplierHotel;
+import com.codingchallenge.hoteldatamerger.merger.HotelMatcher;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/*
+ * SupplierPartition holds the hotels a single supplier sent, in the order it sent them. The partitions are written by
+ * their supplier only and joined by hotel id once every supplier finished. The hotels that the matcher finds to be
+ * listed under different ids are joined as one hotel, which their other ids are aliases of.
+ */
+record SupplierPartition<T extends SupplierHotel>(int slot, List<T> hotels) {
+    private static final Logger LOGGER = Logger.getLogger(SupplierPartition.class.getName());
+
+    // groups the hotels of all partitions by hotel id. the records of a hotel are ordered by the slot of their supplier.
+    // null partitions belong to suppliers that did not answer and are left out
+    static Map<String, List<SupplierHotel>> join(SupplierPartition<?>[] partitions) {
+        return join(partitions, Map.of(), null);
+    }
+
+    // groups the hotels like join and joins the records of the duplicates the matcher finds with the hotel they are
+    // duplicates of, again in the order of their slots. the duplicates are kept as aliases of that hotel
+    static Joined join(SupplierPartition<?>[] partitions, HotelMatcher matcher) {
+        Map<String, Integer> suppliersByID = new HashMap<>();
+        Map<String, List<SupplierHotel>> hotelsByID = join(partitions, Map.of(), suppliersByID);
+        Map<String, String> duplicates = matcher.findDuplicates(hotelsByID, suppliersByID::get);
+        return new Joined(duplicates.isEmpty() ? hotelsByID : join(partitions, duplicates, null), duplicates);
+    }
+
+    // groups the hotels like join, with the records of the aliases joined with the hotel they are aliases of
+    static Map<String, List<SupplierHotel>> join(SupplierPartition<?>[] partitions, Map<String, String> aliases) {
+        return join(partitions, aliases, null);
+    }
+
+    // aliases maps the ids of duplicate hotels to the id their records are grouped under. suppliersByID collects a bit
+    // for the slot of every supplier listing a hotel id, if not null
+    private static Map<String, List<SupplierHotel>> join(SupplierPartition<?>[] partitions, Map<String, String> aliases,
+                                                         Map<String, Integer> suppliersByID) {
+        Map<String, List<SupplierHotel>> hotelsByID = new HashMap<>();
+        for (SupplierPartition<?> partition : partitions) {
+            if (partition == null) {
+                continue;
+            }
+            for (SupplierHotel hotel : partition.hotels()) {
+                if (hotel.getID() == null) {
+                    // dirty data. a hotel without an id cannot be merged
+                    LOGGER.log(Level.WARNING, "skipping supplier hotel without an id");
+                    continue;
+                }
+                String hotelID = aliases.getOrDefault(hotel.getID(), hotel.getID());
+                hotelsByID.computeIfAbsent(hotelID, _ -> new ArrayList<>()).add(hotel);
+                if (suppliersByID != null) {
+                    suppliersByID.merge(hotelID, 1 << partition.slot(), (a, b) -> a | b);
+                }
+            }
+        }
+        return hotelsByID;
+    }
+
+    // the supplier hotels grouped by hotel id, and the ids of the duplicates mapped to the id they were grouped under.
+    // the merged hotel of a group may be served under another id of the group
+    record Joined(Map<String, List<SupplierHotel>> hotels, Map<String, String> aliases) {
+    }
+}
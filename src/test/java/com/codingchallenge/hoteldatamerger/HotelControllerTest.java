@@ -0,0 +1,185 @@
+package com.codingchallenge.hoteldatamerger;
+
+import com.codingchallenge.hoteldatamerger.cachemanager.MergedResults;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.Deadline;
+import com.codingchallenge.hoteldatamerger.model.HotelAmenities;
+import com.codingchallenge.hoteldatamerger.model.HotelImage;
+import com.codingchallenge.hoteldatamerger.model.HotelImages;
+import com.codingchallenge.hoteldatamerger.model.HotelLocation;
+import com.codingchallenge.hoteldatamerger.model.HotelResult;
+import com.codingchallenge.hoteldatamerger.service.HotelResponseWriter;
+import com.codingchallenge.hoteldatamerger.service.HotelService;
+import com.codingchallenge.hoteldatamerger.service.PaginatedHotelResponse;
+import com.codingchallenge.hoteldatamerger.service.RequestDeadlines;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/*
+ * The hotels are written from pre-rendered fragments. These tests serve the same hotels through the EntityModel
+ * responses Spring MVC serialized before, and expect the very same bytes.
+ */
+@WebMvcTest(HotelController.class)
+@Import({HotelResponseWriter.class, HotelControllerTest.EntityModelHotelController.class})
+class HotelControllerTest {
+
+    private static final List<HotelResult> HOTELS = List.of(
+            hotel("iJhz", "Beach Villas \"Sentosa\""),
+            hotel("SjyX", "InterContinental Singapore Robertson Quay"),
+            hotel("f8c9", "Hilton Shinjuku Tokyo"));
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private HotelService hotelService;
+
+    @MockitoBean
+    private RequestDeadlines requestDeadlines;
+
+    @BeforeEach
+    void setUp() {
+        when(requestDeadlines.start(any())).thenReturn(Deadline.NONE);
+        // a new page for every request, as the controller adds the include options to its links
+        when(hotelService.getHotels(anyList(), anyList(), anyInt(), anyInt(), any())).thenAnswer(invocation -> {
+            int limit = invocation.getArgument(2);
+            int offset = invocation.getArgument(3);
+            PaginatedHotelResponse response = new PaginatedHotelResponse(HOTELS.subList(offset, Math.min(offset + limit, HOTELS.size())), HOTELS.size(), limit, offset);
+            response.addNextLink(limit, offset, invocation.getArgument(0), invocation.getArgument(1));
+            response.addPrevLink(limit, offset, invocation.getArgument(0), invocation.getArgument(1));
+            response.setPartial(offset > 0);
+            return response;
+        });
+        when(hotelService.findHotelById(eq("iJhz"), any())).thenReturn(MergedResults.complete(List.of(HOTELS.getFirst())));
+    }
+
+    @Test
+    void testPagesAreWrittenAsTheEntityModelPages() throws Exception {
+        // Act
+        MockHttpServletResponse firstPage = perform(get("/api/v1/hotels").param("limit", "2"));
+        MockHttpServletResponse lastPage = perform(get("/api/v1/hotels").param("offset", "2").param("limit", "2")
+                .param("destinationIDs", "5432"));
+        MockHttpServletResponse proxiedPage = perform(get("/api/v1/hotels").header(HttpHeaders.HOST, "hotels.example.com"));
+
+        // Assert
+        assertSameResponse(perform(get("/entity-model/hotels").param("limit", "2")), firstPage);
+        assertSameResponse(perform(get("/entity-model/hotels").param("offset", "2").param("limit", "2")
+                .param("destinationIDs", "5432")), lastPage);
+        assertSameResponse(perform(get("/entity-model/hotels").header(HttpHeaders.HOST, "hotels.example.com")), proxiedPage);
+        assertTrue(firstPage.getContentAsString().contains("\"links\":[{\"rel\":\"self\",\"href\":\"http://localhost/api/v1/hotels/iJhz\"}]"));
+        assertTrue(proxiedPage.getContentAsString().contains("\"href\":\"http://hotels.example.com/api/v1/hotels/f8c9\""));
+    }
+
+    @Test
+    void testHotelIsWrittenAsTheEntityModel() throws Exception {
+        // Act
+        MockHttpServletResponse hotel = perform(get("/api/v1/hotels/iJhz"));
+
+        // Assert
+        assertSameResponse(perform(get("/entity-model/hotels/iJhz")), hotel);
+        assertTrue(hotel.getContentAsString().endsWith(",\"_links\":{\"self\":{\"href\":\"http://localhost/api/v1/hotels/iJhz\"}}}"));
+    }
+
+    // the controller serves every request asynchronously
+    private MockHttpServletResponse perform(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            result = mockMvc.perform(asyncDispatch(result)).andReturn();
+        }
+        return result.getResponse();
+    }
+
+    private static void assertSameResponse(MockHttpServletResponse expected, MockHttpServletResponse actual) throws Exception {
+        assertEquals(200, actual.getStatus());
+        assertEquals(expected.getContentType(), actual.getContentType());
+        assertEquals(expected.getContentAsString(), actual.getContentAsString());
+    }
+
+    private static HotelResult hotel(String hotelID, String name) {
+        BitSet general = new BitSet();
+        general.set(0);
+        return new HotelResult(hotelID, 5432, name,
+                HotelLocation.of(1.264751f, 103.824005f, "8 Sentosa Gateway", "Singapore", "Singapore"),
+                "Surrounded by tropical gardens", HotelAmenities.of(general, new BitSet()),
+                HotelImages.of(List.of(HotelImage.of("https://images.example.com/" + hotelID + "/2.jpg", "Double room")), List.of(), List.of()),
+                List.of("All children are welcome."));
+    }
+
+    // serves the hotels the way HotelController did before the responses were pre-rendered
+    @RestController
+    static class EntityModelHotelController {
+        private final HotelService hotelService;
+
+        EntityModelHotelController(HotelService hotelService) {
+            this.hotelService = hotelService;
+        }
+
+        @GetMapping("/entity-model/hotels")
+        ResponseEntity<EntityModelPage> getHotels(
+                @RequestParam(value = "destinationIDs", required = false) List<String> destinations,
+                @RequestParam(value = "offset", defaultValue = "0") int offset,
+                @RequestParam(value = "limit", defaultValue = "10") int limit) {
+            PaginatedHotelResponse response = hotelService.getHotels(destinations == null ? List.of() : destinations, List.of(), limit, offset, Deadline.NONE);
+            return ResponseEntity.ok().body(new EntityModelPage(response));
+        }
+
+        @GetMapping("/entity-model/hotels/{hotelID}")
+        ResponseEntity<EntityModel<HotelResult>> getHotelById(@PathVariable String hotelID) {
+            return ResponseEntity.ok().body(entityModel(hotelService.findHotelById(hotelID, Deadline.NONE).hotels().getFirst()));
+        }
+
+        private static EntityModel<HotelResult> entityModel(HotelResult hotel) {
+            return EntityModel.of(hotel).add(WebMvcLinkBuilder.linkTo(HotelController.class).slash(hotel.id()).withSelfRel());
+        }
+    }
+
+    // PaginatedHotelResponse as it was serialized before, with every hotel wrapped in an EntityModel
+    @Getter
+    static class EntityModelPage {
+        private final List<EntityModel<HotelResult>> hotels;
+        private final int totalCount;
+        private final int limit;
+        private final int offset;
+        private final Link next;
+        private final Link prev;
+        @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+        private final boolean partial;
+
+        EntityModelPage(PaginatedHotelResponse response) {
+            this.hotels = response.getHotels().stream().map(EntityModelHotelController::entityModel).toList();
+            this.totalCount = response.getTotalCount();
+            this.limit = response.getLimit();
+            this.offset = response.getOffset();
+            this.next = response.getNext();
+            this.prev = response.getPrev();
+            this.partial = response.isPartial();
+        }
+    }
+}
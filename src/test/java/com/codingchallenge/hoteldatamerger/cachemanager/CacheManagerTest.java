@@ -1,5 +1,9 @@
 package com.codingchallenge.hoteldatamerger.cachemanager;
 
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.Deadline;
+import com.codingchallenge.hoteldatamerger.model.HotelAmenities;
+import com.codingchallenge.hoteldatamerger.model.HotelImages;
+import com.codingchallenge.hoteldatamerger.model.HotelLocation;
 import com.codingchallenge.hoteldatamerger.model.HotelResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -7,8 +11,12 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -33,7 +41,7 @@ class CacheManagerTest {
         List<String> hotelIDs = List.of("Hotel1");
         String cacheKey = cacheManager.buildCacheKey(destinationIDs, hotelIDs);
         List<HotelResult> cachedResult = new ArrayList<>();
-        cachedResult.add(new HotelResult()); // Mocking a HotelResult
+        cachedResult.add(hotelResult()); // Mocking a HotelResult
 
         when(cache.get(cacheKey)).thenReturn(cachedResult);
 
@@ -65,7 +73,7 @@ class CacheManagerTest {
         List<String> hotelIDs = List.of("Hotel1");
         String cacheKey = cacheManager.buildCacheKey(destinationIDs, hotelIDs);
         List<HotelResult> result = new ArrayList<>();
-        result.add(new HotelResult());  // Mocking a HotelResult
+        result.add(hotelResult());  // Mocking a HotelResult
 
         // Act
         cacheManager.addFilteredResult(destinationIDs, hotelIDs, result);
@@ -74,6 +82,118 @@ class CacheManagerTest {
         verify(cache, times(1)).put(cacheKey, result);
     }
 
+    @Test
+    void testLoadFilteredResultsOnMiss() {
+        // Arrange
+        List<String> destinationIDs = List.of("Dest1");
+        List<String> hotelIDs = List.of("Hotel1");
+        String cacheKey = cacheManager.buildCacheKey(destinationIDs, hotelIDs);
+        List<HotelResult> loaded = List.of(hotelResult());
+        when(cache.get(cacheKey)).thenReturn(null);
+
+        // Act
+        MergedResults result = cacheManager.loadFilteredResults(destinationIDs, hotelIDs, () -> MergedResults.complete(loaded));
+
+        // Assert
+        assertSame(loaded, result.hotels());
+        verify(cache, times(1)).put(cacheKey, loaded);
+        assertEquals(1, cacheManager.getLoadStats().executions());
+    }
+
+    @Test
+    void testLoadFilteredResultsDoesNotCachePartialResults() {
+        // Arrange
+        List<String> destinationIDs = List.of("Dest1");
+        List<String> hotelIDs = List.of("Hotel1");
+        List<HotelResult> loaded = List.of(hotelResult());
+
+        // Act
+        MergedResults result = cacheManager.loadFilteredResults(destinationIDs, hotelIDs, () -> new MergedResults(loaded, true));
+
+        // Assert
+        assertTrue(result.partial());
+        assertSame(loaded, result.hotels());
+        verify(cache, never()).put(any(), any());
+    }
+
+    @Test
+    void testLoadFilteredResultsAlreadyLoadedByAnotherCaller() {
+        // Arrange
+        List<String> destinationIDs = List.of("Dest1");
+        List<String> hotelIDs = List.of("Hotel1");
+        String cacheKey = cacheManager.buildCacheKey(destinationIDs, hotelIDs);
+        List<HotelResult> cachedResult = List.of(hotelResult());
+        when(cache.get(cacheKey)).thenReturn(cachedResult);
+
+        // Act
+        MergedResults result = cacheManager.loadFilteredResults(destinationIDs, hotelIDs, () -> fail("loader must not run"));
+
+        // Assert
+        assertSame(cachedResult, result.hotels());
+        assertFalse(result.partial());
+        verify(cache, never()).put(any(), any());
+    }
+
+    @Test
+    void testCallerJoiningASharedLoadReturnsAtItsOwnDeadline() throws Exception {
+        // Arrange
+        List<String> destinationIDs = List.of("Dest1");
+        List<String> hotelIDs = List.of("Hotel1");
+        List<HotelResult> loaded = List.of(hotelResult());
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+        CompletableFuture<MergedResults> starter = CompletableFuture.supplyAsync(() ->
+                cacheManager.loadFilteredResults(destinationIDs, hotelIDs, () -> {
+                    loaderStarted.countDown();
+                    try {
+                        releaseLoader.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return MergedResults.complete(loaded);
+                }, Deadline.NONE));
+        assertTrue(loaderStarted.await(5, TimeUnit.SECONDS));
+
+        // Act
+        long started = System.nanoTime();
+        MergedResults joined = cacheManager.loadFilteredResults(destinationIDs, hotelIDs,
+                () -> fail("loader must not run"), Deadline.after(Duration.ofMillis(100)));
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        boolean starterDoneAtJoinerDeadline = starter.isDone();
+        releaseLoader.countDown();
+
+        // Assert
+        assertTrue(joined.partial());
+        assertTrue(joined.hotels().isEmpty());
+        assertTrue(waitedMillis < 2000, "waited " + waitedMillis + " ms");
+        assertFalse(starterDoneAtJoinerDeadline);
+        // the shared load is not cancelled and its complete result is cached
+        MergedResults result = starter.get(5, TimeUnit.SECONDS);
+        assertSame(loaded, result.hotels());
+        verify(cache).put(cacheManager.buildCacheKey(destinationIDs, hotelIDs), loaded);
+        assertEquals(new SingleFlight.Stats(1, 1, 0), cacheManager.getLoadStats());
+    }
+
+    @Test
+    void testLoadInvalidatedWhileLoadingIsNotKept() {
+        // Arrange
+        List<String> destinationIDs = List.of("Dest1");
+        List<String> hotelIDs = List.of("Hotel1");
+        String cacheKey = cacheManager.buildCacheKey(destinationIDs, hotelIDs);
+        List<HotelResult> loaded = List.of(hotelResult());
+
+        // Act
+        MergedResults result = cacheManager.loadFilteredResults(destinationIDs, hotelIDs, () -> {
+            cacheManager.invalidateAll(); // the catalog is rebuilt during the load
+            return MergedResults.complete(loaded);
+        });
+
+        // Assert
+        assertSame(loaded, result.hotels());
+        verify(cache).clear();
+        verify(cache).remove(cacheKey);
+    }
+
     @Test
     void testBuildCacheKey() {
         List<String> destinationIDs = List.of("Dest1", "Dest2");
@@ -83,5 +203,8 @@ class CacheManagerTest {
 
         assertEquals("DEST:::Dest1_Dest2|HTL:::Hotel1", cacheKey);
     }
-}
 
+    private static HotelResult hotelResult() {
+        return new HotelResult("", 0, "", HotelLocation.EMPTY, "", HotelAmenities.EMPTY, HotelImages.EMPTY, List.of());
+    }
+}
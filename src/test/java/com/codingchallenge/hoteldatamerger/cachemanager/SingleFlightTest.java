@@ -0,0 +1,91 @@
+package com.codingchallenge.hoteldatamerger.cachemanager;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    @Test
+    void testConcurrentCallsShareOneLoad() throws Exception {
+        // Arrange
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+
+        // Act
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        results.add(CompletableFuture.supplyAsync(() -> singleFlight.executeAndWait("catalog", () -> {
+            loads.incrementAndGet();
+            loaderStarted.countDown();
+            awaitQuietly(releaseLoader);
+            return "merged";
+        }), executor));
+        assertTrue(loaderStarted.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 4; i++) {
+            results.add(CompletableFuture.supplyAsync(() -> singleFlight.executeAndWait("catalog", () -> {
+                loads.incrementAndGet();
+                return "unexpected";
+            }), executor));
+        }
+        // wait until every follower joined the in-flight load
+        while (singleFlight.stats().coalesced() < 4) {
+            Thread.onSpinWait();
+        }
+        releaseLoader.countDown();
+
+        // Assert
+        for (CompletableFuture<String> result : results) {
+            assertEquals("merged", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(new SingleFlight.Stats(1, 4, 0), singleFlight.stats());
+        executor.shutdown();
+    }
+
+    @Test
+    void testSequentialCallsLoadAgain() {
+        // Arrange
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        singleFlight.executeAndWait("catalog", loads::incrementAndGet);
+        int second = singleFlight.executeAndWait("catalog", loads::incrementAndGet);
+
+        // Assert
+        assertEquals(2, second);
+        assertEquals(0, singleFlight.stats().coalesced());
+    }
+
+    @Test
+    void testLoaderFailureIsRethrown() {
+        // Arrange
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> singleFlight.executeAndWait("catalog", () -> {
+            throw new IllegalStateException("supplier failure");
+        }));
+        assertEquals(0, singleFlight.stats().inFlight());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.codingchallenge.hoteldatamerger.hotelresultcollector;
+
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.acme.AcmeHotelResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AbstractHotelResultCollectorTest {
+
+    private StubSupplierServer server;
+    private HTTPClient httpClient;
+    private AbstractHotelResultCollector<AcmeHotelResult> collector;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new StubSupplierServer();
+        httpClient = new HTTPClient("acme", new HTTPClientSettings(Duration.ofSeconds(2), Duration.ofSeconds(1), Duration.ofMinutes(1), 2, Duration.ofMillis(200)));
+        collector = new AbstractHotelResultCollector<>(httpClient, server.url("/acme"), AcmeHotelResult.class) {
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        httpClient.close();
+        server.close();
+    }
+
+    @Test
+    void testStreamAllHotels() {
+        // Arrange
+        server.respondWith(200, """
+                [{"Id": "iJhz", "DestinationId": 5432, "Name": "Beach Villas Singapore", "Facilities": ["Pool"]},
+                 null,
+                 {"Id": "SjyX", "DestinationId": 5432, "Name": "InterContinental Singapore"}]
+                """);
+        List<AcmeHotelResult> streamed = new ArrayList<>();
+
+        // Act
+        collector.streamAllHotels(streamed::add);
+
+        // Assert
+        assertEquals(2, streamed.size());
+        assertEquals("iJhz", streamed.get(0).getID());
+        assertEquals(List.of("Pool"), streamed.get(0).getFacilities());
+        assertEquals("SjyX", streamed.get(1).getID());
+        assertEquals(0, httpClient.getStats().snapshot().inFlight()); // the body is closed after parsing
+    }
+
+    @Test
+    void testStreamAllHotelsReusesSnapshotWhenNotModified() {
+        // Arrange
+        server.respondWith(200, "[{\"Id\": \"iJhz\", \"DestinationId\": 5432}]");
+        server.withETag("\"v1\"");
+        List<AcmeHotelResult> first = collector.getAllHotels();
+
+        // Act
+        List<AcmeHotelResult> second = collector.getAllHotels();
+
+        // Assert
+        assertEquals(1, second.size());
+        assertSame(first.getFirst(), second.getFirst()); // replayed without deserializing again
+        HTTPClientStats.Snapshot stats = httpClient.getStats().snapshot();
+        assertEquals(2, stats.requests());
+        assertEquals(1, stats.notModifiedResponses());
+    }
+
+    @Test
+    void testStreamAllHotelsReusesSnapshotWhenBodyHashMatches() {
+        // Arrange
+        server.respondWith(200, "[{\"Id\": \"iJhz\", \"DestinationId\": 5432}]");
+        List<AcmeHotelResult> first = collector.getAllHotels();
+
+        // Act
+        List<AcmeHotelResult> unchanged = collector.getAllHotels();
+        server.respondWith(200, "[{\"Id\": \"SjyX\", \"DestinationId\": 5432}]");
+        List<AcmeHotelResult> changed = collector.getAllHotels();
+
+        // Assert
+        assertSame(first.getFirst(), unchanged.getFirst());
+        assertEquals("SjyX", changed.getFirst().getID());
+        assertEquals(1, httpClient.getStats().snapshot().unchangedBodies());
+    }
+
+    @Test
+    void testGetAllHotelsWithInvalidBody() {
+        // Arrange
+        server.respondWith(200, "{\"message\": \"not a list\"}");
+
+        // Act & Assert
+        assertThrows(SupplierFetchException.class, () -> collector.getAllHotels());
+        assertEquals(0, httpClient.getStats().snapshot().inFlight());
+    }
+
+    @Test
+    void testGetAllHotelsWithServerError() {
+        // Arrange
+        server.respondWith(500, "");
+
+        // Act & Assert
+        assertThrows(SupplierFetchException.class, () -> collector.getAllHotels());
+    }
+
+    @Test
+    void testStreamHotelsPushesQueryDownToSupplier() {
+        // Arrange
+        AbstractHotelResultCollector<AcmeHotelResult> queryCollector = new AbstractHotelResultCollector<>(httpClient, server.url("/acme"),
+                List.of(), new QueryParameters("destination", "ids"), AcmeHotelResult.class) {
+        };
+        // stands in for a supplier that filters by the hotel ids query parameter
+        server.respondWith(200, uri -> uri.getQuery() != null && uri.getQuery().contains("ids=SjyX")
+                ? "[{\"Id\": \"SjyX\", \"DestinationId\": 5432}]"
+                : "[{\"Id\": \"iJhz\", \"DestinationId\": 5432}, {\"Id\": \"SjyX\", \"DestinationId\": 5432}]");
+        List<AcmeHotelResult> streamed = new ArrayList<>();
+
+        // Act
+        queryCollector.streamHotels(HotelQuery.of(List.of(), List.of("SjyX")), streamed::add);
+
+        // Assert
+        assertEquals(1, streamed.size());
+        assertEquals("SjyX", streamed.getFirst().getID());
+        assertEquals("ids=SjyX", server.getLastRequestURI().getQuery());
+    }
+
+    @Test
+    void testStreamHotelsFiltersWhenSupplierCannotFilter() {
+        // Arrange
+        server.respondWith(200, """
+                [{"Id": "iJhz", "DestinationId": 5432}, {"Id": "f8c9", "DestinationId": 1122}, {"Id": "SjyX", "DestinationId": ""}]
+                """);
+        List<AcmeHotelResult> streamed = new ArrayList<>();
+
+        // Act
+        collector.streamHotels(HotelQuery.of(List.of("1122"), List.of()), streamed::add);
+
+        // Assert
+        assertEquals(List.of("f8c9", "SjyX"), streamed.stream().map(AcmeHotelResult::getID).toList()); // SjyX has no destination to filter on
+        assertNull(server.getLastRequestURI().getQuery());
+    }
+}
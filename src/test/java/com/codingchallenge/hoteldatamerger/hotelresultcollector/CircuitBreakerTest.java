@@ -0,0 +1,83 @@
+package com.codingchallenge.hoteldatamerger.hotelresultcollector;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker(2, Duration.ofSeconds(30), now::get);
+
+    @Test
+    void testOpensAfterConsecutiveFailures() {
+        // Act
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordSuccess();
+        circuitBreaker.recordFailure();
+        boolean closedAfterOneFailure = circuitBreaker.tryAcquire();
+        circuitBreaker.recordFailure();
+
+        // Assert
+        assertTrue(closedAfterOneFailure);
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void testHalfOpenProbeClosesCircuit() {
+        // Arrange
+        openCircuit();
+        now.addAndGet(Duration.ofSeconds(30).toNanos());
+
+        // Act
+        boolean probe = circuitBreaker.tryAcquire();
+        boolean concurrentCall = circuitBreaker.tryAcquire();
+        circuitBreaker.recordSuccess();
+
+        // Assert
+        assertTrue(probe);
+        assertFalse(concurrentCall); // only a single probe call is let through
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void testAbandonedProbeLetsNextCallProbe() {
+        // Arrange
+        openCircuit();
+        now.addAndGet(Duration.ofSeconds(30).toNanos());
+        circuitBreaker.tryAcquire();
+
+        // Act
+        circuitBreaker.recordAbandoned();
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void testFailedProbeReopensCircuit() {
+        // Arrange
+        openCircuit();
+        now.addAndGet(Duration.ofSeconds(30).toNanos());
+
+        // Act
+        circuitBreaker.tryAcquire();
+        circuitBreaker.recordFailure();
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        now.addAndGet(Duration.ofSeconds(29).toNanos());
+        assertFalse(circuitBreaker.tryAcquire());
+    }
+
+    private void openCircuit() {
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordFailure();
+    }
+}
@@ -0,0 +1,250 @@
+package com.codingchallenge.hoteldatamerger.hotelresultcollector;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HTTPClientTest {
+
+    private StubSupplierServer server;
+    private HTTPClient httpClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new StubSupplierServer();
+        httpClient = new HTTPClient("stub", new HTTPClientSettings(Duration.ofSeconds(2), Duration.ofSeconds(1), Duration.ofMinutes(1), 2, Duration.ofMillis(200)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        httpClient.close();
+        server.close();
+    }
+
+    @Test
+    void testDoGetStreamReusesClientAndRecordsStats() throws Exception {
+        // Act
+        for (int i = 0; i < 3; i++) {
+            HttpResponse<InputStream> response = httpClient.doGetStream(server.url("/hotels"), FeedValidators.NONE);
+            try (InputStream body = response.body()) {
+                assertEquals("[]", new String(body.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+
+        // Assert
+        HTTPClientStats.Snapshot stats = httpClient.getStats().snapshot();
+        assertEquals(3, stats.requests());
+        assertEquals(0, stats.failures());
+        assertEquals(3, stats.http1Responses() + stats.http2Responses());
+        assertEquals(0, stats.inFlight());
+        assertEquals(1, stats.peakInFlight());
+    }
+
+    @Test
+    void testDoGetStreamHoldsConnectionUntilBodyClosed() throws Exception {
+        // Act
+        HttpResponse<InputStream> response = httpClient.doGetStream(server.url("/hotels"), FeedValidators.NONE);
+
+        // Assert
+        assertEquals(1, httpClient.getStats().snapshot().inFlight());
+        response.body().close();
+        response.body().close(); // closing twice must not free the connection twice
+        assertEquals(0, httpClient.getStats().snapshot().inFlight());
+    }
+
+    @Test
+    void testDoGetStreamServerError() {
+        // Arrange
+        server.respondWith(503, "");
+
+        // Act & Assert
+        assertThrows(HttpServerErrorException.class, () -> httpClient.doGetStream(server.url("/hotels"), FeedValidators.NONE));
+        HTTPClientStats.Snapshot stats = httpClient.getStats().snapshot();
+        assertEquals(1, stats.requests());
+        assertEquals(1, stats.failures());
+        assertEquals(0, stats.inFlight());
+    }
+
+    @Test
+    void testDoGetStreamHedgesSlowSupplierToMirror() throws Exception {
+        // Arrange
+        server.withDelay(Duration.ofSeconds(1));
+        server.respondWith(200, "[\"primary\"]");
+        try (StubSupplierServer mirror = new StubSupplierServer()) {
+            mirror.respondWith(200, "[\"mirror\"]");
+            // warm up the client so that the first request does not eat into the hedge delay
+            httpClient.doGetStream(mirror.url("/hotels"), FeedValidators.NONE).body().close();
+
+            // Act
+            long start = System.nanoTime();
+            HttpResponse<InputStream> response = httpClient.doGetStream(List.of(server.url("/hotels"), mirror.url("/hotels")), FeedValidators.NONE);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            // Assert
+            try (InputStream body = response.body()) {
+                assertEquals("[\"mirror\"]", new String(body.readAllBytes(), StandardCharsets.UTF_8));
+            }
+            assertTrue(elapsedMillis < 1000, "the slow supplier was awaited for " + elapsedMillis + "ms");
+            HTTPClientStats.Snapshot stats = httpClient.getStats().snapshot();
+            assertEquals(3, stats.requests());
+            assertEquals(1, stats.hedgedRequests());
+            assertEquals(1, stats.mirrorWins());
+            assertEquals(1, stats.cancelledRequests());
+            assertEquals(0, stats.inFlight()); // the cancelled request freed its connection
+        }
+    }
+
+    @Test
+    void testDoGetStreamHedgesToMirrorOnceAConnectionIsFree() throws Exception {
+        // Arrange
+        server.withDelay(Duration.ofSeconds(1));
+        server.respondWith(200, "[\"primary\"]");
+        try (StubSupplierServer mirror = new StubSupplierServer(); StubSupplierServer other = new StubSupplierServer()) {
+            mirror.respondWith(200, "[\"mirror\"]");
+            // another request holds the second connection over the first hedge delay
+            InputStream held = httpClient.doGetStream(other.url("/hotels"), FeedValidators.NONE).body();
+            CompletableFuture<Void> release = CompletableFuture.runAsync(() -> {
+                try {
+                    Thread.sleep(300);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                closeQuietly(held);
+            });
+
+            // Act
+            long start = System.nanoTime();
+            HttpResponse<InputStream> response = httpClient.doGetStream(List.of(server.url("/hotels"), mirror.url("/hotels")), FeedValidators.NONE);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            // Assert
+            try (InputStream body = response.body()) {
+                assertEquals("[\"mirror\"]", new String(body.readAllBytes(), StandardCharsets.UTF_8));
+            }
+            assertTrue(elapsedMillis < 1000, "the slow supplier was awaited for " + elapsedMillis + "ms");
+            assertEquals(1, mirror.getRequestCount());
+            assertEquals(1, httpClient.getStats().snapshot().hedgedRequests());
+            release.join();
+        }
+    }
+
+    @Test
+    void testDoGetStreamDoesNotHedgeFastSupplier() throws Exception {
+        // Arrange
+        try (StubSupplierServer mirror = new StubSupplierServer()) {
+
+            // Act
+            HttpResponse<InputStream> response = httpClient.doGetStream(List.of(server.url("/hotels"), mirror.url("/hotels")), FeedValidators.NONE);
+            response.body().close();
+
+            // Assert
+            assertEquals(1, server.getRequestCount());
+            assertEquals(0, mirror.getRequestCount());
+            assertEquals(0, httpClient.getStats().snapshot().hedgedRequests());
+        }
+    }
+
+    @Test
+    void testDoGetStreamFailsOverToMirror() throws Exception {
+        // Arrange
+        server.respondWith(503, "");
+        try (StubSupplierServer mirror = new StubSupplierServer()) {
+            mirror.respondWith(200, "[\"mirror\"]");
+
+            // Act
+            HttpResponse<InputStream> response = httpClient.doGetStream(List.of(server.url("/hotels"), mirror.url("/hotels")), FeedValidators.NONE);
+
+            // Assert
+            try (InputStream body = response.body()) {
+                assertEquals("[\"mirror\"]", new String(body.readAllBytes(), StandardCharsets.UTF_8));
+            }
+            HTTPClientStats.Snapshot stats = httpClient.getStats().snapshot();
+            assertEquals(1, stats.failures());
+            assertEquals(0, stats.hedgedRequests()); // the mirror was asked right away instead of after the hedge delay
+            assertEquals(0, stats.inFlight());
+        }
+    }
+
+    @Test
+    void testDoGetStreamFailsWhenEveryMirrorFails() throws Exception {
+        // Arrange
+        server.respondWith(503, "");
+        try (StubSupplierServer mirror = new StubSupplierServer()) {
+            mirror.respondWith(502, "");
+
+            // Act & Assert
+            assertThrows(HttpServerErrorException.class,
+                    () -> httpClient.doGetStream(List.of(server.url("/hotels"), mirror.url("/hotels")), FeedValidators.NONE));
+            assertEquals(0, httpClient.getStats().snapshot().inFlight());
+        }
+    }
+
+    @Test
+    void testDoGetStreamDecodesGzipWhileStreaming() throws Exception {
+        // Arrange
+        String hotels = "[" + String.join(",", Collections.nCopies(200, "{\"Id\": \"iJhz\", \"Name\": \"Beach Villas Singapore\"}")) + "]";
+        server.respondWith(200, hotels);
+        server.withCompression("gzip");
+
+        // Act
+        HttpResponse<InputStream> response = httpClient.doGetStream(server.url("/hotels"), FeedValidators.NONE);
+
+        // Assert
+        try (InputStream body = response.body()) {
+            assertEquals(hotels, new String(body.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        HTTPClientStats.Snapshot stats = httpClient.getStats().snapshot();
+        assertEquals(1, stats.compressedResponses());
+        assertEquals(hotels.length(), stats.decodedBytes());
+        assertTrue(stats.wireBytes() * 10 < stats.decodedBytes(), "only " + stats.wireBytes() + " of " + stats.decodedBytes() + " bytes saved");
+    }
+
+    @Test
+    void testDoGetStreamDecodesDeflate() throws Exception {
+        // Arrange
+        server.respondWith(200, "[{\"Id\": \"iJhz\"}]");
+        server.withCompression("deflate");
+
+        // Act
+        HttpResponse<InputStream> response = httpClient.doGetStream(server.url("/hotels"), FeedValidators.NONE);
+
+        // Assert
+        try (InputStream body = response.body()) {
+            assertEquals("[{\"Id\": \"iJhz\"}]", new String(body.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertEquals(1, httpClient.getStats().snapshot().compressedResponses());
+    }
+
+    @Test
+    void testDoGetStreamCountsUncompressedBody() throws Exception {
+        // Act
+        httpClient.doGetStream(server.url("/hotels"), FeedValidators.NONE).body().transferTo(OutputStream.nullOutputStream());
+
+        // Assert
+        HTTPClientStats.Snapshot stats = httpClient.getStats().snapshot();
+        assertEquals(0, stats.compressedResponses());
+        assertEquals(2, stats.wireBytes());
+        assertEquals(2, stats.decodedBytes());
+    }
+
+    private static void closeQuietly(InputStream body) {
+        try {
+            body.close();
+        } catch (IOException ignored) {
+            // the test only frees the connection
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.codingchallenge.hoteldatamerger.hotelresultcollector;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResilientHotelResultCollectorTest {
+
+    private static final ResilienceSettings SETTINGS = new ResilienceSettings(2, Duration.ofMinutes(1), 2, Duration.ofMillis(1), 0.2, 10);
+
+    @Test
+    void testRetriesUntilSupplierResponds() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        ResilientHotelResultCollector<String> collector = new ResilientHotelResultCollector<>(() -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new SupplierFetchException("server returned an error", null);
+            }
+            return List.of("iJhz");
+        }, SETTINGS);
+
+        // Act
+        List<String> hotels = collector.getAllHotels();
+
+        // Assert
+        assertEquals(List.of("iJhz"), hotels);
+        assertEquals(3, calls.get());
+        assertEquals(new ResilientHotelResultCollector.Stats(CircuitBreaker.State.CLOSED, 2, 0, 8, 1), collector.stats());
+    }
+
+    @Test
+    void testOpenCircuitServesLastKnownGoodHotels() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        List<String> feed = new ArrayList<>(List.of("iJhz", "SjyX"));
+        ResilientHotelResultCollector<String> collector = new ResilientHotelResultCollector<>(() -> {
+            calls.incrementAndGet();
+            if (feed.isEmpty()) {
+                throw new SupplierFetchException("request timeout while collecting hotel results", null);
+            }
+            return List.copyOf(feed);
+        }, SETTINGS);
+        collector.getAllHotels();
+        feed.clear(); // the supplier goes down
+
+        // Act
+        List<String> failedCall = collector.getAllHotels();
+        List<String> secondFailedCall = collector.getAllHotels();
+        int callsWhenOpened = calls.get();
+        List<String> rejectedCall = collector.getAllHotels();
+
+        // Assert
+        assertEquals(List.of("iJhz", "SjyX"), failedCall);
+        assertEquals(List.of("iJhz", "SjyX"), secondFailedCall);
+        assertEquals(List.of("iJhz", "SjyX"), rejectedCall);
+        assertEquals(callsWhenOpened, calls.get()); // the open circuit did not call the supplier
+        assertEquals(CircuitBreaker.State.OPEN, collector.stats().state());
+        assertEquals(3, collector.stats().fallbacks());
+    }
+
+    @Test
+    void testPartialFeedIsNeitherRetriedNorReplayed() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        HotelResultCollector<String> partialSupplier = new HotelResultCollector<>() {
+            @Override
+            public List<String> getAllHotels() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void streamAllHotels(Consumer<? super String> sink) {
+                calls.incrementAndGet();
+                sink.accept("iJhz");
+                throw new SupplierFetchException("error while collecting hotel results", null);
+            }
+        };
+        ResilientHotelResultCollector<String> collector = new ResilientHotelResultCollector<>(partialSupplier, SETTINGS);
+
+        // Act
+        List<String> hotels = new ArrayList<>();
+        assertThrows(SupplierFetchException.class, () -> collector.streamAllHotels(hotels::add));
+
+        // Assert
+        assertEquals(List.of("iJhz"), hotels);
+        assertEquals(1, calls.get());
+        assertEquals(0, collector.stats().retries());
+    }
+
+    @Test
+    void testRefreshFailsInsteadOfServingLastKnownGoodHotels() {
+        // Arrange
+        List<String> feed = new ArrayList<>(List.of("iJhz"));
+        ResilientHotelResultCollector<String> collector = new ResilientHotelResultCollector<>(() -> {
+            if (feed.isEmpty()) {
+                throw new SupplierFetchException("server returned an error", null);
+            }
+            return List.copyOf(feed);
+        }, SETTINGS);
+        List<String> refreshed = new ArrayList<>();
+        collector.refreshAllHotels(refreshed::add);
+        feed.clear(); // the supplier goes down
+
+        // Act
+        List<String> failedRefresh = new ArrayList<>();
+        assertThrows(SupplierFetchException.class, () -> collector.refreshAllHotels(failedRefresh::add));
+
+        // Assert
+        assertEquals(List.of("iJhz"), refreshed);
+        assertTrue(failedRefresh.isEmpty());
+        assertEquals(0, collector.stats().fallbacks());
+    }
+
+    @Test
+    void testRetryBudgetLimitsRetries() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        ResilienceSettings settings = new ResilienceSettings(100, Duration.ofMinutes(1), 2, Duration.ZERO, 0.1, 1);
+        ResilientHotelResultCollector<String> collector = new ResilientHotelResultCollector<>(() -> {
+            calls.incrementAndGet();
+            throw new SupplierFetchException("server returned an error", null);
+        }, settings);
+
+        // Act
+        collector.getAllHotels();
+        collector.getAllHotels();
+
+        // Assert
+        assertEquals(3, calls.get()); // the single saved up retry was spent by the first call
+        assertEquals(1, collector.stats().retries());
+    }
+
+    @Test
+    void testSupplierHangingPastShortDeadlinesOpensCircuit() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        HotelResultCollector<String> hangingSupplier = new HotelResultCollector<>() {
+            @Override
+            public List<String> getAllHotels() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void streamHotels(HotelQuery query, Deadline deadline, Consumer<? super String> sink) {
+                calls.incrementAndGet();
+                // the supplier does not answer before the request timeout, which is cut short by the deadline
+                sleepPast(deadline);
+                throw new SupplierFetchException("error while collecting hotel results", new HttpTimeoutException("request timed out"));
+            }
+        };
+        ResilientHotelResultCollector<String> collector = new ResilientHotelResultCollector<>(hangingSupplier, SETTINGS);
+
+        // Act
+        for (int i = 0; i < 2; i++) {
+            assertThrows(SupplierFetchException.class, () -> collector.streamHotels(HotelQuery.ALL, Deadline.after(Duration.ofMillis(5)), _ -> {}));
+        }
+        collector.streamHotels(HotelQuery.ALL, Deadline.after(Duration.ofMillis(5)), _ -> {});
+
+        // Assert
+        assertEquals(2, calls.get()); // the third call was rejected by the open circuit
+        assertEquals(CircuitBreaker.State.OPEN, collector.stats().state());
+        assertEquals(1, collector.stats().fallbacks());
+    }
+
+    @Test
+    void testCallCancelledByExpiredDeadlineDoesNotOpenCircuit() {
+        // Arrange
+        HotelResultCollector<String> cancelledSupplier = new HotelResultCollector<>() {
+            @Override
+            public List<String> getAllHotels() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void streamHotels(HotelQuery query, Deadline deadline, Consumer<? super String> sink) {
+                // the request gave up and closed the connection before the supplier answered
+                sleepPast(deadline);
+                throw new SupplierFetchException("error while collecting hotel results", new IOException("closed"));
+            }
+        };
+        ResilientHotelResultCollector<String> collector = new ResilientHotelResultCollector<>(cancelledSupplier, SETTINGS);
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            assertThrows(SupplierFetchException.class, () -> collector.streamHotels(HotelQuery.ALL, Deadline.after(Duration.ofMillis(5)), _ -> {}));
+        }
+
+        // Assert
+        assertEquals(CircuitBreaker.State.CLOSED, collector.stats().state());
+        assertEquals(0, collector.stats().retries());
+    }
+
+    private static void sleepPast(Deadline deadline) {
+        while (!deadline.isExpired()) {
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
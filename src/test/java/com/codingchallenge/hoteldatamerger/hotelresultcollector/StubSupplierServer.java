@@ -0,0 +1,123 @@
+package com.codingchallenge.hoteldatamerger.hotelresultcollector;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/*
+ * StubSupplierServer is a local stand-in for a supplier endpoint
+ */
+public class StubSupplierServer implements AutoCloseable {
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private volatile int statusCode = 200;
+    private volatile Function<URI, String> responder = _ -> "[]";
+    private volatile URI lastRequestURI;
+    private volatile String etag;
+    private volatile Duration delay = Duration.ZERO;
+    private volatile String contentEncoding;
+
+    public StubSupplierServer() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.createContext("/", this::handle);
+        // slow responses must not hold back other requests or the shutdown
+        this.server.setExecutor(this.executor);
+        this.server.start();
+    }
+
+    public String url(String path) {
+        return "http://localhost:" + this.server.getAddress().getPort() + path;
+    }
+
+    public void respondWith(int statusCode, String body) {
+        respondWith(statusCode, _ -> body);
+    }
+
+    // the body depends on the request, e.g. on its query parameters
+    public void respondWith(int statusCode, Function<URI, String> responder) {
+        this.statusCode = statusCode;
+        this.responder = responder;
+    }
+
+    // the stub answers with 304 Not Modified when the client sends back the same etag
+    public void withETag(String etag) {
+        this.etag = etag;
+    }
+
+    // every response is sent only after the delay, standing in for a slow supplier
+    public void withDelay(Duration delay) {
+        this.delay = delay;
+    }
+
+    // the body is compressed with gzip or deflate if the client accepts the encoding
+    public void withCompression(String contentEncoding) {
+        this.contentEncoding = contentEncoding;
+    }
+
+    public int getRequestCount() {
+        return this.requestCount.get();
+    }
+
+    public URI getLastRequestURI() {
+        return this.lastRequestURI;
+    }
+
+    protected void handle(HttpExchange exchange) throws IOException {
+        this.requestCount.incrementAndGet();
+        this.lastRequestURI = exchange.getRequestURI();
+        try {
+            Thread.sleep(this.delay);
+        } catch (InterruptedException e) {
+            exchange.close();
+            return;
+        }
+        byte[] responseBody = this.responder.apply(exchange.getRequestURI()).getBytes(StandardCharsets.UTF_8);
+        String currentETag = this.etag;
+        if (currentETag != null) {
+            exchange.getResponseHeaders().set("ETag", currentETag);
+            if (currentETag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+        }
+        String encoding = this.contentEncoding;
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (encoding != null && acceptEncoding != null && acceptEncoding.contains(encoding) && responseBody.length > 0) {
+            responseBody = compress(encoding, responseBody);
+            exchange.getResponseHeaders().set("Content-Encoding", encoding);
+        }
+        exchange.sendResponseHeaders(this.statusCode, responseBody.length == 0 ? -1 : responseBody.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(responseBody);
+        }
+    }
+
+    private static byte[] compress(String encoding, byte[] body) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream os = encoding.equals("gzip") ? new GZIPOutputStream(compressed) : new DeflaterOutputStream(compressed)) {
+            os.write(body);
+        }
+        return compressed.toByteArray();
+    }
+
+    @Override
+    public void close() {
+        this.server.stop(0);
+        this.executor.shutdownNow();
+    }
+}
@@ -0,0 +1,108 @@
+package com.codingchallenge.hoteldatamerger.merger;
+
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.SupplierHotel;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.acme.AcmeHotelResult;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.paperflies.PaperfliesHotelResult;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.patagonia.PatagoniaHotelResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotelMatcherTest {
+
+    // the slots of the suppliers, as the catalog assigns them
+    private static final int ACME = 0;
+    private static final int PAPERFLIES = 1;
+    private static final int PATAGONIA = 2;
+
+    private final HotelMatcher matcher = new HotelMatcher(0.85, 150);
+    private final Map<String, List<SupplierHotel>> hotelsByID = new HashMap<>();
+    private final Map<String, Integer> suppliersByID = new HashMap<>();
+
+    @Test
+    void testHotelsListedUnderDifferentIDsAreMatchedByNameAndDistance() {
+        // Arrange
+        // the same hotel about 30 meters apart and spelled differently
+        add(ACME, acme("iJhz", "5432", "Beach Villas Singapore", 1.264751f, 103.824006f));
+        add(PATAGONIA, patagonia("BV01", 5432, "The Beach Villas, Singapore", 1.265020f, 103.824000f));
+        // a neighbour with another name, and the same name too far away
+        add(PATAGONIA, patagonia("SjyX", 5432, "Sentosa Resort", 1.264800f, 103.824100f));
+        add(PATAGONIA, patagonia("f8c9", 5432, "Beach Villas Singapore", 1.280000f, 103.824006f));
+        // a supplier lists a hotel once, so a less confident match of the same supplier is not merged
+        add(ACME, acme("iJh2", "5432", "Beach Villas Singapore", 1.264600f, 103.824006f));
+
+        // Act
+        Map<String, String> duplicates = matcher.findDuplicates(hotelsByID, suppliersByID::get);
+
+        // Assert
+        assertEquals(Map.of("iJhz", "BV01"), duplicates);
+        assertEquals(1, matcher.stats().lastDuplicates());
+    }
+
+    @Test
+    void testHotelsWithoutCoordinatesAreMatchedByNameWithinTheirDestination() {
+        // Arrange
+        add(PATAGONIA, patagonia("SjyX", 5432, "InterContinental Singapore Robertson Quay", 1.28624f, 103.848436f));
+        add(PAPERFLIES, paperflies("IC01", 5432, "Intercontinental Singapore Robertson-Quay"));
+        add(PAPERFLIES, paperflies("IC02", 1122, "InterContinental Singapore Robertson Quay"));
+
+        // Act
+        Map<String, String> duplicates = matcher.findDuplicates(hotelsByID, suppliersByID::get);
+        Map<String, String> disabled = new HotelMatcher(1.1, 150).findDuplicates(hotelsByID, suppliersByID::get);
+
+        // Assert
+        assertEquals(Map.of("SjyX", "IC01"), duplicates);
+        assertTrue(disabled.isEmpty());
+    }
+
+    @Test
+    void testSuppliersAreToldApartBySlot() {
+        // Arrange
+        // a second supplier with the feed format of acme in the next free slot
+        add(ACME, acme("iJhz", "5432", "Beach Villas Singapore", 1.264751f, 103.824006f));
+        add(PATAGONIA + 1, acme("BV01", "5432", "The Beach Villas, Singapore", 1.265020f, 103.824000f));
+
+        // Act
+        Map<String, String> duplicates = matcher.findDuplicates(hotelsByID, suppliersByID::get);
+
+        // Assert
+        assertEquals(Map.of("iJhz", "BV01"), duplicates);
+    }
+
+    private void add(int slot, SupplierHotel hotel) {
+        hotelsByID.put(hotel.getID(), List.of(hotel));
+        suppliersByID.put(hotel.getID(), 1 << slot);
+    }
+
+    private static AcmeHotelResult acme(String hotelID, String destinationID, String name, float lat, float lng) {
+        AcmeHotelResult result = new AcmeHotelResult();
+        result.setID(hotelID);
+        result.setDestinationID(destinationID);
+        result.setName(name);
+        result.setLatitude(lat);
+        result.setLongitude(lng);
+        return result;
+    }
+
+    private static PatagoniaHotelResult patagonia(String hotelID, int destinationID, String name, float lat, float lng) {
+        PatagoniaHotelResult result = new PatagoniaHotelResult();
+        result.setID(hotelID);
+        result.setDestination(destinationID);
+        result.setName(name);
+        result.setLatitude(lat);
+        result.setLongitude(lng);
+        return result;
+    }
+
+    private static PaperfliesHotelResult paperflies(String hotelID, int destinationID, String name) {
+        PaperfliesHotelResult result = new PaperfliesHotelResult();
+        result.setID(hotelID);
+        result.setDestinationID(destinationID);
+        result.setName(name);
+        return result;
+    }
+}
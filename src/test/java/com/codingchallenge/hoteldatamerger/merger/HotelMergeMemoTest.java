@@ -0,0 +1,106 @@
+package com.codingchallenge.hoteldatamerger.merger;
+
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.SupplierHotel;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.patagonia.PatagoniaHotelResult;
+import com.codingchallenge.hoteldatamerger.model.HotelAmenities;
+import com.codingchallenge.hoteldatamerger.model.HotelImages;
+import com.codingchallenge.hoteldatamerger.model.HotelLocation;
+import com.codingchallenge.hoteldatamerger.model.HotelResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotelMergeMemoTest {
+
+    @Test
+    void testRebuildOnlyMergesChangedHotels() {
+        // Arrange
+        HotelMergeMemo memo = new HotelMergeMemo();
+        List<List<SupplierHotel>> merged = new ArrayList<>();
+        Function<List<SupplierHotel>, HotelResult> merge = supplierHotels -> {
+            merged.add(supplierHotels);
+            return hotelResult(supplierHotels.getFirst().getID());
+        };
+        List<HotelResult> first = memo.mergeAll(feed(hotel("iJhz", "Beach Villas"), hotel("SjyX", "InterContinental")), merge);
+        merged.clear();
+
+        // Act
+        // a fresh feed with the same content for iJhz and a new name for SjyX
+        List<HotelResult> second = memo.mergeAll(feed(hotel("iJhz", "Beach Villas"), hotel("SjyX", "InterContinental Singapore")), merge);
+
+        // Assert
+        assertSame(first.getFirst(), second.getFirst());
+        assertNotSame(first.get(1), second.get(1));
+        assertEquals(1, merged.size());
+        assertEquals("SjyX", merged.getFirst().getFirst().getID());
+        assertEquals(new HotelMergeMemo.Stats(2, 1, 1, 1, 3), memo.stats());
+    }
+
+    @Test
+    void testHotelsThatCannotBeMergedAreSkippedAndRemembered() {
+        // Arrange
+        HotelMergeMemo memo = new HotelMergeMemo();
+        Function<List<SupplierHotel>, HotelResult> merge = _ -> null;
+
+        // Act
+        List<HotelResult> first = memo.mergeAll(feed(hotel("iJhz", "")), merge);
+        List<HotelResult> second = memo.mergeAll(feed(hotel("iJhz", "")), _ -> fail("unchanged hotel must not be merged again"));
+
+        // Assert
+        assertTrue(first.isEmpty());
+        assertTrue(second.isEmpty());
+        assertEquals(1, memo.stats().lastReused());
+    }
+
+    @Test
+    void testParallelMergeKeepsTheOrderOfTheHotels() {
+        // Arrange
+        PatagoniaHotelResult[] hotels = new PatagoniaHotelResult[2000];
+        for (int i = 0; i < hotels.length; i++) {
+            // every third hotel cannot be merged
+            hotels[i] = hotel("h" + i, i % 3 == 0 ? "" : "Hotel " + i);
+        }
+        Function<List<SupplierHotel>, HotelResult> merge = supplierHotels -> {
+            if (((PatagoniaHotelResult) supplierHotels.getFirst()).getName().isBlank()) {
+                return null;
+            }
+            return hotelResult(supplierHotels.getFirst().getID());
+        };
+        HotelMergeMemo memo = new HotelMergeMemo(4);
+
+        // Act
+        List<HotelResult> sequential = new HotelMergeMemo().mergeAll(feed(hotels), merge);
+        List<HotelResult> parallel = memo.mergeAll(feed(hotels), merge);
+        memo.shutdown();
+
+        // Assert
+        assertEquals(sequential.stream().map(HotelResult::id).toList(), parallel.stream().map(HotelResult::id).toList());
+        assertEquals(new HotelMergeMemo.Stats(1, 0, 2000, 0, 2000), memo.stats());
+    }
+
+    private static Map<String, List<SupplierHotel>> feed(PatagoniaHotelResult... hotels) {
+        Map<String, List<SupplierHotel>> feed = new LinkedHashMap<>();
+        for (PatagoniaHotelResult hotel : hotels) {
+            feed.put(hotel.getID(), List.of(hotel));
+        }
+        return feed;
+    }
+
+    private static PatagoniaHotelResult hotel(String hotelID, String name) {
+        PatagoniaHotelResult hotel = new PatagoniaHotelResult();
+        hotel.setID(hotelID);
+        hotel.setName(name);
+        hotel.setDestination(5432);
+        return hotel;
+    }
+
+    private static HotelResult hotelResult(String hotelID) {
+        return new HotelResult(hotelID, 5432, "", HotelLocation.EMPTY, "", HotelAmenities.EMPTY, HotelImages.EMPTY, List.of());
+    }
+}
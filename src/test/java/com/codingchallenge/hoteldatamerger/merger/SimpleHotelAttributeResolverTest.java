@@ -73,11 +73,11 @@ class SimpleHotelAttributeResolverTest {
         SimpleHotelAttributeResolver resolver = new SimpleHotelAttributeResolver(List.of(acmeHotelResult));
         HotelLocation location = resolver.resolveLocation();
 
-        assertEquals(10.123f, location.getLat());
-        assertEquals(20.456f, location.getLng());
-        assertEquals("123 Main Street", location.getAddress());
-        assertEquals("Test City", location.getCity());
-        assertEquals("Test Country", location.getCountry());
+        assertEquals(10.123f, location.lat());
+        assertEquals(20.456f, location.lng());
+        assertEquals("123 Main Street", location.address());
+        assertEquals("Test City", location.city());
+        assertEquals("Test Country", location.country());
     }
 
     @Test
@@ -90,11 +90,11 @@ class SimpleHotelAttributeResolverTest {
         SimpleHotelAttributeResolver resolver = new SimpleHotelAttributeResolver(List.of(patagoniaHotelResult));
         HotelLocation location = resolver.resolveLocation();
 
-        assertEquals(15.789f, location.getLat());
-        assertEquals(25.987f, location.getLng());
-        assertEquals("456 Elm Street", location.getAddress());
-        assertNull(location.getCity());
-        assertNull(location.getCountry());
+        assertEquals(15.789f, location.lat());
+        assertEquals(25.987f, location.lng());
+        assertEquals("456 Elm Street", location.address());
+        assertNull(location.city());
+        assertNull(location.country());
     }
 
     @Test
@@ -108,11 +108,11 @@ class SimpleHotelAttributeResolverTest {
         SimpleHotelAttributeResolver resolver = new SimpleHotelAttributeResolver(List.of(paperfliesHotelResult));
         HotelLocation location = resolver.resolveLocation();
 
-        assertEquals("789 Oak Street", location.getAddress());
-        assertEquals("Mock Country", location.getCountry());
-        assertEquals(0, location.getLat());
-        assertEquals(0, location.getLng());
-        assertNull(location.getCity());
+        assertEquals("789 Oak Street", location.address());
+        assertEquals("Mock Country", location.country());
+        assertEquals(0, location.lat());
+        assertEquals(0, location.lng());
+        assertNull(location.city());
     }
 
     @Test
@@ -138,11 +138,11 @@ class SimpleHotelAttributeResolverTest {
         SimpleHotelAttributeResolver resolver = new SimpleHotelAttributeResolver(List.of(acmeHotelResult, patagoniaHotelResult, paperfliesHotelResult));
         HotelLocation location = resolver.resolveLocation();
 
-        assertEquals(98.765f, location.getLat()); // Patagonia result takes priority for latitude
-        assertEquals(43.210f, location.getLng()); // Patagonia result takes priority for longitude
-        assertEquals("Patagonia Address", location.getAddress()); // Patagonia result address takes priority
-        assertEquals("Acme City", location.getCity()); // Acme city gets priority
-        assertEquals("Paperflies Country", location.getCountry()); // Paperflies country gets priority
+        assertEquals(98.765f, location.lat()); // Patagonia result takes priority for latitude
+        assertEquals(43.210f, location.lng()); // Patagonia result takes priority for longitude
+        assertEquals("Patagonia Address", location.address()); // Patagonia result address takes priority
+        assertEquals("Acme City", location.city()); // Acme city gets priority
+        assertEquals("Paperflies Country", location.country()); // Paperflies country gets priority
     }
 
     @Test
@@ -150,11 +150,11 @@ class SimpleHotelAttributeResolverTest {
         SimpleHotelAttributeResolver resolver = new SimpleHotelAttributeResolver(List.of());
         HotelLocation location = resolver.resolveLocation();
 
-        assertEquals(0, location.getLat());
-        assertEquals(0, location.getLng());
-        assertNull(location.getAddress());
-        assertNull(location.getCity());
-        assertNull(location.getCountry());
+        assertEquals(0, location.lat());
+        assertEquals(0, location.lng());
+        assertNull(location.address());
+        assertNull(location.city());
+        assertNull(location.country());
     }
 
     @Test
@@ -189,8 +189,9 @@ class SimpleHotelAttributeResolverTest {
 
         assertEquals(3, amenities.getGeneral().size());
         assertEquals(1, amenities.getRoom().size());
-        assertTrue(amenities.getGeneral().containsAll(List.of("Swimming Pool", "Free WiFi", "Parking")));
-        assertTrue(amenities.getRoom().contains("Air Conditioning"));
+        // known amenities are displayed with their canonical name
+        assertTrue(amenities.getGeneral().containsAll(List.of("Pool", "Free WiFi", "Parking")));
+        assertTrue(amenities.getRoom().contains("Air conditioning"));
     }
 
     @Test
@@ -204,9 +205,9 @@ class SimpleHotelAttributeResolverTest {
         SimpleHotelAttributeResolver resolver = new SimpleHotelAttributeResolver(List.of(patagoniaHotelResult, paperfliesHotelResult));
         HotelImages images = resolver.resolveImages();
 
-        assertTrue(images.getSiteImages().isEmpty());
-        assertTrue(images.getAmenitiesImages().isEmpty());
-        assertTrue(images.getRoomImages().isEmpty());
+        assertTrue(images.siteImages().isEmpty());
+        assertTrue(images.amenitiesImages().isEmpty());
+        assertTrue(images.roomImages().isEmpty());
     }
 
     @Test
@@ -232,13 +233,13 @@ class SimpleHotelAttributeResolverTest {
         SimpleHotelAttributeResolver resolver = new SimpleHotelAttributeResolver(List.of(patagoniaHotelResult, paperfliesHotelResult));
         HotelImages images = resolver.resolveImages();
 
-        assertEquals(1, images.getSiteImages().size());
-        assertEquals("siteLink", images.getSiteImages().getFirst().getLink());
-        assertEquals("SiteCaption", images.getSiteImages().getFirst().getDescription());
+        assertEquals(1, images.siteImages().size());
+        assertEquals("siteLink", images.siteImages().getFirst().getLink());
+        assertEquals("SiteCaption", images.siteImages().getFirst().getDescription());
 
-        assertEquals(1, images.getRoomImages().size());
-        assertEquals("roomURL", images.getRoomImages().getFirst().getLink());
-        assertEquals("RoomDescription", images.getRoomImages().getFirst().getDescription());
+        assertEquals(1, images.roomImages().size());
+        assertEquals("roomURL", images.roomImages().getFirst().getLink());
+        assertEquals("RoomDescription", images.roomImages().getFirst().getDescription());
     }
 
     @Test
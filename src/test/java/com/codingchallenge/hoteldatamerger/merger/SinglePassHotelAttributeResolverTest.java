@@ -0,0 +1,269 @@
+package com.codingchallenge.hoteldatamerger.merger;
+
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.SupplierHotel;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.acme.AcmeHotelResult;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.paperflies.PaperfliesHotelAmenities;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.paperflies.PaperfliesHotelImage;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.paperflies.PaperfliesHotelImages;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.paperflies.PaperfliesHotelLocation;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.paperflies.PaperfliesHotelResult;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.patagonia.PatagoniaHotelImage;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.patagonia.PatagoniaHotelImages;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.patagonia.PatagoniaHotelResult;
+import com.codingchallenge.hoteldatamerger.model.HotelAmenities;
+import com.codingchallenge.hoteldatamerger.model.HotelImages;
+import com.codingchallenge.hoteldatamerger.model.HotelLocation;
+import com.codingchallenge.hoteldatamerger.model.HotelProvenance;
+import com.codingchallenge.hoteldatamerger.model.HotelProvenance.Attribute;
+import com.codingchallenge.hoteldatamerger.model.HotelResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SinglePassHotelAttributeResolverTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    // values the suppliers send, including blanks, padding and spellings that deduplicate to the same key
+    private static final String[] VALUES = {null, "", "  ", "a", " Pool ", "pool", "Business Center", "businesscenter",
+            "wifi", "WiFi ", "tv", "the longest value of them all", "equal length 1", "equal length 2"};
+
+    @Test
+    void testResolvesLikeSimpleResolver() throws Exception {
+        // Arrange
+        Random random = new Random(7);
+
+        for (int i = 0; i < 5000; i++) {
+            List<SupplierHotel> hotels = randomHotels(random);
+
+            // Act
+            String expected = MAPPER.writeValueAsString(new HotelResultMergeProcessor(new SimpleHotelAttributeResolver(hotels)).mergeDetails());
+            String actual = MAPPER.writeValueAsString(new HotelResultMergeProcessor(new SinglePassHotelAttributeResolver(hotels)).mergeDetails());
+
+            // Assert
+            assertEquals(expected, actual, "hotel " + i);
+        }
+    }
+
+    @Test
+    void testResolveDescriptionKeepsTheFirstOfEqualLength() {
+        // Arrange
+        PatagoniaHotelResult patagoniaHotel = new PatagoniaHotelResult();
+        patagoniaHotel.setInfo("patagonia info");
+        AcmeHotelResult acmeHotel = new AcmeHotelResult();
+        acmeHotel.setDescription("acme info here");
+
+        // Act
+        String description = new SinglePassHotelAttributeResolver(List.of(patagoniaHotel, acmeHotel)).resolveDescription();
+
+        // Assert
+        assertEquals("Patagonia info", description);
+    }
+
+    @Test
+    void testRecordsTheSuppliersOfEveryResolvedAttribute() {
+        // Arrange
+        AcmeHotelResult acme = new AcmeHotelResult();
+        acme.setID("iJhz");
+        acme.setDestinationID("5432");
+        acme.setName("Beach Villas Singapore");
+        acme.setLatitude(1.264751f);
+        acme.setLongitude(103.824006f);
+        acme.setCity("singapore");
+        acme.setFacilities(List.of("Pool", "WiFi "));
+        PaperfliesHotelResult paperflies = new PaperfliesHotelResult();
+        paperflies.setID("iJhz");
+        paperflies.setDetails("Surrounded by tropical gardens, on the beach");
+        PaperfliesHotelLocation location = new PaperfliesHotelLocation();
+        location.setCountry("Singapore");
+        paperflies.setLocation(location);
+        PaperfliesHotelAmenities amenities = new PaperfliesHotelAmenities();
+        amenities.setGeneral(List.of("wifi"));
+        paperflies.setAmenities(amenities);
+        paperflies.setBookingConditions(List.of("All children are welcome."));
+        PatagoniaHotelResult patagonia = new PatagoniaHotelResult();
+        patagonia.setID("iJhz");
+        patagonia.setLatitude(1.264752f);
+        patagonia.setAddress("8 Sentosa Gateway, Beach Villas");
+        patagonia.setInfo("Beachfront escape");
+
+        // Act
+        HotelResult hotel = new HotelResultMergeProcessor(new SinglePassHotelAttributeResolver(List.of(acme, paperflies, patagonia))).mergeDetails();
+
+        // Assert
+        Map<String, List<String>> expected = new LinkedHashMap<>();
+        expected.put("id", List.of("patagonia"));
+        expected.put("destination_id", List.of("acme"));
+        expected.put("name", List.of("acme"));
+        // patagonia's lat and address, acme's lng and city, the country paperflies overwrote
+        expected.put("location", List.of("acme", "paperflies", "patagonia"));
+        expected.put("description", List.of("paperflies"));
+        // acme only added the pool, the wifi came from paperflies first
+        expected.put("amenities", List.of("acme", "paperflies"));
+        expected.put("images", List.of());
+        expected.put("booking_conditions", List.of("paperflies"));
+        assertEquals(expected, HotelProvenance.supplierNames(hotel.provenance()));
+    }
+
+    @Test
+    void testProvenanceOnlyCreditsSuppliersOfResolvedAttributes() {
+        // Arrange
+        Random random = new Random(11);
+
+        for (int i = 0; i < 5000; i++) {
+            List<SupplierHotel> hotels = randomHotels(random);
+            int suppliers = 0;
+            for (SupplierHotel supplierHotel : hotels) {
+                suppliers |= switch (supplierHotel) {
+                    case AcmeHotelResult ignored -> HotelProvenance.ACME;
+                    case PaperfliesHotelResult ignored -> HotelProvenance.PAPERFLIES;
+                    default -> HotelProvenance.PATAGONIA;
+                };
+            }
+
+            // Act
+            HotelResult hotel = new HotelResultMergeProcessor(new SinglePassHotelAttributeResolver(hotels)).mergeDetails();
+
+            // Assert
+            for (Attribute attribute : Attribute.values()) {
+                assertEquals(0, attribute.suppliers(hotel.provenance()) & ~suppliers, "hotel " + i + " " + attribute);
+            }
+            assertEquals(hotel.name().isEmpty(), Attribute.NAME.suppliers(hotel.provenance()) == 0, "hotel " + i);
+            assertEquals(hotel.location() == HotelLocation.EMPTY, Attribute.LOCATION.suppliers(hotel.provenance()) == 0, "hotel " + i);
+            assertEquals(hotel.description().isEmpty(), Attribute.DESCRIPTION.suppliers(hotel.provenance()) == 0, "hotel " + i);
+            assertEquals(hotel.amenities() == HotelAmenities.EMPTY, Attribute.AMENITIES.suppliers(hotel.provenance()) == 0, "hotel " + i);
+            assertEquals(hotel.images() == HotelImages.EMPTY, Attribute.IMAGES.suppliers(hotel.provenance()) == 0, "hotel " + i);
+            assertEquals(hotel.bookingConditions().isEmpty(), Attribute.BOOKING_CONDITIONS.suppliers(hotel.provenance()) == 0, "hotel " + i);
+        }
+    }
+
+    private static List<SupplierHotel> randomHotels(Random random) {
+        List<SupplierHotel> hotels = new ArrayList<>();
+        int records = random.nextInt(6);
+        for (int i = 0; i < records; i++) {
+            hotels.add(switch (random.nextInt(3)) {
+                case 0 -> acme(random);
+                case 1 -> paperflies(random);
+                default -> patagonia(random);
+            });
+        }
+        Collections.shuffle(hotels, random);
+        return hotels;
+    }
+
+    private static AcmeHotelResult acme(Random random) {
+        AcmeHotelResult result = new AcmeHotelResult();
+        result.setID(value(random));
+        result.setDestinationID(random.nextBoolean() ? String.valueOf(random.nextInt(3)) : value(random) == null ? null : " ");
+        result.setName(value(random));
+        result.setLatitude(random.nextInt(3));
+        result.setLongitude(random.nextInt(3));
+        result.setAddress(value(random));
+        result.setCity(value(random));
+        result.setCountry(value(random));
+        result.setDescription(value(random));
+        result.setFacilities(values(random));
+        return result;
+    }
+
+    private static PaperfliesHotelResult paperflies(Random random) {
+        PaperfliesHotelResult result = new PaperfliesHotelResult();
+        result.setID(value(random));
+        result.setDestinationID(random.nextInt(3));
+        result.setName(value(random));
+        if (random.nextBoolean()) {
+            PaperfliesHotelLocation location = new PaperfliesHotelLocation();
+            location.setAddress(value(random));
+            location.setCountry(value(random));
+            result.setLocation(location);
+        }
+        result.setDetails(value(random));
+        if (random.nextBoolean()) {
+            PaperfliesHotelAmenities amenities = new PaperfliesHotelAmenities();
+            amenities.setGeneral(values(random));
+            amenities.setRoom(values(random));
+            result.setAmenities(amenities);
+        }
+        if (random.nextBoolean()) {
+            PaperfliesHotelImages images = new PaperfliesHotelImages();
+            images.setSite(paperfliesImages(random));
+            images.setRooms(paperfliesImages(random));
+            result.setImages(images);
+        }
+        List<String> bookingConditions = values(random);
+        if (bookingConditions != null && random.nextBoolean()) {
+            bookingConditions.add("first===second");
+        }
+        result.setBookingConditions(bookingConditions);
+        return result;
+    }
+
+    private static PatagoniaHotelResult patagonia(Random random) {
+        PatagoniaHotelResult result = new PatagoniaHotelResult();
+        result.setID(value(random));
+        result.setDestination(random.nextInt(3));
+        result.setName(value(random));
+        result.setLatitude(random.nextInt(3));
+        result.setLongitude(random.nextInt(3));
+        result.setAddress(value(random));
+        result.setInfo(value(random));
+        result.setAmenities(values(random));
+        if (random.nextBoolean()) {
+            PatagoniaHotelImages images = new PatagoniaHotelImages();
+            images.setAmenities(patagoniaImages(random));
+            images.setRooms(patagoniaImages(random));
+            result.setImages(images);
+        }
+        return result;
+    }
+
+    private static List<PaperfliesHotelImage> paperfliesImages(Random random) {
+        List<PaperfliesHotelImage> images = new ArrayList<>();
+        for (int i = random.nextInt(4); i > 0; i--) {
+            PaperfliesHotelImage image = new PaperfliesHotelImage();
+            image.setLink(imageLink(random));
+            image.setCaption(value(random));
+            images.add(image);
+        }
+        return images;
+    }
+
+    private static List<PatagoniaHotelImage> patagoniaImages(Random random) {
+        List<PatagoniaHotelImage> images = new ArrayList<>();
+        for (int i = random.nextInt(4); i > 0; i--) {
+            PatagoniaHotelImage image = new PatagoniaHotelImage();
+            image.setUrl(imageLink(random));
+            image.setDescription(value(random));
+            images.add(image);
+        }
+        return images;
+    }
+
+    private static String imageLink(Random random) {
+        return random.nextInt(5) == 0 ? value(random) : "https://images.example.com/" + random.nextInt(4) + ".jpg ";
+    }
+
+    private static String value(Random random) {
+        return VALUES[random.nextInt(VALUES.length)];
+    }
+
+    // null or a mutable list of non null values
+    private static List<String> values(Random random) {
+        if (random.nextInt(4) == 0) {
+            return null;
+        }
+        List<String> values = new ArrayList<>();
+        for (int i = random.nextInt(4); i > 0; i--) {
+            String value = value(random);
+            values.add(value == null ? "wifi" : value);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,44 @@
+package com.codingchallenge.hoteldatamerger.merger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StringPoolTest {
+
+    @Test
+    void testEqualValuesShareOneInstance() {
+        // Arrange
+        StringPool pool = new StringPool();
+        String singapore = pool.intern(new String("Singapore"));
+
+        // Act
+        String copy = pool.intern(new String("Singapore"));
+        String pooledAgain = pool.intern(singapore);
+
+        // Assert
+        assertSame(singapore, copy);
+        assertSame(singapore, pooledAgain);
+        assertNull(pool.intern(null));
+        // a latin1 copy of 9 characters takes 24 + 16 + 9 bytes, 56 once aligned
+        assertEquals(new StringPool.Stats(1, 3, 1, 56), pool.stats());
+    }
+
+    @Test
+    void testSavedBytesStartOverWithTheValues() {
+        // Arrange
+        StringPool pool = new StringPool(1);
+        pool.intern(new String("Singapore"));
+        pool.intern(new String("Singapore"));
+        long savedBeforeStartingOver = pool.stats().savedBytes();
+
+        // Act
+        pool.intern(new String("Tokyo"));
+        pool.intern(new String("Tokyo"));
+
+        // Assert
+        assertEquals(56, savedBeforeStartingOver);
+        // only the copy of the value still held is saved. a latin1 copy of 5 characters takes 48 bytes once aligned
+        assertEquals(new StringPool.Stats(1, 4, 2, 48), pool.stats());
+    }
+}
@@ -0,0 +1,67 @@
+package com.codingchallenge.hoteldatamerger.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AmenityDictionaryTest {
+
+    private final AmenityDictionary dictionary = AmenityDictionary.global();
+
+    @Test
+    void testSynonymsShareTheIdOfTheKnownAmenity() {
+        // Act
+        int wifi = dictionary.idOf("wifi");
+        int wireless = dictionary.idOf(" Wireless Internet ");
+        int tub = dictionary.idOf("Tub");
+        int bathtub = dictionary.idOf("BathTub");
+
+        // Assert
+        assertEquals(wifi, dictionary.idOf("WiFi "));
+        assertEquals(wifi, wireless);
+        assertEquals(tub, bathtub);
+        assertNotEquals(dictionary.idOf("pool"), dictionary.idOf("indoor pool"));
+        BitSet ids = new BitSet();
+        ids.set(bathtub);
+        ids.set(wifi);
+        assertEquals(List.of("WiFi", "Bathtub"), dictionary.displayNames(ids));
+    }
+
+    @Test
+    void testOtherAmenitiesKeepTheSpellingTheyWereFirstSeenWith() {
+        // Act
+        int rooftopTerrace = dictionary.idOf("RooftopTerrace");
+        int spelledApart = dictionary.idOf("rooftop terrace");
+
+        // Assert
+        assertEquals(rooftopTerrace, spelledApart);
+        // only whole amenities are matched, a known amenity within another one is not enough
+        assertNotEquals(dictionary.idOf("pool"), dictionary.idOf("pool table"));
+        BitSet ids = new BitSet();
+        ids.set(rooftopTerrace);
+        assertEquals(List.of("RooftopTerrace"), dictionary.displayNames(ids));
+        assertEquals(-1, dictionary.idOf(" 24/7 "));
+    }
+
+    @Test
+    void testOtherAmenitiesFollowTheKnownOnesInLetterOrder() {
+        // Arrange
+        BitSet ids = new BitSet();
+        ids.set(dictionary.idOf("zen garden"));
+        ids.set(dictionary.idOf("Bathtub"));
+        ids.set(dictionary.idOf("art gallery"));
+        ids.set(dictionary.idOf("wifi"));
+
+        // Act
+        List<String> names = dictionary.displayNames(ids);
+        List<String> fromWords = dictionary.displayNames(ids.toLongArray());
+
+        // Assert
+        // the ids of other amenities follow the order they were first seen in, the display order does not
+        assertEquals(List.of("WiFi", "Bathtub", "Art gallery", "Zen garden"), names);
+        assertEquals(names, fromWords);
+    }
+}
@@ -0,0 +1,39 @@
+package com.codingchallenge.hoteldatamerger.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotelImageTest {
+
+    @Test
+    void testImagesDifferingInCaseAndWhitespaceAreDeduplicated() {
+        // Arrange
+        HotelImage image = HotelImage.of("https://images.example.com/iJhz/2.jpg", "Double room");
+        HotelImage spelledDifferently = HotelImage.of("https://images.example.com/iJhz/2.jpg", "Double Room ");
+
+        // Act
+        Set<HotelImage> images = new LinkedHashSet<>(List.of(image, spelledDifferently));
+
+        // Assert
+        assertEquals(image, spelledDifferently);
+        assertEquals(image.hashCode(), spelledDifferently.hashCode());
+        assertEquals(1, images.size());
+        assertNotEquals(image, HotelImage.of("https://images.example.com/iJhz/3.jpg", "Double room"));
+    }
+
+    @Test
+    void testSameImageIsSharedAcrossHotels() {
+        // Act
+        HotelImage first = HotelImage.of("https://images.example.com/SjyX/0.jpg", "Lobby");
+        HotelImage second = HotelImage.of("https://images.example.com/SjyX/0.jpg", "Lobby");
+
+        // Assert
+        assertSame(first, second);
+        assertNotSame(first, HotelImage.of("https://images.example.com/SjyX/0.jpg", "lobby"));
+    }
+}
@@ -0,0 +1,58 @@
+package com.codingchallenge.hoteldatamerger.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotelResultTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void testSerializesToTheSameJsonAsTheBeanModel() throws Exception {
+        // Arrange
+        AmenityDictionary dictionary = AmenityDictionary.global();
+        BitSet general = new BitSet();
+        general.set(dictionary.idOf("wifi"));
+        general.set(dictionary.idOf("outdoor pool"));
+        BitSet room = new BitSet();
+        room.set(dictionary.idOf("tv"));
+        HotelResult hotel = new HotelResult("iJhz", 5432, "Beach Villas Singapore",
+                HotelLocation.of(1.264751f, 103.82404f, "8 Sentosa Gateway, Beach Villas, 098269", "Singapore", "Singapore"),
+                "Surrounded by tropical gardens",
+                HotelAmenities.of(general, room),
+                HotelImages.of(List.of(HotelImage.of("https://images.example.com/iJhz/2.jpg", "Double room")), List.of(), List.of()),
+                List.of("All children are welcome."));
+
+        // Act
+        String json = mapper.writeValueAsString(hotel);
+
+        // Assert
+        assertEquals("{\"id\":\"iJhz\",\"destination_id\":5432,\"name\":\"Beach Villas Singapore\","
+                + "\"location\":{\"lat\":1.264751,\"lng\":103.82404,\"address\":\"8 Sentosa Gateway, Beach Villas, 098269\",\"city\":\"Singapore\",\"country\":\"Singapore\"},"
+                + "\"description\":\"Surrounded by tropical gardens\","
+                + "\"amenities\":{\"general\":[\"WiFi\",\"Outdoor pool\"],\"room\":[\"TV\"]},"
+                + "\"images\":{\"rooms\":[{\"link\":\"https://images.example.com/iJhz/2.jpg\",\"description\":\"Double room\"}],\"site\":[],\"amenities\":[]},"
+                + "\"booking_conditions\":[\"All children are welcome.\"]}", json);
+    }
+
+    @Test
+    void testHotelsWithoutDetailsShareTheEmptyInstances() throws Exception {
+        // Act
+        HotelLocation location = HotelLocation.of(0, 0, null, null, null);
+        HotelAmenities amenities = HotelAmenities.of(new BitSet(), new BitSet());
+        HotelImages images = HotelImages.of(List.of(), List.of(), List.of());
+
+        // Assert
+        assertSame(HotelLocation.EMPTY, location);
+        assertSame(HotelAmenities.EMPTY, amenities);
+        assertSame(HotelImages.EMPTY, images);
+        assertEquals("{\"lat\":0.0,\"lng\":0.0,\"address\":null,\"city\":null,\"country\":null}", mapper.writeValueAsString(location));
+        assertEquals("{\"general\":[],\"room\":[]}", mapper.writeValueAsString(amenities));
+        assertThrows(UnsupportedOperationException.class, () -> images.roomImages().add(HotelImage.of("link", "Lobby")));
+    }
+}
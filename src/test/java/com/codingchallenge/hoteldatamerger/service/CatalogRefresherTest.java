@@ -0,0 +1,91 @@
+package com.codingchallenge.hoteldatamerger.service;
+
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.SupplierFetchException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CatalogRefresherTest {
+
+    @Mock
+    private HotelService hotelService;
+
+    private SupplierFetchExecutor supplierFetchExecutor;
+    private CatalogRefresher catalogRefresher;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(hotelService.getSupplierNames()).thenReturn(List.of("patagonia", "acme"));
+        MockEnvironment environment = new MockEnvironment().withProperty("suppliers.acme.refresh.interval", "1h");
+        supplierFetchExecutor = new SupplierFetchExecutor(SupplierFetchExecutor.Mode.VIRTUAL, 5, 2);
+        catalogRefresher = new CatalogRefresher(hotelService, supplierFetchExecutor, environment, Duration.ofMinutes(10), 0.1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        catalogRefresher.shutdown();
+        supplierFetchExecutor.shutdown();
+    }
+
+    @Test
+    void testStartRefreshesEverySupplierRightAway() {
+        // Arrange
+        Instant start = Instant.now();
+
+        // Act
+        catalogRefresher.start();
+
+        // Assert
+        verify(hotelService, timeout(5000)).refreshSupplier("patagonia");
+        verify(hotelService, timeout(5000)).refreshSupplier("acme");
+        CatalogRefresher.Stats acme = awaitRefresh("acme");
+        assertEquals(Duration.ofHours(1), acme.interval());
+        assertEquals(1, acme.refreshes());
+        assertEquals(0, acme.failures());
+        assertNotNull(acme.lastRefresh());
+        // the next refresh is jittered by up to 10% of the interval
+        assertTrue(acme.nextRefresh().isAfter(start.plus(Duration.ofMinutes(54))));
+        assertTrue(acme.nextRefresh().isBefore(Instant.now().plus(Duration.ofMinutes(66))));
+        assertEquals(Duration.ofMinutes(10), catalogRefresher.stats().get("patagonia").interval());
+    }
+
+    @Test
+    void testFailedRefreshIsCounted() {
+        // Arrange
+        doThrow(new SupplierFetchException("server returned an error")).when(hotelService).refreshSupplier("acme");
+
+        // Act
+        catalogRefresher.start();
+
+        // Assert
+        CatalogRefresher.Stats acme = awaitRefresh("acme");
+        assertEquals(0, acme.refreshes());
+        assertEquals(1, acme.failures());
+        assertEquals(1, acme.consecutiveFailures());
+        assertNull(acme.lastRefresh());
+    }
+
+    // waits until the first refresh of the supplier completed and the next one is scheduled
+    private CatalogRefresher.Stats awaitRefresh(String supplier) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (System.nanoTime() < deadline) {
+            CatalogRefresher.Stats stats = catalogRefresher.stats().get(supplier);
+            if (stats.refreshes() + stats.failures() > 0 && stats.nextRefresh().isAfter(Instant.now())) {
+                return stats;
+            }
+            Thread.onSpinWait();
+        }
+        return fail("supplier " + supplier + " was not refreshed");
+    }
+}
@@ -0,0 +1,109 @@
+package com.codingchallenge.hoteldatamerger.service;
+
+import com.codingchallenge.hoteldatamerger.model.HotelAmenities;
+import com.codingchallenge.hoteldatamerger.model.HotelImage;
+import com.codingchallenge.hoteldatamerger.model.HotelImages;
+import com.codingchallenge.hoteldatamerger.model.HotelLocation;
+import com.codingchallenge.hoteldatamerger.model.HotelProvenance;
+import com.codingchallenge.hoteldatamerger.model.HotelProvenance.Attribute;
+import com.codingchallenge.hoteldatamerger.model.HotelResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class HotelResponseWriterTest {
+
+    private static final String HOTELS_URI = "http://localhost:8080/api/v1/hotels";
+
+    private final ObjectMapper objectMapper = spy(new ObjectMapper());
+    private final HotelResponseWriter writer = new HotelResponseWriter(objectMapper);
+
+    @Test
+    void testPageIsWrittenAsJacksonWritesTheHotelModels() throws Exception {
+        // Arrange
+        List<HotelResult> hotels = List.of(hotel("SjyX", "InterContinental Singapore Robertson Quay"), hotel("iJhz", "Beach Villas \"Sentosa\""));
+        PaginatedHotelResponse response = new PaginatedHotelResponse(hotels, 3, 2, 0);
+        response.setNext(Link.of(HOTELS_URI + "?offset=2&limit=2", "next"));
+        response.setPartial(true);
+
+        // Act
+        byte[] written = writer.writeHotels(response, HOTELS_URI);
+
+        // Assert
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("hotels", hotels.stream()
+                .map(hotel -> EntityModel.of(hotel).add(Link.of(HOTELS_URI + "/" + hotel.id()).withSelfRel()))
+                .toList());
+        page.put("totalCount", 3);
+        page.put("limit", 2);
+        page.put("offset", 0);
+        page.put("next", response.getNext());
+        page.put("prev", null);
+        page.put("partial", true);
+        assertEquals(new ObjectMapper().writeValueAsString(page), new String(written, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testHotelIsWrittenAsHalAndRenderedOnce() throws Exception {
+        // Arrange
+        HotelResult hotel = hotel("f8c9", "Hilton Shinjuku Tokyo");
+        String json = new ObjectMapper().writeValueAsString(hotel);
+
+        // Act
+        byte[] first = writer.writeHotel(hotel, HOTELS_URI);
+        byte[] second = writer.writeHotel(hotel, "https://hotels.example.com/api/v1/hotels");
+        byte[] merged = writer.writeHotel(hotel("f8c9", "Hilton Tokyo"), HOTELS_URI);
+
+        // Assert
+        assertEquals(json.substring(0, json.length() - 1) + ",\"_links\":{\"self\":{\"href\":\"" + HOTELS_URI + "/f8c9\"}}}",
+                new String(first, StandardCharsets.UTF_8));
+        assertTrue(new String(second, StandardCharsets.UTF_8).endsWith("\"href\":\"https://hotels.example.com/api/v1/hotels/f8c9\"}}}"));
+        assertTrue(new String(merged, StandardCharsets.UTF_8).contains("\"name\":\"Hilton Tokyo\""));
+        // the same hotel is rendered once whatever the url, a hotel replaced by a rebuild is rendered again
+        verify(objectMapper, times(2)).writeValueAsBytes(any(HotelResult.class));
+        assertEquals(1, writer.renderedHotels());
+    }
+
+    @Test
+    void testProvenanceIsWrittenOnlyOnRequest() throws Exception {
+        // Arrange
+        int provenance = Attribute.NAME.with(Attribute.ID.with(HotelProvenance.NONE, HotelProvenance.PATAGONIA), HotelProvenance.ACME | HotelProvenance.PAPERFLIES);
+        HotelResult hotel = hotel("iJhz", "Beach Villas Singapore");
+        hotel = new HotelResult(hotel.id(), hotel.destinationId(), hotel.name(), hotel.location(), hotel.description(),
+                hotel.amenities(), hotel.images(), hotel.bookingConditions(), provenance);
+        String json = new ObjectMapper().writeValueAsString(hotel);
+
+        // Act
+        String plain = new String(writer.writeHotel(hotel, HOTELS_URI), StandardCharsets.UTF_8);
+        String withProvenance = new String(writer.writeHotel(hotel, HOTELS_URI, true), StandardCharsets.UTF_8);
+        String page = new String(writer.writeHotels(new PaginatedHotelResponse(List.of(hotel), 1, 10, 0), HOTELS_URI, true), StandardCharsets.UTF_8);
+
+        // Assert
+        String provenanceField = ",\"provenance\":{\"id\":[\"patagonia\"],\"destination_id\":[],\"name\":[\"acme\",\"paperflies\"],"
+                + "\"location\":[],\"description\":[],\"amenities\":[],\"images\":[],\"booking_conditions\":[]}";
+        assertFalse(plain.contains("provenance"));
+        assertEquals(json.substring(0, json.length() - 1) + provenanceField + ",\"_links\":{\"self\":{\"href\":\"" + HOTELS_URI + "/iJhz\"}}}",
+                withProvenance);
+        assertTrue(page.startsWith("{\"hotels\":[" + json.substring(0, json.length() - 1) + provenanceField + ",\"links\":["));
+    }
+
+    private static HotelResult hotel(String hotelID, String name) {
+        BitSet general = new BitSet();
+        general.set(0);
+        return new HotelResult(hotelID, 5432, name,
+                HotelLocation.of(1.264751f, 103.824005f, "8 Sentosa Gateway", "Singapore", "Singapore"),
+                "Surrounded by tropical gardens", HotelAmenities.of(general, new BitSet()),
+                HotelImages.of(List.of(HotelImage.of("https://images.example.com/" + hotelID + "/2.jpg", "Double room")), List.of(), List.of()),
+                List.of("All children are welcome."));
+    }
+}
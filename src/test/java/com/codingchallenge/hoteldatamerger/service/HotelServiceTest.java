@@ -1,20 +1,36 @@
 package com.codingchallenge.hoteldatamerger.service;
 
+import com.codingchallenge.hoteldatamerger.cachemanager.Cache;
 import com.codingchallenge.hoteldatamerger.cachemanager.CacheManager;
+import com.codingchallenge.hoteldatamerger.cachemanager.MergedResults;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.Deadline;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.HotelQuery;
 import com.codingchallenge.hoteldatamerger.hotelresultcollector.HotelResultCollector;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.ResilienceRegistry;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.ResilienceSettings;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.SupplierFetchException;
 import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.SupplierHotel;
 import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.acme.AcmeHotelResult;
 import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.paperflies.PaperfliesHotelResult;
 import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.patagonia.PatagoniaHotelResult;
+import com.codingchallenge.hoteldatamerger.model.HotelAmenities;
+import com.codingchallenge.hoteldatamerger.model.HotelImages;
+import com.codingchallenge.hoteldatamerger.model.HotelLocation;
 import com.codingchallenge.hoteldatamerger.model.HotelResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -25,21 +41,38 @@ class HotelServiceTest {
     private CacheManager cacheManager;
 
     @Mock
-    private HotelResultCollector acmeCollector;
+    private HotelResultCollector<AcmeHotelResult> acmeCollector;
 
     @Mock
-    private HotelResultCollector paperfliesCollector;
+    private HotelResultCollector<PaperfliesHotelResult> paperfliesCollector;
 
     @Mock
-    private HotelResultCollector patagoniaCollector;
+    private HotelResultCollector<PatagoniaHotelResult> patagoniaCollector;
 
     private HotelService hotelService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        List<HotelResultCollector> collectors = new ArrayList<>(List.of(acmeCollector, paperfliesCollector, patagoniaCollector));
-        hotelService = new HotelService(collectors, cacheManager);
+        // collectors stream the hotels returned by getAllHotels
+        doCallRealMethod().when(acmeCollector).streamAllHotels(any());
+        doCallRealMethod().when(paperfliesCollector).streamAllHotels(any());
+        doCallRealMethod().when(patagoniaCollector).streamAllHotels(any());
+        doCallRealMethod().when(acmeCollector).streamHotels(any(), any());
+        doCallRealMethod().when(paperfliesCollector).streamHotels(any(), any());
+        doCallRealMethod().when(patagoniaCollector).streamHotels(any(), any());
+        doCallRealMethod().when(acmeCollector).streamHotels(any(), any(), any());
+        doCallRealMethod().when(paperfliesCollector).streamHotels(any(), any(), any());
+        doCallRealMethod().when(patagoniaCollector).streamHotels(any(), any(), any());
+        when(acmeCollector.getSupplierName()).thenReturn("acme");
+        when(paperfliesCollector.getSupplierName()).thenReturn("paperflies");
+        when(patagoniaCollector.getSupplierName()).thenReturn("patagonia");
+        // cache misses run the loader
+        when(cacheManager.loadFilteredResults(anyList(), anyList(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<MergedResults>>getArgument(2).get());
+        List<HotelResultCollector<? extends SupplierHotel>> collectors = List.of(acmeCollector, paperfliesCollector, patagoniaCollector);
+        ResilienceRegistry resilienceRegistry = new ResilienceRegistry(new ResilienceSettings(3, Duration.ofSeconds(30), 0, Duration.ZERO, 0.2, 10));
+        hotelService = new HotelService(collectors, cacheManager, new SupplierFetchExecutor(SupplierFetchExecutor.Mode.VIRTUAL, 5, 4), resilienceRegistry, 2, 0.85, 150);
     }
 
     @Test
@@ -54,7 +87,7 @@ class HotelServiceTest {
         // Assert
         assertNotNull(response);
         assertEquals(1, response.getHotels().size());
-        assertEquals("abcd", response.getHotels().getFirst().getContent().getId());
+        assertEquals("abcd", response.getHotels().getFirst().id());
     }
 
     @Test
@@ -86,7 +119,7 @@ class HotelServiceTest {
         HotelResult result = hotelService.getHotelById("abcd");
         // Assert
         assertNotNull(result);
-        assertEquals("abcd", result.getId());
+        assertEquals("abcd", result.id());
     }
 
     @Test
@@ -122,6 +155,176 @@ class HotelServiceTest {
         assertTrue(resultsMap.containsKey("3"));
     }
 
+    @Test
+    void testCollectHotelResultsFromSuppliersWithQuery() {
+        // Arrange
+        when(acmeCollector.getAllHotels()).thenReturn(getDummyAcmeHotels());
+        when(paperfliesCollector.getAllHotels()).thenReturn(getDummyPaperfliesHotels());
+        when(patagoniaCollector.getAllHotels()).thenReturn(getDummyPatagoniaHotels());
+
+        // Act
+        Map<String, List<SupplierHotel>> resultsMap = hotelService.collectHotelResultsFromSuppliers(HotelQuery.of(List.of(), List.of("2")));
+
+        // Assert
+        assertEquals(Set.of("2"), resultsMap.keySet());
+        verify(acmeCollector).streamHotels(eq(HotelQuery.of(List.of(), List.of("2"))), any());
+    }
+
+    @Test
+    void testGetHotelsMarksResultPartialAfterDeadline() throws Exception {
+        // Arrange
+        when(cacheManager.getFilteredResults(anyList(), anyList())).thenReturn(null);
+        when(acmeCollector.getAllHotels()).thenReturn(getDummyAcmeHotels());
+        when(paperfliesCollector.getAllHotels()).thenReturn(getDummyPaperfliesHotels());
+        CountDownLatch cancelled = new CountDownLatch(1);
+        when(patagoniaCollector.getAllHotels()).thenAnswer(_ -> {
+            try {
+                Thread.sleep(5000);
+            } catch (InterruptedException e) {
+                cancelled.countDown();
+            }
+            return getDummyPatagoniaHotels();
+        });
+
+        // Act
+        long start = System.nanoTime();
+        PaginatedHotelResponse response = hotelService.getHotels(new ArrayList<>(), new ArrayList<>(), 10, 0, Deadline.after(Duration.ofMillis(200)));
+
+        // Assert
+        assertTrue(response.isPartial());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 2000);
+        // the slow supplier call is cancelled
+        assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testCollectHotelResultsFromSuppliersLeavesOutMissingSuppliers() {
+        // Arrange
+        when(acmeCollector.getAllHotels()).thenReturn(getDummyAcmeHotels());
+        when(paperfliesCollector.getAllHotels()).thenReturn(getDummyPaperfliesHotels());
+        when(patagoniaCollector.getAllHotels()).thenAnswer(_ -> {
+            Thread.sleep(5000);
+            return getDummyPatagoniaHotels();
+        });
+
+        // Act
+        HotelService.SupplierResults results = hotelService.collectHotelResultsFromSuppliers(HotelQuery.ALL, Deadline.after(Duration.ofMillis(200)));
+
+        // Assert
+        assertEquals(List.of("patagonia"), results.missingSuppliers());
+        assertEquals(Set.of("1", "3"), results.hotels().keySet());
+    }
+
+    @Test
+    void testSupplierFailingMidStreamMakesResultPartialAndUncached() {
+        // Arrange
+        @SuppressWarnings("unchecked")
+        Cache<String, List<HotelResult>> cache = mock(Cache.class);
+        ResilienceRegistry resilienceRegistry = new ResilienceRegistry(new ResilienceSettings(3, Duration.ofSeconds(30), 0, Duration.ZERO, 0.2, 10));
+        HotelService service = new HotelService(List.of(acmeCollector, paperfliesCollector, patagoniaCollector), new CacheManager(cache),
+                new SupplierFetchExecutor(SupplierFetchExecutor.Mode.VIRTUAL, 5, 4), resilienceRegistry, 2, 0.85, 150);
+        when(acmeCollector.getAllHotels()).thenReturn(getDummyAcmeHotels());
+        when(paperfliesCollector.getAllHotels()).thenReturn(getDummyPaperfliesHotels());
+        // patagonia sends its first hotel and then drops the connection
+        doAnswer(invocation -> {
+            invocation.<Consumer<PatagoniaHotelResult>>getArgument(2).accept(getDummyPatagoniaHotels().getFirst());
+            throw new SupplierFetchException("connection reset", null);
+        }).when(patagoniaCollector).streamHotels(any(), any(), any());
+
+        // Act
+        PaginatedHotelResponse response = service.getHotels(new ArrayList<>(), new ArrayList<>(), 10, 0);
+        HotelService.SupplierResults results = service.collectHotelResultsFromSuppliers(HotelQuery.ALL, Deadline.NONE);
+
+        // Assert
+        assertTrue(response.isPartial());
+        assertEquals(List.of("patagonia"), results.missingSuppliers());
+        verify(cache, never()).put(any(), any());
+    }
+
+    @Test
+    void testHotelMergedIntoAnotherIsServedUnderItsOtherID() {
+        // Arrange
+        refreshCatalogWithDuplicate("iJhz", "BV01");
+
+        // Act
+        HotelResult byMergedID = hotelService.getHotelById("iJhz");
+        HotelResult byKeptID = hotelService.getHotelById("BV01");
+        PaginatedHotelResponse byBothIDs = hotelService.getHotels(new ArrayList<>(), List.of("iJhz", "BV01"), 10, 0);
+
+        // Assert
+        assertNotNull(byMergedID);
+        assertEquals("BV01", byMergedID.id());
+        assertEquals(byKeptID, byMergedID);
+        assertEquals(1, byBothIDs.getHotels().size());
+        // the merged id is looked up and cached under the id it was merged into
+        verify(cacheManager, times(3)).loadFilteredResults(anyList(), eq(List.of("BV01")), any(), any());
+    }
+
+    @Test
+    void testHotelMergedUnderTheIDOfItsResolverIsServedUnderEveryID() {
+        // Arrange
+        // the group is keyed by the acme id, but the patagonia id is the one served
+        refreshCatalogWithDuplicate("AAAA", "ZZZZ");
+
+        // Act
+        List<HotelResult> catalog = hotelService.getHotels(new ArrayList<>(), new ArrayList<>(), 10, 0).getHotels();
+        HotelResult byAcmeID = hotelService.getHotelById("AAAA");
+        HotelResult byServedID = hotelService.getHotelById("ZZZZ");
+
+        // Assert
+        assertEquals(List.of("ZZZZ"), catalog.stream().map(HotelResult::id).toList());
+        assertNotNull(byServedID);
+        assertEquals("ZZZZ", byServedID.id());
+        assertEquals(byServedID, byAcmeID);
+    }
+
+    @Test
+    void testGetHotelsServedFromRefreshedCatalog() {
+        // Arrange
+        when(acmeCollector.getAllHotels()).thenReturn(getDummyAcmeHotels());
+        when(paperfliesCollector.getAllHotels()).thenReturn(getDummyPaperfliesHotels());
+        when(patagoniaCollector.getAllHotels()).thenReturn(getDummyPatagoniaHotels());
+        when(cacheManager.getFilteredResults(anyList(), anyList())).thenReturn(null);
+
+        // Act
+        hotelService.refreshSupplier("acme");
+        PaginatedHotelResponse partialCatalog = hotelService.getHotels(new ArrayList<>(), new ArrayList<>(), 10, 0);
+        hotelService.refreshSupplier("paperflies");
+        hotelService.refreshSupplier("patagonia");
+        PaginatedHotelResponse response = hotelService.getHotels(new ArrayList<>(), new ArrayList<>(), 10, 0);
+
+        // Assert
+        // suppliers that were not refreshed yet make the catalog partial
+        assertTrue(partialCatalog.isPartial());
+        assertFalse(response.isPartial());
+        // every supplier was only called by its refresh
+        verify(acmeCollector, times(1)).getAllHotels();
+        verify(paperfliesCollector, times(1)).getAllHotels();
+        verify(patagoniaCollector, times(1)).getAllHotels();
+        verify(cacheManager, times(3)).invalidateAll();
+    }
+
+    // acme and patagonia list the same hotel under different ids, and every supplier is refreshed
+    private void refreshCatalogWithDuplicate(String acmeID, String patagoniaID) {
+        AcmeHotelResult acme = new AcmeHotelResult();
+        acme.setID(acmeID);
+        acme.setDestinationID("5432");
+        acme.setName("Beach Villas Singapore");
+        acme.setLatitude(1.264751f);
+        acme.setLongitude(103.824006f);
+        PatagoniaHotelResult patagonia = new PatagoniaHotelResult();
+        patagonia.setID(patagoniaID);
+        patagonia.setDestination(5432);
+        patagonia.setName("The Beach Villas, Singapore");
+        patagonia.setLatitude(1.264760f);
+        patagonia.setLongitude(103.824010f);
+        when(acmeCollector.getAllHotels()).thenReturn(List.of(acme));
+        when(paperfliesCollector.getAllHotels()).thenReturn(List.of());
+        when(patagoniaCollector.getAllHotels()).thenReturn(List.of(patagonia));
+        when(cacheManager.getFilteredResults(anyList(), anyList())).thenReturn(null);
+        hotelService.getSupplierNames().forEach(hotelService::refreshSupplier);
+    }
+
     private List<PatagoniaHotelResult> getDummyPatagoniaHotels() {
         PatagoniaHotelResult res1 = new PatagoniaHotelResult();
         res1.setID("1");
@@ -159,10 +362,6 @@ class HotelServiceTest {
     }
 
     private HotelResult dummyHotelResult(String hotelID, int destinationID) {
-        HotelResult result = new HotelResult();
-        result.setId(hotelID);
-        result.setDestinationId(destinationID);
-
-        return result;
+        return new HotelResult(hotelID, destinationID, "", HotelLocation.EMPTY, "", HotelAmenities.EMPTY, HotelImages.EMPTY, List.of());
     }
 }
@@ -0,0 +1,27 @@
+package com.codingchallenge.hoteldatamerger.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestDeadlinesTest {
+
+    private final RequestDeadlines requestDeadlines = new RequestDeadlines(Duration.ofSeconds(6), Duration.ofSeconds(10));
+
+    @Test
+    void testBudgetFromHeaderIsCappedAtMax() {
+        // Act & Assert
+        assertEquals(Duration.ofMillis(500), requestDeadlines.budget("500"));
+        assertEquals(Duration.ofSeconds(10), requestDeadlines.budget("60000"));
+    }
+
+    @Test
+    void testBudgetFallsBackToDefault() {
+        // Act & Assert
+        assertEquals(Duration.ofSeconds(6), requestDeadlines.budget(null));
+        assertEquals(Duration.ofSeconds(6), requestDeadlines.budget("soon"));
+        assertEquals(Duration.ofSeconds(6), requestDeadlines.budget("0"));
+    }
+}
@@ -0,0 +1,92 @@
+package com.codingchallenge.hoteldatamerger.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SupplierFetchExecutorTest {
+
+    @Test
+    void testSubmitCapsConcurrentFetchesPerSupplier() throws Exception {
+        // Arrange
+        SupplierFetchExecutor executor = new SupplierFetchExecutor(SupplierFetchExecutor.Mode.VIRTUAL, 5, 2);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Act
+        List<CompletableFuture<Void>> fetches = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            fetches.add(executor.submit("acme", () -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                awaitQuietly(release);
+                running.decrementAndGet();
+            }));
+        }
+        // a fetch for another supplier is not held back by the busy one
+        executor.submit("patagonia", () -> {
+        }).get(5, TimeUnit.SECONDS);
+        release.countDown();
+        CompletableFuture.allOf(fetches.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(2, peak.get());
+        executor.shutdown();
+    }
+
+    @Test
+    void testPlatformModeRunsFetches() throws Exception {
+        // Arrange
+        SupplierFetchExecutor executor = new SupplierFetchExecutor(SupplierFetchExecutor.Mode.PLATFORM, 2, 4);
+        AtomicInteger fetched = new AtomicInteger();
+
+        // Act
+        CompletableFuture.allOf(
+                executor.submit("acme", fetched::incrementAndGet),
+                executor.submit("paperflies", fetched::incrementAndGet)
+        ).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(2, fetched.get());
+        executor.shutdown();
+    }
+
+    @Test
+    void testCancelInterruptsFetch() throws Exception {
+        // Arrange
+        SupplierFetchExecutor executor = new SupplierFetchExecutor(SupplierFetchExecutor.Mode.VIRTUAL, 5, 2);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        // Act
+        CompletableFuture<Void> fetch = executor.submit("acme", () -> {
+            started.countDown();
+            try {
+                Thread.sleep(5000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        fetch.cancel(true);
+
+        // Assert
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
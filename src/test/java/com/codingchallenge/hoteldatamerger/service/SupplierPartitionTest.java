@@ -0,0 +1,70 @@
+package com.codingchallenge.hoteldatamerger.service;
+
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.SupplierHotel;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.acme.AcmeHotelResult;
+import com.codingchallenge.hoteldatamerger.hotelresultcollector.suppliers.patagonia.PatagoniaHotelResult;
+import com.codingchallenge.hoteldatamerger.merger.HotelMatcher;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SupplierPartitionTest {
+
+    @Test
+    void testJoinGroupsHotelsByIDInSlotOrder() {
+        // Arrange
+        AcmeHotelResult acme = new AcmeHotelResult();
+        acme.setID("iJhz");
+        AcmeHotelResult acmeWithoutID = new AcmeHotelResult();
+        PatagoniaHotelResult patagonia = new PatagoniaHotelResult();
+        patagonia.setID("iJhz");
+        PatagoniaHotelResult otherPatagonia = new PatagoniaHotelResult();
+        otherPatagonia.setID("SjyX");
+        SupplierPartition<?>[] partitions = {
+                new SupplierPartition<>(0, List.of(acme, acmeWithoutID)),
+                null, // the supplier did not answer
+                new SupplierPartition<>(2, List.of(patagonia, otherPatagonia))
+        };
+
+        // Act
+        Map<String, List<SupplierHotel>> hotels = SupplierPartition.join(partitions);
+
+        // Assert
+        assertEquals(Set.of("iJhz", "SjyX"), hotels.keySet());
+        assertEquals(List.of(acme, patagonia), hotels.get("iJhz"));
+        assertEquals(List.of(otherPatagonia), hotels.get("SjyX"));
+    }
+
+    @Test
+    void testJoinWithMatcherGroupsDuplicatesUnderOneID() {
+        // Arrange
+        AcmeHotelResult acme = new AcmeHotelResult();
+        acme.setID("iJhz");
+        acme.setDestinationID("5432");
+        acme.setName("Beach Villas Singapore");
+        acme.setLatitude(1.264751f);
+        acme.setLongitude(103.824006f);
+        PatagoniaHotelResult patagonia = new PatagoniaHotelResult();
+        patagonia.setID("BV01");
+        patagonia.setDestination(5432);
+        patagonia.setName("The Beach Villas, Singapore");
+        patagonia.setLatitude(1.264760f);
+        patagonia.setLongitude(103.824010f);
+        SupplierPartition<?>[] partitions = {
+                new SupplierPartition<>(0, List.of(acme)),
+                new SupplierPartition<>(1, List.of(patagonia))
+        };
+
+        // Act
+        SupplierPartition.Joined joined = SupplierPartition.join(partitions, new HotelMatcher(0.85, 150));
+
+        // Assert
+        assertEquals(Set.of("BV01"), joined.hotels().keySet());
+        assertEquals(List.of(acme, patagonia), joined.hotels().get("BV01"));
+        assertEquals(Map.of("iJhz", "BV01"), joined.aliases());
+    }
+}